@@ -108,4 +108,53 @@ public interface BDDBIPEngine {
 	 */
 	void specifyPermanentExtraConstraints(Set<BDD> extraConstraints);
 
+	/**
+	 * Getter for the total constraints BDD, i.e. the conjunction of the behaviour, glue and permanent data constraints.
+	 *
+	 * @return the total constraints BDD, or null if it has not been computed yet.
+	 */
+	BDD getTotalConstraints();
+
+	/**
+	 * Replaces the total constraints BDD with one that has been computed beforehand, for example, loaded from a
+	 * compiled glue cache. The behaviour, glue and permanent data constraints are not conjoined again.
+	 *
+	 * @param totalConstraints
+	 *            the precomputed total constraints BDD.
+	 */
+	void informTotalConstraints(BDD totalConstraints);
+
+	/**
+	 * Adds a component that has registered while the engine is running. Its behaviour BDD and the glue BDDs that
+	 * involve it are conjoined with the existing total constraints BDD.
+	 *
+	 * @param component
+	 *            the new BIP component.
+	 * @param componentBehaviour
+	 *            BDD corresponding to the behaviour of the new component.
+	 * @param componentGlue
+	 *            the glue BDDs to be added because of the new component.
+	 */
+	void informNewComponent(BIPComponent component, BDD componentBehaviour, List<BDD> componentGlue);
+
+	/**
+	 * Removes a component while the engine is running. The ports of the component are set to false in the total
+	 * constraints BDD and its state variables are existentially quantified out.
+	 *
+	 * @param component
+	 *            the removed BIP component.
+	 * @param disabledPorts
+	 *            the conjunction of the negations of the port BDDs of the component.
+	 * @param stateVariables
+	 *            the variables of the BDD manager that correspond to the states of the component.
+	 */
+	void informRemovedComponent(BIPComponent component, BDD disabledPorts, int[] stateVariables);
+
+	/**
+	 * Returns the durations of the phases of the execution cycles, which the engine records into as it runs.
+	 *
+	 * @return the metrics of the engine.
+	 */
+	EngineMetrics getMetrics();
+
 }
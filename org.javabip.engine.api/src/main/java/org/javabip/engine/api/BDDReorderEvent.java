@@ -0,0 +1,71 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine.api;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import net.sf.javabdd.BDDFactory;
+
+/**
+ * One reordering of the variables of the BDD manager.
+ */
+@Name(BDDReorderEvent.NAME)
+@Label("BDD Reorder")
+@Category({ "JavaBIP", "Engine" })
+@Description("Reordering of the variables of the BDD manager")
+@Enabled(false)
+@StackTrace(false)
+public class BDDReorderEvent extends Event {
+
+	public static final String NAME = "org.javabip.engine.BDDReorder";
+
+	@Label("Nodes Before")
+	private int nodesBefore;
+
+	@Label("Nodes After")
+	private int nodesAfter;
+
+	/**
+	 * Reorders the variables of a BDD manager, and records the reordering if the event is enabled.
+	 * 
+	 * @param manager
+	 *            the BDD manager.
+	 * @param method
+	 *            the reordering method.
+	 */
+	public static void reorder(BDDFactory manager, BDDFactory.ReorderMethod method) {
+		BDDReorderEvent event = new BDDReorderEvent();
+		if (event.isEnabled()) {
+			event.nodesBefore = manager.getNodeNum();
+		}
+		event.begin();
+		manager.reorder(method);
+		event.end();
+		if (event.shouldCommit()) {
+			event.nodesAfter = manager.getNodeNum();
+			event.commit();
+		}
+	}
+
+}
@@ -50,6 +50,15 @@ public interface BehaviourEncoder {
 	void createBDDNodes(BIPComponent component, List<Port> componentPorts, List<String> componentStates)
 			throws BIPEngineException;
 
+	/**
+	 * Forgets the state and port BDDs of a component that is removed from the system. The corresponding variables stay
+	 * allocated in the BDD manager, but no longer belong to any component.
+	 *
+	 * @param component
+	 *            the component being removed.
+	 */
+	void deleteBDDNodes(BIPComponent component);
+
 	/**
 	 * Computes and returns the BDD corresponding to the behaviour of a particular component.
 	 *
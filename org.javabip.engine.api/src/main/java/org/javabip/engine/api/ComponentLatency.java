@@ -0,0 +1,85 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine.api;
+
+import java.util.Arrays;
+
+/**
+ * The latest inform latencies of one component, i.e. the durations between the dispatch of an execute to the
+ * component and the arrival of its next inform at the coordinator. The latencies are a snapshot, which does not change
+ * when the component informs again.
+ */
+public class ComponentLatency {
+
+	private final String componentId;
+
+	/** Sorted in increasing order. */
+	private final long[] latencies;
+
+	/**
+	 * @param componentId
+	 *            the id of the component.
+	 * @param latencies
+	 *            the latest latencies in nanoseconds, in any order. The array is sorted and kept.
+	 */
+	public ComponentLatency(String componentId, long[] latencies) {
+		this.componentId = componentId;
+		this.latencies = latencies;
+		Arrays.sort(latencies);
+	}
+
+	public String getComponentId() {
+		return componentId;
+	}
+
+	/**
+	 * @return the number of latencies in the snapshot.
+	 */
+	public int getCount() {
+		return latencies.length;
+	}
+
+	/**
+	 * @param percentile
+	 *            the percentile, between 0 and 100.
+	 * @return the latency in nanoseconds below which the given percentage of the latencies lie, or 0 if there is
+	 *         none.
+	 */
+	public long getPercentile(double percentile) {
+		if (latencies.length == 0) {
+			return 0;
+		}
+		int rank = (int) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * latencies.length);
+		return latencies[Math.max(0, rank - 1)];
+	}
+
+	/**
+	 * @return the longest latency in nanoseconds, or 0 if there is none.
+	 */
+	public long getMax() {
+		return latencies.length == 0 ? 0 : latencies[latencies.length - 1];
+	}
+
+	@Override
+	public String toString() {
+		return componentId + " p50=" + getPercentile(50) / 1000 + "us p99=" + getPercentile(99) / 1000 + "us max="
+				+ getMax() / 1000 + "us over " + latencies.length + " informs";
+	}
+
+}
@@ -54,4 +54,18 @@ public interface DataCoordinator extends BIPEngine, GlueCoordinator, Interaction
 	 * @return the list of d variables positions
 	 */
 	public List<Integer> getPositionsOfDVariables();
+
+	/**
+	 * Gets the finite domains of the provided data that are encoded in the permanent constraints.
+	 *
+	 * @return the list of finite data domains
+	 */
+	List<FiniteDataDomain> getFiniteDataDomains();
+
+	/**
+	 * Gets the symbolic guards that are encoded in the permanent constraints.
+	 *
+	 * @return the list of symbolic guards
+	 */
+	List<SymbolicGuard> getSymbolicGuards();
 }
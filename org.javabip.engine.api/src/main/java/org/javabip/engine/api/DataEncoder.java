@@ -75,6 +75,40 @@ public interface DataEncoder {
 	 */
 	Set<BDD> specifyDataGlue(Iterable<DataWire> dataGlue) throws BIPEngineException;
 
+	/**
+	 * Allocates BDD variables for the values of the data with a finite domain and encodes the symbolic guards over
+	 * them. For each d-variable connecting a guarded port with a port providing the data, the returned constraints
+	 * state that the d-variable implies the guard over the value variables of the providing component. It must be
+	 * called after {@link #specifyDataGlue(Iterable)}.
+	 *
+	 * @param dataGlue
+	 *            the list of the data wires.
+	 * @param domains
+	 *            the finite domains of the provided data.
+	 * @param guards
+	 *            the symbolic guards. The data of each guard must only be received through wires whose provided data
+	 *            has a finite domain.
+	 * @return the set of BDDs encoding the symbolic guards.
+	 * @throws BIPEngineException
+	 *             when a domain is empty or declared twice. The domains are not kept then, nor if a guard throws.
+	 */
+	Set<BDD> specifySymbolicData(Iterable<DataWire> dataGlue, Iterable<FiniteDataDomain> domains,
+			Iterable<SymbolicGuard> guards) throws BIPEngineException;
+
+	/**
+	 * Encodes the current value of a data with a finite domain, to be sent as a temporary constraint at each execution
+	 * cycle. A value outside of the domain is encoded by a code for which no symbolic guard holds.
+	 *
+	 * @param component
+	 *            the component providing the data.
+	 * @param dataName
+	 *            the name of the provided data.
+	 * @param value
+	 *            the current value of the data.
+	 * @return the cube of the value variables, or null if the data has no finite domain.
+	 */
+	BDD encodeDataValue(BIPComponent component, String dataName, Object value);
+
 	/**
 	 * Setter for the BDDBIPEngine.
 	 *
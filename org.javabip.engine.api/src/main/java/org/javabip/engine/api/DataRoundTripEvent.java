@@ -0,0 +1,83 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine.api;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One call of the data coordinator to a component, either to get the value of a data or to evaluate the guards of a
+ * port on a batch of data valuations.
+ */
+@Name(DataRoundTripEvent.NAME)
+@Label("Data Round Trip")
+@Category({ "JavaBIP", "Engine" })
+@Description("Call of the data coordinator to a component")
+@Enabled(false)
+@StackTrace(false)
+public class DataRoundTripEvent extends Event {
+
+	public static final String NAME = "org.javabip.engine.DataRoundTrip";
+
+	/** The kind of a round trip that gets the value of a data. */
+	public static final String GET_DATA = "getData";
+
+	/** The kind of a round trip that evaluates guards. */
+	public static final String CHECK_ENABLEDNESS = "checkEnabledness";
+
+	@Label("Kind")
+	private String kind;
+
+	@Label("Component")
+	private String component;
+
+	@Label("Target")
+	@Description("The name of the data or the id of the port")
+	private String target;
+
+	@Label("Valuations")
+	@Description("The number of data valuations whose guards are evaluated")
+	private int valuations;
+
+	/**
+	 * @param kind
+	 *            {@link #GET_DATA} or {@link #CHECK_ENABLEDNESS}.
+	 */
+	public DataRoundTripEvent(String kind) {
+		this.kind = kind;
+	}
+
+	public void setComponent(String component) {
+		this.component = component;
+	}
+
+	public void setTarget(String target) {
+		this.target = target;
+	}
+
+	public void setValuations(int valuations) {
+		this.valuations = valuations;
+	}
+
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine.api;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One execution cycle of the engine, from the conjunction of the current states to the dispatch of the chosen
+ * interaction.
+ * 
+ * Like the other engine events, it is disabled by default and enabled in the settings of a Java Flight Recorder
+ * recording, under the name {@value #NAME}. The methods of a disabled event do nothing, so the engine creates its
+ * events unconditionally and only computes their costly fields when they are enabled.
+ */
+@Name(EngineCycleEvent.NAME)
+@Label("Engine Cycle")
+@Category({ "JavaBIP", "Engine" })
+@Description("One execution cycle of the BDD engine")
+@Enabled(false)
+@StackTrace(false)
+public class EngineCycleEvent extends Event {
+
+	public static final String NAME = "org.javabip.engine.EngineCycle";
+
+	@Label("Possible Interactions")
+	private int possibleInteractions;
+
+	@Label("Maximal Interactions")
+	private int maximalInteractions;
+
+	@Label("Participating Ports")
+	@Description("The number of enabled ports in the chosen interaction")
+	private int participatingPorts;
+
+	public void setPossibleInteractions(int possibleInteractions) {
+		this.possibleInteractions = possibleInteractions;
+	}
+
+	public void setMaximalInteractions(int maximalInteractions) {
+		this.maximalInteractions = maximalInteractions;
+	}
+
+	public void setParticipatingPorts(int participatingPorts) {
+		this.participatingPorts = participatingPorts;
+	}
+
+}
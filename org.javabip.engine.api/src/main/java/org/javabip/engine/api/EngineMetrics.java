@@ -0,0 +1,105 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine.api;
+
+import java.util.List;
+
+/**
+ * Durations of the phases of the execution cycles of an engine, kept in histograms. Recording a duration is cheap and
+ * does not lock, so the metrics are always collected.
+ * 
+ * The inform latencies are also kept per component over a window of its latest informs, in order to find the
+ * components that hold back the execution cycles.
+ */
+public interface EngineMetrics {
+
+	/**
+	 * The timed phases of an execution cycle.
+	 */
+	enum Phase {
+		/** A whole execution cycle, from the start of one cycle to the start of the next one. */
+		CYCLE,
+		/** Waiting for all the components to inform about their current state. */
+		WAIT_FOR_INFORMS,
+		/** Conjoining the current states and the temporary constraints with the total constraints. */
+		CONJOIN_CURRENT_STATES,
+		/** Enumerating the possible interactions. */
+		ALLSAT,
+		/** Selecting the maximal interactions. */
+		FIND_MAXIMALS,
+		/** Sending the chosen interaction to the components. */
+		DISPATCH_EXECUTES,
+		/** From the dispatch of an execute to a component to the arrival of its inform, for all the components. */
+		INFORM
+	}
+
+	/**
+	 * Records the duration of one occurrence of a phase.
+	 * 
+	 * @param phase
+	 *            the phase.
+	 * @param nanos
+	 *            the duration in nanoseconds, as measured with {@link System#nanoTime()}.
+	 */
+	void record(Phase phase, long nanos);
+
+	/**
+	 * @param phase
+	 *            the phase.
+	 * @return the histogram of the durations of the phase.
+	 */
+	LatencyHistogram getHistogram(Phase phase);
+
+	/**
+	 * Records the inform latency of a component, both in the histogram of {@link Phase#INFORM} and in the window of
+	 * the component.
+	 * 
+	 * @param componentId
+	 *            the id of the component.
+	 * @param nanos
+	 *            the duration from the dispatch of an execute to the component to the arrival of its inform.
+	 */
+	void recordInform(String componentId, long nanos);
+
+	/**
+	 * Forgets the inform latencies of a component, for instance because it has deregistered.
+	 * 
+	 * @param componentId
+	 *            the id of the component.
+	 */
+	void forgetComponent(String componentId);
+
+	/**
+	 * Returns the components with the longest inform latencies over their latest informs.
+	 * 
+	 * @param count
+	 *            the maximal number of components returned.
+	 * @param percentile
+	 *            the percentile of the latencies of each component by which the components are ranked, between 0
+	 *            and 100.
+	 * @return the slowest components, slowest first.
+	 */
+	List<ComponentLatency> getStragglers(int count, double percentile);
+
+	/**
+	 * Forgets all the recorded durations.
+	 */
+	void reset();
+
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine.api;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Declares that a data provided by the components of a type only takes values from a small finite set, such as the
+ * values of a boolean, of an enumeration or of a bounded integer. The current value of such a data is encoded into BDD
+ * variables, so that the guards declared over it with {@link SymbolicGuard} are resolved by the engine itself.
+ */
+public class FiniteDataDomain {
+
+	private final String componentType;
+
+	private final String dataName;
+
+	private final Class<?> type;
+
+	private final List<Object> values;
+
+	/**
+	 * Instantiates a new finite data domain.
+	 * 
+	 * @param componentType
+	 *            the type of the components providing the data.
+	 * @param dataName
+	 *            the name of the provided data.
+	 * @param type
+	 *            the type of the data, as used to get its value from the components.
+	 * @param values
+	 *            all the values the data can take.
+	 */
+	public FiniteDataDomain(String componentType, String dataName, Class<?> type, List<?> values) {
+		this.componentType = componentType;
+		this.dataName = dataName;
+		this.type = type;
+		this.values = Collections.unmodifiableList(new ArrayList<Object>(values));
+	}
+
+	public String getComponentType() {
+		return componentType;
+	}
+
+	public String getDataName() {
+		return dataName;
+	}
+
+	public Class<?> getType() {
+		return type;
+	}
+
+	public List<Object> getValues() {
+		return values;
+	}
+
+	@Override
+	public String toString() {
+		return componentType + "." + dataName + " in " + values;
+	}
+
+}
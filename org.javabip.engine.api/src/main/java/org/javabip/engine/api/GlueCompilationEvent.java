@@ -0,0 +1,53 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine.api;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One stage of the compilation of the behaviours, the glue and the data wires into the total constraints BDD.
+ */
+@Name(GlueCompilationEvent.NAME)
+@Label("Glue Compilation")
+@Category({ "JavaBIP", "Engine" })
+@Description("One stage of the compilation of the total constraints")
+@Enabled(false)
+@StackTrace(false)
+public class GlueCompilationEvent extends Event {
+
+	public static final String NAME = "org.javabip.engine.GlueCompilation";
+
+	@Label("Stage")
+	private String stage;
+
+	/**
+	 * @param stage
+	 *            the name of the compilation stage.
+	 */
+	public GlueCompilationEvent(String stage) {
+		this.stage = stage;
+	}
+
+}
@@ -133,4 +133,22 @@ public interface GlueCoordinator extends BIPEngine, InteractionExecutor {
 	 */
 	BIPComponent getComponentFromObject(Object component);
 
+	/**
+	 * Removes a registered component from the system while the engine is running. The behaviour and glue constraints
+	 * of the component are removed from the total constraints at the end of the current execution cycle.
+	 * 
+	 * @param component
+	 *            the BIP component to remove.
+	 * @throws BIPEngineException
+	 *             when the component is not registered.
+	 */
+	void deregister(BIPComponent component) throws BIPEngineException;
+
+	/**
+	 * Returns the durations of the phases of the execution cycles of the engine, with percentiles and counts.
+	 * 
+	 * @return the metrics of the engine.
+	 */
+	EngineMetrics getMetrics();
+
 }
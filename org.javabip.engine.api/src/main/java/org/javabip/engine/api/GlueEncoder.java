@@ -19,6 +19,7 @@
 package org.javabip.engine.api;
 
 import net.sf.javabdd.BDD;
+import org.javabip.api.BIPComponent;
 import org.javabip.api.BIPGlue;
 import org.javabip.exceptions.BIPEngineException;
 
@@ -75,4 +76,18 @@ public interface GlueEncoder {
 	 */
 	List<BDD> totalGlue() throws BIPEngineException;
 
+	/**
+	 * Computes the glue BDDs to be added to the total glue when a component registers while the engine is running,
+	 * i.e. the constraints where the new component is the effect and the constraints of the existing components that
+	 * must exclude the ports of the new component.
+	 * 
+	 * @param component
+	 *            the new component, already registered in the behaviour encoder and the BIP coordinator.
+	 * @return the glue BDDs involving the new component, or null if the glue cannot be extended incrementally and the
+	 *         total glue must be computed again.
+	 * @throws BIPEngineException
+	 *             when glue is not correctly specified.
+	 */
+	List<BDD> componentGlue(BIPComponent component) throws BIPEngineException;
+
 }
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine.api;
+
+/**
+ * The guard of a port over a data received from another component whose values belong to a {@link FiniteDataDomain}.
+ * The guard is evaluated once for every value of the domain when the glue is encoded, and the result is kept in the
+ * permanent constraints, instead of being computed by the component at each execution cycle.
+ * 
+ * A port is only handled symbolically if every data its guards depend on has a symbolic guard, in which case the
+ * guards of the port must be equivalent to the conjunction of these symbolic guards, whatever the state of the
+ * component.
+ */
+public abstract class SymbolicGuard {
+
+	private final String componentType;
+
+	private final String portId;
+
+	private final String dataName;
+
+	/**
+	 * Instantiates a new symbolic guard.
+	 * 
+	 * @param componentType
+	 *            the type of the components whose port is guarded.
+	 * @param portId
+	 *            the guarded port.
+	 * @param dataName
+	 *            the name of the received data the guard depends on.
+	 */
+	public SymbolicGuard(String componentType, String portId, String dataName) {
+		this.componentType = componentType;
+		this.portId = portId;
+		this.dataName = dataName;
+	}
+
+	public String getComponentType() {
+		return componentType;
+	}
+
+	public String getPortId() {
+		return portId;
+	}
+
+	public String getDataName() {
+		return dataName;
+	}
+
+	/**
+	 * Evaluates the guard.
+	 * 
+	 * @param value
+	 *            a value of the domain of the data.
+	 * @return true if the port is enabled when receiving this value.
+	 */
+	public abstract boolean isEnabled(Object value);
+
+	@Override
+	public String toString() {
+		return componentType + "." + portId + " over " + dataName;
+	}
+
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine.api;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The conjunction of the temporary constraints received in one execution cycle, i.e. of the data combinations disabled
+ * by the guards.
+ */
+@Name(TemporaryConstraintsEvent.NAME)
+@Label("Temporary Constraints")
+@Category({ "JavaBIP", "Engine" })
+@Description("Conjunction of the temporary constraints of one execution cycle")
+@Enabled(false)
+@StackTrace(false)
+public class TemporaryConstraintsEvent extends Event {
+
+	public static final String NAME = "org.javabip.engine.TemporaryConstraints";
+
+	@Label("Constraints")
+	private int constraints;
+
+	public void setConstraints(int constraints) {
+		this.constraints = constraints;
+	}
+
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine.benchmarks;
+
+import org.javabip.api.BIPGlue;
+import org.javabip.engine.benchmarks.models.BroadcastReceiver;
+import org.javabip.engine.benchmarks.models.BroadcastSender;
+import org.javabip.engine.benchmarks.models.Consumer;
+import org.javabip.engine.benchmarks.models.Fork;
+import org.javabip.engine.benchmarks.models.Philosopher;
+import org.javabip.engine.benchmarks.models.Producer;
+import org.javabip.engine.benchmarks.models.TokenRingNode;
+import org.javabip.glue.GlueBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The canonical BIP models the engine is benchmarked on. Each model is scaled by a size, which is the number of
+ * instances of its main component type.
+ */
+public enum BenchmarkModel {
+
+	/**
+	 * Size philosophers and size forks. The glue is given between types, so that any philosopher may eat with any two
+	 * free forks.
+	 */
+	DINING_PHILOSOPHERS {
+		@Override
+		public BIPGlue createGlue(final boolean withRequires, final boolean withAccepts) {
+			return new GlueBuilder() {
+				@Override
+				public void configure() {
+					if (withRequires) {
+						port(Philosopher.class, "eat").requires(Fork.class, "allocate", Fork.class, "allocate");
+						port(Philosopher.class, "finish").requires(Fork.class, "release", Fork.class, "release");
+						port(Fork.class, "allocate").requires(Philosopher.class, "eat");
+						port(Fork.class, "release").requires(Philosopher.class, "finish");
+					}
+					if (withAccepts) {
+						port(Philosopher.class, "eat").accepts(Fork.class, "allocate");
+						port(Philosopher.class, "finish").accepts(Fork.class, "release");
+						port(Fork.class, "allocate").accepts(Philosopher.class, "eat", Fork.class, "allocate");
+						port(Fork.class, "release").accepts(Philosopher.class, "finish", Fork.class, "release");
+					}
+				}
+			}.build();
+		}
+
+		@Override
+		public List<Object> createComponents(int size, InteractionCounter counter) {
+			List<Object> components = new ArrayList<Object>();
+			for (int i = 0; i < size; i++) {
+				components.add(new Philosopher(counter));
+				components.add(new Fork());
+			}
+			return components;
+		}
+	},
+
+	/**
+	 * Size nodes passing one token around, the receiving node being selected by a guard on the id of the sender.
+	 */
+	TOKEN_RING {
+		@Override
+		public BIPGlue createGlue(final boolean withRequires, final boolean withAccepts) {
+			return new GlueBuilder() {
+				@Override
+				public void configure() {
+					if (withRequires) {
+						port(TokenRingNode.class, "send").requires(TokenRingNode.class, "receive");
+						port(TokenRingNode.class, "receive").requires(TokenRingNode.class, "send");
+					}
+					if (withAccepts) {
+						port(TokenRingNode.class, "send").accepts(TokenRingNode.class, "receive");
+						port(TokenRingNode.class, "receive").accepts(TokenRingNode.class, "send");
+					}
+					data(TokenRingNode.class, "id").to(TokenRingNode.class, "senderId");
+				}
+			}.build();
+		}
+
+		@Override
+		public List<Object> createComponents(int size, InteractionCounter counter) {
+			List<Object> components = new ArrayList<Object>();
+			for (int i = 0; i < size; i++) {
+				components.add(new TokenRingNode(i, size, counter));
+			}
+			return components;
+		}
+	},
+
+	/**
+	 * Size producers and size consumers, each consumer taking the item of any producer over a data wire.
+	 */
+	PRODUCER_CONSUMER {
+		@Override
+		public BIPGlue createGlue(final boolean withRequires, final boolean withAccepts) {
+			return new GlueBuilder() {
+				@Override
+				public void configure() {
+					if (withRequires) {
+						port(Producer.class, "produce").requires(Consumer.class, "consume");
+						port(Consumer.class, "consume").requires(Producer.class, "produce");
+					}
+					if (withAccepts) {
+						port(Producer.class, "produce").accepts(Consumer.class, "consume");
+						port(Consumer.class, "consume").accepts(Producer.class, "produce");
+					}
+					data(Producer.class, "item").to(Consumer.class, "item");
+				}
+			}.build();
+		}
+
+		@Override
+		public List<Object> createComponents(int size, InteractionCounter counter) {
+			List<Object> components = new ArrayList<Object>();
+			for (int i = 0; i < size; i++) {
+				components.add(new Producer());
+				components.add(new Consumer(counter));
+			}
+			return components;
+		}
+	},
+
+	/**
+	 * One sender broadcasting to size receivers.
+	 */
+	BROADCAST {
+		@Override
+		public BIPGlue createGlue(final boolean withRequires, final boolean withAccepts) {
+			return new GlueBuilder() {
+				@Override
+				public void configure() {
+					if (withRequires) {
+						port(BroadcastSender.class, "send").requires();
+						port(BroadcastReceiver.class, "receive").requires(BroadcastSender.class, "send");
+					}
+					if (withAccepts) {
+						port(BroadcastSender.class, "send").accepts(BroadcastReceiver.class, "receive");
+						port(BroadcastReceiver.class, "receive").accepts(BroadcastSender.class, "send",
+								BroadcastReceiver.class, "receive");
+					}
+				}
+			}.build();
+		}
+
+		@Override
+		public List<Object> createComponents(int size, InteractionCounter counter) {
+			List<Object> components = new ArrayList<Object>();
+			components.add(new BroadcastSender(counter));
+			for (int i = 0; i < size; i++) {
+				components.add(new BroadcastReceiver());
+			}
+			return components;
+		}
+	};
+
+	/**
+	 * @return the glue of the model.
+	 */
+	public BIPGlue createGlue() {
+		return createGlue(true, true);
+	}
+
+	/**
+	 * Creates the glue of the model, possibly without its require or its accept constraints, in order to measure their
+	 * encoding separately. The data wires are always part of the glue.
+	 * 
+	 * @param withRequires
+	 *            true to include the require constraints.
+	 * @param withAccepts
+	 *            true to include the accept constraints.
+	 * @return the glue of the model.
+	 */
+	public abstract BIPGlue createGlue(boolean withRequires, boolean withAccepts);
+
+	/**
+	 * Creates the components of the model.
+	 * 
+	 * @param size
+	 *            the number of instances of the main component type.
+	 * @param counter
+	 *            the counter incremented by the components for each executed interaction.
+	 * @return the components, to be registered with annotations.
+	 */
+	public abstract List<Object> createComponents(int size, InteractionCounter counter);
+
+}
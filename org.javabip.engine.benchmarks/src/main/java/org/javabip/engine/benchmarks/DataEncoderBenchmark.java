@@ -0,0 +1,120 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine.benchmarks;
+
+import net.sf.javabdd.BDD;
+import org.javabip.api.BIPComponent;
+import org.javabip.api.DataWire;
+import org.javabip.api.Port;
+import org.javabip.engine.BDDBIPEngineImpl;
+import org.javabip.engine.BehaviourEncoderImpl;
+import org.javabip.engine.DataEncoderImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the encoding stages of the data encoder on the benchmark models with data wires.
+ * 
+ * The d-variables are BDD variables, so specifyDataGlue is measured on a new BDD manager together with the creation
+ * of the nodes of the components, which is measured alone by {@link EncoderBenchmark#createBDDNodes()}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+public class DataEncoderBenchmark {
+
+	@Param({ "TOKEN_RING", "PRODUCER_CONSUMER" })
+	public BenchmarkModel model;
+
+	@Param({ "4", "16", "64" })
+	public int size;
+
+	private RegisteredModel registeredModel;
+
+	private DataEncoderImpl dataEncoder;
+
+	/** A component deciding on the data it receives through the first data wire of the glue. */
+	private BIPComponent decidingComponent;
+	private Port decidingPort;
+
+	/** All the ports of the other components that provide the data to the deciding port. */
+	private Map<BIPComponent, Set<Port>> disabledCombinations = new HashMap<BIPComponent, Set<Port>>();
+
+	@Setup(Level.Trial)
+	public void encodeModel() {
+		registeredModel = new RegisteredModel(model, size);
+
+		BDDBIPEngineImpl engine = new BDDBIPEngineImpl();
+		dataEncoder = registeredModel.createDataEncoder(engine, registeredModel.createBDDNodes(engine));
+		dataEncoder.specifyDataGlue(registeredModel.getGlue().getDataWires());
+
+		DataWire wire = registeredModel.getGlue().getDataWires().get(0);
+		decidingComponent = registeredModel.getCoordinator().getBIPComponentInstances(wire.getTo().getSpecType())
+				.get(0);
+		decidingPort = registeredModel.getBehaviour(decidingComponent).portsNeedingData(wire.getTo().getId())
+				.iterator().next();
+		for (BIPComponent provider : registeredModel.getCoordinator().getBIPComponentInstances(
+				wire.getFrom().getSpecType())) {
+			if (provider != decidingComponent) {
+				disabledCombinations.put(provider,
+						registeredModel.getBehaviour(provider).getDataProvidingPorts(wire.getFrom().getId()));
+			}
+		}
+	}
+
+	@Benchmark
+	public int specifyDataGlue() {
+		BDDBIPEngineImpl engine = new BDDBIPEngineImpl();
+		BehaviourEncoderImpl behaviourEncoder = registeredModel.createBDDNodes(engine);
+		int nodes = 0;
+		for (BDD dataConstraint : registeredModel.createDataEncoder(engine, behaviourEncoder).specifyDataGlue(
+				registeredModel.getGlue().getDataWires())) {
+			nodes += dataConstraint.nodeCount();
+			dataConstraint.free();
+		}
+		return nodes;
+	}
+
+	@Benchmark
+	public int encodeDisabledCombinations() {
+		BDD constraint = dataEncoder.encodeDisabledCombinations(decidingComponent, decidingPort, disabledCombinations);
+		int nodes = constraint.nodeCount();
+		constraint.free();
+		return nodes;
+	}
+
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine.benchmarks;
+
+import net.sf.javabdd.BDD;
+import net.sf.javabdd.BDDFactory;
+import org.javabip.api.BIPComponent;
+import org.javabip.api.Port;
+import org.javabip.engine.BDDBIPEngineImpl;
+import org.javabip.engine.BehaviourEncoderImpl;
+import org.javabip.engine.CurrentStateEncoderImpl;
+import org.javabip.engine.GlueEncoderImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures each encoding stage of the engine separately, on the components of a benchmark model. One operation
+ * encodes the whole model.
+ * 
+ * The stages that create BDD variables cannot be repeated on the same BDD manager, so each of them is measured on a
+ * new one: newBDDManager measures the creation of the manager alone, which is to be subtracted from createBDDNodes.
+ * The other stages are repeated on one encoding of the model, their results being freed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+public class EncoderBenchmark {
+
+	@Param({ "DINING_PHILOSOPHERS", "TOKEN_RING", "PRODUCER_CONSUMER", "BROADCAST" })
+	public BenchmarkModel model;
+
+	@Param({ "4", "16", "64" })
+	public int size;
+
+	private RegisteredModel registeredModel;
+
+	private BehaviourEncoderImpl behaviourEncoder;
+	private CurrentStateEncoderImpl currentStateEncoder;
+	private GlueEncoderImpl requiresEncoder;
+	private GlueEncoderImpl acceptsEncoder;
+
+	@Setup(Level.Trial)
+	public void encodeModel() {
+		registeredModel = new RegisteredModel(model, size);
+
+		BDDBIPEngineImpl engine = new BDDBIPEngineImpl();
+		behaviourEncoder = registeredModel.createBDDNodes(engine);
+
+		currentStateEncoder = new CurrentStateEncoderImpl();
+		currentStateEncoder.setEngine(engine);
+		currentStateEncoder.setBehaviourEncoder(behaviourEncoder);
+		currentStateEncoder.setBIPCoordinator(registeredModel.getCoordinator());
+
+		requiresEncoder = createGlueEncoder(engine, true, false);
+		acceptsEncoder = createGlueEncoder(engine, false, true);
+	}
+
+	private GlueEncoderImpl createGlueEncoder(BDDBIPEngineImpl engine, boolean withRequires, boolean withAccepts) {
+		GlueEncoderImpl glueEncoder = new GlueEncoderImpl();
+		glueEncoder.setEngine(engine);
+		glueEncoder.setBehaviourEncoder(behaviourEncoder);
+		glueEncoder.setBIPCoordinator(registeredModel.getCoordinator());
+		glueEncoder.specifyGlue(model.createGlue(withRequires, withAccepts));
+		return glueEncoder;
+	}
+
+	@Benchmark
+	public BDDFactory newBDDManager() {
+		return new BDDBIPEngineImpl().getBDDManager();
+	}
+
+	@Benchmark
+	public BehaviourEncoderImpl createBDDNodes() {
+		return registeredModel.createBDDNodes(new BDDBIPEngineImpl());
+	}
+
+	@Benchmark
+	public int behaviourBDD() {
+		int nodes = 0;
+		for (BIPComponent component : registeredModel.getComponents()) {
+			BDD behaviour = behaviourEncoder.behaviourBDD(component);
+			nodes += behaviour.nodeCount();
+			behaviour.free();
+		}
+		return nodes;
+	}
+
+	@Benchmark
+	public int currentStateInform() {
+		int nodes = 0;
+		for (BIPComponent component : registeredModel.getComponents()) {
+			BDD currentState = currentStateEncoder.inform(component, registeredModel.getBehaviour(component)
+					.getCurrentState(), Collections.<Port> emptySet());
+			nodes += currentState.nodeCount();
+			currentState.free();
+		}
+		return nodes;
+	}
+
+	@Benchmark
+	public int totalGlueRequires() {
+		return freeAll(requiresEncoder.totalGlue());
+	}
+
+	@Benchmark
+	public int totalGlueAccepts() {
+		return freeAll(acceptsEncoder.totalGlue());
+	}
+
+	/**
+	 * Frees the glue BDDs.
+	 * 
+	 * @return the total number of nodes of the BDDs.
+	 */
+	private static int freeAll(List<BDD> glue) {
+		int nodes = 0;
+		for (BDD bdd : glue) {
+			nodes += bdd.nodeCount();
+			bdd.free();
+		}
+		return nodes;
+	}
+
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine.benchmarks;
+
+import akka.actor.ActorSystem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a running engine. One operation is the wait for the next interaction, so that the throughput is the number
+ * of interactions executed per second and the sampled time is the latency between two interactions. In the models
+ * where one cycle executes one interaction, that is the latency of one engine cycle.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+public class EngineCycleBenchmark {
+
+	@Param({ "DINING_PHILOSOPHERS", "TOKEN_RING", "PRODUCER_CONSUMER", "BROADCAST" })
+	public BenchmarkModel model;
+
+	@Param({ "4", "16", "64" })
+	public int size;
+
+	private ActorSystem actorSystem;
+	private EngineSession session;
+
+	@Setup(Level.Trial)
+	public void startEngine() {
+		actorSystem = ActorSystem.create("EngineCycleBenchmark");
+		session = new EngineSession(actorSystem, "engine", model, size);
+	}
+
+	@TearDown(Level.Trial)
+	public void stopEngine() {
+		session.close();
+		actorSystem.terminate();
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.Throughput)
+	@OutputTimeUnit(TimeUnit.SECONDS)
+	public long interactions() throws InterruptedException {
+		return session.awaitInteraction();
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SampleTime)
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	public long interactionLatency() throws InterruptedException {
+		return session.awaitInteraction();
+	}
+
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine.benchmarks;
+
+import akka.actor.ActorSystem;
+import org.javabip.api.BIPEngine;
+import org.javabip.engine.factory.EngineFactory;
+
+import java.util.List;
+
+/**
+ * An engine created through the {@link EngineFactory} and running one benchmark model.
+ */
+public class EngineSession {
+
+	/** How long to wait for an interaction before the engine is considered stuck. */
+	public static final long INTERACTION_TIMEOUT_MILLIS = 30000;
+
+	private final EngineFactory engineFactory;
+	private final BIPEngine engine;
+	private final InteractionCounter counter = new InteractionCounter();
+
+	private long seen;
+
+	/**
+	 * Creates an engine for a model, registers the components of the model and starts the engine.
+	 * 
+	 * @param actorSystem
+	 *            the actor system the engine and the components run in.
+	 * @param engineId
+	 *            the id of the engine, unique within the actor system.
+	 * @param model
+	 *            the benchmark model.
+	 * @param size
+	 *            the size of the model.
+	 */
+	public EngineSession(ActorSystem actorSystem, String engineId, BenchmarkModel model, int size) {
+		engineFactory = new EngineFactory(actorSystem);
+		engine = engineFactory.create(engineId, model.createGlue());
+		List<Object> components = model.createComponents(size, counter);
+		for (int i = 0; i < components.size(); i++) {
+			engine.register(components.get(i), engineId + "-" + i, true);
+		}
+		engine.start();
+		engine.execute();
+	}
+
+	/**
+	 * Waits for the next interaction executed by the engine.
+	 * 
+	 * @return the number of interactions executed since the engine was started.
+	 * @throws InterruptedException
+	 *             if the benchmark thread is interrupted.
+	 */
+	public long awaitInteraction() throws InterruptedException {
+		seen = counter.awaitAbove(seen, INTERACTION_TIMEOUT_MILLIS);
+		return seen;
+	}
+
+	/**
+	 * Stops and destroys the engine.
+	 */
+	public void close() {
+		engine.stop();
+		engineFactory.destroy(engine);
+	}
+
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine.benchmarks;
+
+import akka.actor.ActorSystem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the startup of an engine, from its creation to its first interaction. This includes the registration of
+ * the components, the compilation of the glue and of the behaviours into BDDs, and the first engine cycle.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+public class EngineStartupBenchmark {
+
+	@Param({ "DINING_PHILOSOPHERS", "TOKEN_RING", "PRODUCER_CONSUMER", "BROADCAST" })
+	public BenchmarkModel model;
+
+	@Param({ "4", "16", "64" })
+	public int size;
+
+	private ActorSystem actorSystem;
+	private EngineSession session;
+
+	/** Numbers the engines, since an engine id cannot be reused before the previous engine is fully stopped. */
+	private int engines;
+
+	@Setup(Level.Trial)
+	public void createActorSystem() {
+		actorSystem = ActorSystem.create("EngineStartupBenchmark");
+	}
+
+	@TearDown(Level.Trial)
+	public void terminateActorSystem() {
+		actorSystem.terminate();
+	}
+
+	@TearDown(Level.Invocation)
+	public void stopEngine() {
+		if (session != null) {
+			session.close();
+			session = null;
+		}
+	}
+
+	@Benchmark
+	public long startup() throws InterruptedException {
+		session = new EngineSession(actorSystem, "engine" + engines++, model, size);
+		return session.awaitInteraction();
+	}
+
+}
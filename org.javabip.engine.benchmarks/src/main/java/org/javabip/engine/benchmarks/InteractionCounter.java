@@ -0,0 +1,69 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine.benchmarks;
+
+import org.javabip.exceptions.BIPEngineException;
+
+/**
+ * Counts the interactions executed by the engine in a benchmark. The components of a benchmark model increment it
+ * from the transition that marks one interaction, and the benchmark thread waits for it to move.
+ */
+public class InteractionCounter {
+
+	private long count;
+
+	/**
+	 * Records that one interaction has been executed.
+	 */
+	public synchronized void increment() {
+		count++;
+		notifyAll();
+	}
+
+	/**
+	 * @return the number of interactions executed so far.
+	 */
+	public synchronized long getCount() {
+		return count;
+	}
+
+	/**
+	 * Waits until more interactions than the given number have been executed.
+	 * 
+	 * @param seen
+	 *            the number of interactions already seen by the caller.
+	 * @param timeoutMillis
+	 *            how long to wait before the engine is considered stuck.
+	 * @return the number of interactions executed so far.
+	 * @throws InterruptedException
+	 *             if the benchmark thread is interrupted.
+	 */
+	public synchronized long awaitAbove(long seen, long timeoutMillis) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + timeoutMillis;
+		while (count <= seen) {
+			long remaining = deadline - System.currentTimeMillis();
+			if (remaining <= 0) {
+				throw new BIPEngineException("No interaction was executed within " + timeoutMillis + " ms.");
+			}
+			wait(remaining);
+		}
+		return count;
+	}
+
+}
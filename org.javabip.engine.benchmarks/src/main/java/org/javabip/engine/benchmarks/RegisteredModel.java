@@ -0,0 +1,127 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine.benchmarks;
+
+import org.javabip.api.BIPComponent;
+import org.javabip.api.BIPGlue;
+import org.javabip.api.Behaviour;
+import org.javabip.engine.BDDBIPEngineImpl;
+import org.javabip.engine.BehaviourEncoderImpl;
+import org.javabip.engine.CurrentStateEncoderImpl;
+import org.javabip.engine.DataEncoderImpl;
+import org.javabip.engine.GlueEncoderImpl;
+import org.javabip.engine.api.BDDBIPEngine;
+import org.javabip.engine.api.BehaviourEncoder;
+import org.javabip.engine.coordinator.DataCoordinatorKernel;
+import org.javabip.engine.coordinator.GlueCoordinatorImpl;
+import org.javabip.executor.ExecutorKernel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The components of a benchmark model registered without actors in a coordinator that is never started, so that the
+ * encoders can be called directly. The coordinator only serves to look up the behaviour of each component and the
+ * instances of each component type.
+ */
+public class RegisteredModel {
+
+	private final BIPGlue glue;
+	private final GlueCoordinatorImpl coordinator;
+	private final List<BIPComponent> components = new ArrayList<BIPComponent>();
+
+	/**
+	 * Creates and registers the components of a model.
+	 * 
+	 * @param model
+	 *            the benchmark model.
+	 * @param size
+	 *            the size of the model.
+	 */
+	public RegisteredModel(BenchmarkModel model, int size) {
+		glue = model.createGlue();
+		coordinator = new GlueCoordinatorImpl(null, new GlueEncoderImpl(), new BehaviourEncoderImpl(),
+				new CurrentStateEncoderImpl(), new BDDBIPEngineImpl());
+		List<Object> objects = model.createComponents(size, new InteractionCounter());
+		for (int i = 0; i < objects.size(); i++) {
+			ExecutorKernel executor = new ExecutorKernel(objects.get(i), model.name() + "-" + i, true);
+			executor.setProxy(executor);
+			coordinator.register(executor, executor.getBehavior());
+			components.add(executor);
+		}
+	}
+
+	/**
+	 * Creates a behaviour encoder on a BDD manager and creates the BDD nodes of the states and ports of all the
+	 * components, in registration order.
+	 * 
+	 * @param engine
+	 *            the engine owning the BDD manager.
+	 * @return the behaviour encoder.
+	 */
+	public BehaviourEncoderImpl createBDDNodes(BDDBIPEngine engine) {
+		BehaviourEncoderImpl behaviourEncoder = new BehaviourEncoderImpl();
+		behaviourEncoder.setEngine(engine);
+		behaviourEncoder.setBIPCoordinator(coordinator);
+		for (BIPComponent component : components) {
+			Behaviour behaviour = coordinator.getBehaviourByComponent(component);
+			behaviourEncoder.createBDDNodes(component, behaviour.getEnforceablePorts(), new ArrayList<String>(
+					behaviour.getStates()));
+		}
+		return behaviourEncoder;
+	}
+
+	/**
+	 * Creates a data encoder on a BDD manager. The data encoder uses a new data coordinator, since the data
+	 * coordinator keeps the positions of the d-variables created by the data encoder.
+	 * 
+	 * @param engine
+	 *            the engine owning the BDD manager.
+	 * @param behaviourEncoder
+	 *            the behaviour encoder that has created the BDD nodes of the components on this manager.
+	 * @return the data encoder, whose data glue is not specified yet.
+	 */
+	public DataEncoderImpl createDataEncoder(BDDBIPEngine engine, BehaviourEncoder behaviourEncoder) {
+		DataEncoderImpl dataEncoder = new DataEncoderImpl();
+		DataCoordinatorKernel dataCoordinator = new DataCoordinatorKernel(coordinator, dataEncoder);
+		for (BIPComponent component : components) {
+			dataCoordinator.register(component);
+		}
+		dataEncoder.setBehaviourEncoder(behaviourEncoder);
+		dataEncoder.setBDDManager(engine.getBDDManager());
+		return dataEncoder;
+	}
+
+	public BIPGlue getGlue() {
+		return glue;
+	}
+
+	public GlueCoordinatorImpl getCoordinator() {
+		return coordinator;
+	}
+
+	public List<BIPComponent> getComponents() {
+		return components;
+	}
+
+	public Behaviour getBehaviour(BIPComponent component) {
+		return coordinator.getBehaviourByComponent(component);
+	}
+
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine.benchmarks;
+
+import org.javabip.api.PortBase;
+import org.javabip.engine.benchmarks.harness.StubComponentType;
+import org.javabip.engine.benchmarks.harness.StubGlue;
+import org.javabip.engine.benchmarks.harness.StubHarness;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the execution cycle of an engine on stub components, without actors, up to sizes the actor based
+ * benchmarks cannot reach. One operation is one execution cycle.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class StubEngineBenchmark {
+
+	/**
+	 * The models run on stub components.
+	 */
+	public enum StubModel {
+
+		/**
+		 * Size workers, each going back and forth between two states independently of the others. All the workers
+		 * move in every cycle.
+		 */
+		INDEPENDENT {
+			@Override
+			StubHarness createHarness(int size) {
+				StubComponentType worker = new StubComponentType("Worker", "idle").addTransition("idle", "work",
+						"busy").addTransition("busy", "rest", "idle");
+				StubGlue glue = new StubGlue();
+				for (String port : worker.getPorts()) {
+					PortBase effect = glue.port("Worker", port);
+					glue.require(effect, Collections.singletonList(Collections.<PortBase> emptyList()));
+					glue.accept(effect, Arrays.asList(glue.port("Worker", "work"), glue.port("Worker", "rest")));
+				}
+				StubHarness harness = new StubHarness(glue.build());
+				harness.addComponents(worker, size);
+				return harness;
+			}
+		},
+
+		/**
+		 * Size clients sending requests to four servers, each request and each reply synchronising one client with
+		 * one server.
+		 */
+		CLIENT_SERVER {
+			@Override
+			StubHarness createHarness(int size) {
+				StubComponentType client = new StubComponentType("Client", "idle").addTransition("idle", "request",
+						"waiting").addTransition("waiting", "receive", "idle");
+				StubComponentType server = new StubComponentType("Server", "ready").addTransition("ready", "serve",
+						"busy").addTransition("busy", "reply", "ready");
+				StubGlue glue = new StubGlue();
+				synchronise(glue, glue.port("Client", "request"), glue.port("Server", "serve"));
+				synchronise(glue, glue.port("Client", "receive"), glue.port("Server", "reply"));
+				StubHarness harness = new StubHarness(glue.build());
+				harness.addComponents(client, size);
+				harness.addComponents(server, 4);
+				return harness;
+			}
+		};
+
+		abstract StubHarness createHarness(int size);
+
+		/**
+		 * Makes two ports require and accept each other.
+		 */
+		private static void synchronise(StubGlue glue, PortBase first, PortBase second) {
+			glue.require(first, Collections.singletonList(Collections.singletonList(second)));
+			glue.require(second, Collections.singletonList(Collections.singletonList(first)));
+			List<PortBase> both = Arrays.asList(first, second);
+			glue.accept(first, both);
+			glue.accept(second, both);
+		}
+	}
+
+	private static final long TIMEOUT_MILLIS = 600000;
+
+	@Param({ "INDEPENDENT", "CLIENT_SERVER" })
+	public StubModel model;
+
+	@Param({ "1000", "10000", "100000" })
+	public int size;
+
+	private StubHarness harness;
+
+	@Setup(Level.Trial)
+	public void startEngine() throws InterruptedException {
+		harness = model.createHarness(size);
+		harness.start();
+		harness.runCycles(1, TIMEOUT_MILLIS);
+	}
+
+	@TearDown(Level.Trial)
+	public void stopEngine() {
+		harness.stop();
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SampleTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public long cycle() throws InterruptedException {
+		harness.runCycles(1, TIMEOUT_MILLIS);
+		return harness.getNbCycles();
+	}
+
+}
@@ -0,0 +1,329 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine.benchmarks.harness;
+
+import org.javabip.engine.api.EngineMetrics.Phase;
+import org.javabip.engine.api.LatencyHistogram;
+import org.javabip.engine.benchmarks.synthetic.SyntheticModelGenerator;
+import org.javabip.exceptions.BIPEngineException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a started {@link StubHarness} for a long time in order to find leaks, e.g. BDDs that are replaced without
+ * being freed. The number of BDD nodes, the heap used and the median cycle latency are sampled at regular intervals,
+ * and the run fails if the number of nodes or the latency grows by more than a threshold.
+ * 
+ * The growth of a measure is the increase of the least squares line through its samples over the run, relative to
+ * the start of the line. The first samples are ignored, since the BDD manager and the JIT take some time to settle.
+ * The heap is only reported, as it depends too much on the garbage collector.
+ */
+public class SoakRunner {
+
+	/**
+	 * The measures taken after a number of cycles.
+	 */
+	public static class Sample {
+		private final long cycle;
+		private final long nbBDDNodes;
+		private final long usedHeap;
+		private final long medianCycleNanos;
+
+		Sample(long cycle, long nbBDDNodes, long usedHeap, long medianCycleNanos) {
+			this.cycle = cycle;
+			this.nbBDDNodes = nbBDDNodes;
+			this.usedHeap = usedHeap;
+			this.medianCycleNanos = medianCycleNanos;
+		}
+
+		public long getCycle() {
+			return cycle;
+		}
+
+		public long getNbBDDNodes() {
+			return nbBDDNodes;
+		}
+
+		/**
+		 * @return the heap used in bytes.
+		 */
+		public long getUsedHeap() {
+			return usedHeap;
+		}
+
+		/**
+		 * @return the median latency of the cycles since the previous sample.
+		 */
+		public long getMedianCycleNanos() {
+			return medianCycleNanos;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("cycle %d: %d BDD nodes, %d MB heap, median cycle %d us", cycle, nbBDDNodes,
+					usedHeap >> 20, TimeUnit.NANOSECONDS.toMicros(medianCycleNanos));
+		}
+	}
+
+	/**
+	 * The outcome of a soak run.
+	 */
+	public static class Result {
+		private final List<Sample> samples;
+		private final double nodeGrowth;
+		private final double latencyGrowth;
+		private final List<String> failures;
+
+		Result(List<Sample> samples, double nodeGrowth, double latencyGrowth, List<String> failures) {
+			this.samples = samples;
+			this.nodeGrowth = nodeGrowth;
+			this.latencyGrowth = latencyGrowth;
+			this.failures = failures;
+		}
+
+		public List<Sample> getSamples() {
+			return Collections.unmodifiableList(samples);
+		}
+
+		/**
+		 * @return the relative growth of the number of BDD nodes over the run.
+		 */
+		public double getNodeGrowth() {
+			return nodeGrowth;
+		}
+
+		/**
+		 * @return the relative growth of the median cycle latency over the run.
+		 */
+		public double getLatencyGrowth() {
+			return latencyGrowth;
+		}
+
+		public boolean isFailed() {
+			return !failures.isEmpty();
+		}
+
+		/**
+		 * @return the reasons of the failure, empty if the run passed.
+		 */
+		public List<String> getFailures() {
+			return Collections.unmodifiableList(failures);
+		}
+	}
+
+	private Logger logger = LoggerFactory.getLogger(SoakRunner.class);
+
+	private final StubHarness harness;
+
+	private long nbCycles = 1000000;
+	private long sampleInterval = 10000;
+	private double warmupFraction = 0.1;
+	private double nodeGrowthThreshold = 0.05;
+	private double latencyGrowthThreshold = 0.25;
+	private long intervalTimeoutMillis = TimeUnit.MINUTES.toMillis(10);
+	private PrintStream out;
+
+	/**
+	 * @param harness
+	 *            the harness, already started.
+	 */
+	public SoakRunner(StubHarness harness) {
+		this.harness = harness;
+	}
+
+	/**
+	 * @param nbCycles
+	 *            the number of cycles to run, a multiple of the sample interval.
+	 * @param sampleInterval
+	 *            the number of cycles between two samples, at least one.
+	 * @return this runner.
+	 * @throws BIPEngineException
+	 *             if the sample interval is not positive or does not divide the number of cycles.
+	 */
+	public SoakRunner setCycles(long nbCycles, long sampleInterval) throws BIPEngineException {
+		if (sampleInterval < 1 || nbCycles < sampleInterval || nbCycles % sampleInterval != 0) {
+			logger.error("The {} cycles of a soak run cannot be sampled every {} cycles.", nbCycles, sampleInterval);
+			throw new BIPEngineException("The " + nbCycles + " cycles of a soak run cannot be sampled every "
+					+ sampleInterval + " cycles.");
+		}
+		this.nbCycles = nbCycles;
+		this.sampleInterval = sampleInterval;
+		return this;
+	}
+
+	/**
+	 * @param warmupFraction
+	 *            the fraction of the samples, at the start of the run, that are ignored by the growth computation.
+	 * @return this runner.
+	 */
+	public SoakRunner setWarmupFraction(double warmupFraction) {
+		this.warmupFraction = warmupFraction;
+		return this;
+	}
+
+	/**
+	 * @param nodeGrowthThreshold
+	 *            the relative growth of the number of BDD nodes above which the run fails.
+	 * @param latencyGrowthThreshold
+	 *            the relative growth of the median cycle latency above which the run fails.
+	 * @return this runner.
+	 */
+	public SoakRunner setThresholds(double nodeGrowthThreshold, double latencyGrowthThreshold) {
+		this.nodeGrowthThreshold = nodeGrowthThreshold;
+		this.latencyGrowthThreshold = latencyGrowthThreshold;
+		return this;
+	}
+
+	/**
+	 * @param intervalTimeoutMillis
+	 *            the maximal time given to the cycles between two samples.
+	 * @return this runner.
+	 */
+	public SoakRunner setIntervalTimeout(long intervalTimeoutMillis) {
+		this.intervalTimeoutMillis = intervalTimeoutMillis;
+		return this;
+	}
+
+	/**
+	 * @param out
+	 *            where the samples are printed as they are taken, or null not to print them.
+	 * @return this runner.
+	 */
+	public SoakRunner setOutput(PrintStream out) {
+		this.out = out;
+		return this;
+	}
+
+	/**
+	 * Runs the cycles and takes the samples.
+	 * 
+	 * @return the samples and the growths, with the reasons of the failure if any.
+	 * @throws InterruptedException
+	 *             if the run is interrupted.
+	 * @throws BIPEngineException
+	 *             if the cycles between two samples are not run in time, for instance because the system has
+	 *             deadlocked.
+	 */
+	public Result run() throws InterruptedException, BIPEngineException {
+		List<Sample> samples = new ArrayList<Sample>();
+		Runtime runtime = Runtime.getRuntime();
+		harness.getMetrics().reset();
+		for (long cycle = sampleInterval; cycle <= nbCycles; cycle += sampleInterval) {
+			harness.runCycles(sampleInterval, intervalTimeoutMillis);
+			LatencyHistogram cycles = harness.getMetrics().getHistogram(Phase.CYCLE);
+			Sample sample = new Sample(cycle, harness.getNbBDDNodes(), runtime.totalMemory() - runtime.freeMemory(),
+					cycles.getPercentile(50));
+			harness.getMetrics().reset();
+			samples.add(sample);
+			if (out != null) {
+				out.println(sample);
+			}
+		}
+
+		int first = (int) (samples.size() * warmupFraction);
+		long[] nodes = new long[samples.size() - first];
+		long[] latencies = new long[samples.size() - first];
+		for (int i = first; i < samples.size(); i++) {
+			nodes[i - first] = samples.get(i).getNbBDDNodes();
+			latencies[i - first] = samples.get(i).getMedianCycleNanos();
+		}
+		double nodeGrowth = relativeGrowth(nodes);
+		double latencyGrowth = relativeGrowth(latencies);
+		List<String> failures = new ArrayList<String>();
+		if (nodeGrowth > nodeGrowthThreshold) {
+			failures.add(String.format("The number of BDD nodes grew by %.1f%%, more than %.1f%%.", nodeGrowth * 100,
+					nodeGrowthThreshold * 100));
+		}
+		if (latencyGrowth > latencyGrowthThreshold) {
+			failures.add(String.format("The median cycle latency grew by %.1f%%, more than %.1f%%.",
+					latencyGrowth * 100, latencyGrowthThreshold * 100));
+		}
+		return new Result(samples, nodeGrowth, latencyGrowth, failures);
+	}
+
+	/**
+	 * Fits a line through equally spaced values by least squares, and returns its increase from the first to the last
+	 * value relative to its value at the first. Fewer than two values do not grow.
+	 */
+	static double relativeGrowth(long[] values) {
+		int n = values.length;
+		if (n < 2) {
+			return 0;
+		}
+		double meanX = (n - 1) / 2.0;
+		double meanY = 0;
+		for (long value : values) {
+			meanY += value;
+		}
+		meanY /= n;
+		double covariance = 0;
+		double variance = 0;
+		for (int i = 0; i < n; i++) {
+			covariance += (i - meanX) * (values[i] - meanY);
+			variance += (i - meanX) * (i - meanX);
+		}
+		double slope = covariance / variance;
+		double start = meanY - slope * meanX;
+		return slope * (n - 1) / Math.max(start, 1);
+	}
+
+	/**
+	 * Soaks a synthetic model:
+	 * 
+	 * <pre>
+	 * java -cp target/benchmarks.jar org.javabip.engine.benchmarks.harness.SoakRunner \
+	 *     &lt;million cycles&gt; &lt;types&gt; &lt;instances per type&gt; &lt;data-wire density&gt;
+	 * </pre>
+	 * 
+	 * The process exits with status 1 if the run fails.
+	 */
+	public static void main(String[] args) throws InterruptedException {
+		if (args.length != 4) {
+			System.err.println("Usage: SoakRunner <million cycles> <types> <instances per type> <data-wire density>");
+			System.exit(1);
+		}
+		long nbCycles = (long) (Double.parseDouble(args[0]) * 1000000);
+		long sampleInterval = Math.max(1, nbCycles / 100);
+		// the last cycles would not be sampled
+		nbCycles = Math.max(1, (nbCycles + sampleInterval - 1) / sampleInterval) * sampleInterval;
+		StubHarness harness = new SyntheticModelGenerator().setNbTypes(Integer.parseInt(args[1]))
+				.setNbInstances(Integer.parseInt(args[2])).setDataWireDensity(Double.parseDouble(args[3])).generate()
+				.createHarness();
+		harness.start();
+		Result result;
+		try {
+			result = new SoakRunner(harness).setCycles(nbCycles, sampleInterval).setOutput(System.out).run();
+		} finally {
+			harness.stop();
+		}
+		System.out.printf("BDD node growth %.1f%%, median cycle latency growth %.1f%%%n", result.getNodeGrowth() * 100,
+				result.getLatencyGrowth() * 100);
+		for (String failure : result.getFailures()) {
+			System.out.println(failure);
+		}
+		System.exit(result.isFailed() ? 1 : 0);
+	}
+
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine.benchmarks.harness;
+
+import org.javabip.api.Behaviour;
+import org.javabip.api.Data;
+import org.javabip.api.Port;
+import org.javabip.exceptions.BIPEngineException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The behaviour of a stub component, given by tables rather than by annotations: its states, the ports enabled in
+ * each state and the ports needing or providing each data.
+ * 
+ * The Behaviour interface is richer than what the coordinators use, and is only implemented through
+ * {@link #asBehaviour()}, which answers the queries of the coordinators and encoders. Only the data received by the
+ * guards is known to the coordinators; no data is received by the transitions.
+ */
+public class StubBehaviour {
+
+	private static Logger logger = LoggerFactory.getLogger(StubBehaviour.class);
+
+	private final String componentType;
+	private volatile String currentState;
+	private final Map<String, Set<Port>> stateToPorts = new LinkedHashMap<String, Set<Port>>();
+	private final List<Port> enforceablePorts = new ArrayList<Port>();
+	private final Map<String, Set<Port>> portsNeedingData = new HashMap<String, Set<Port>>();
+	private final Map<String, Set<Port>> dataProvidingPorts = new HashMap<String, Set<Port>>();
+	private final Map<Port, Set<Data<?>>> guardData = new HashMap<Port, Set<Data<?>>>();
+
+	/**
+	 * @param componentType
+	 *            the type of the component.
+	 * @param initialState
+	 *            the initial state of the component.
+	 */
+	public StubBehaviour(String componentType, String initialState) {
+		this.componentType = componentType;
+		this.currentState = initialState;
+	}
+
+	/**
+	 * Adds a state, or adds ports to an existing state.
+	 * 
+	 * @param state
+	 *            the state.
+	 * @param enabledPorts
+	 *            the ports enabled in the state, which must have been added with {@link #addPort(Port)}.
+	 */
+	public void addState(String state, Iterable<? extends Port> enabledPorts) {
+		Set<Port> ports = stateToPorts.get(state);
+		if (ports == null) {
+			ports = new LinkedHashSet<Port>();
+			stateToPorts.put(state, ports);
+		}
+		for (Port port : enabledPorts) {
+			ports.add(port);
+		}
+	}
+
+	public void addPort(Port port) {
+		enforceablePorts.add(port);
+	}
+
+	public void addPortNeedingData(String dataName, Port port) {
+		add(portsNeedingData, dataName, port);
+	}
+
+	public void addDataProvidingPort(String dataName, Port port) {
+		add(dataProvidingPorts, dataName, port);
+	}
+
+	/**
+	 * Adds a data received by the guard of a port. The port must also be added with
+	 * {@link #addPortNeedingData(String, Port)}.
+	 */
+	public void addGuardData(Port port, Data<?> data) {
+		Set<Data<?>> portData = guardData.get(port);
+		if (portData == null) {
+			portData = new LinkedHashSet<Data<?>>();
+			guardData.put(port, portData);
+		}
+		portData.add(data);
+	}
+
+	public String getComponentType() {
+		return componentType;
+	}
+
+	public String getCurrentState() {
+		return currentState;
+	}
+
+	public void setCurrentState(String currentState) {
+		this.currentState = currentState;
+	}
+
+	public List<Port> getEnforceablePorts() {
+		return enforceablePorts;
+	}
+
+	public Set<String> getStates() {
+		return stateToPorts.keySet();
+	}
+
+	public Map<String, Set<Port>> getStateToPorts() {
+		return stateToPorts;
+	}
+
+	public Set<Port> portsNeedingData(String dataName) {
+		return get(portsNeedingData, dataName);
+	}
+
+	public Set<Port> getDataProvidingPorts(String dataName) {
+		return get(dataProvidingPorts, dataName);
+	}
+
+	public Set<Data<?>> portToDataInForGuard(Port port) {
+		Set<Data<?>> portData = guardData.get(port);
+		return portData == null ? Collections.<Data<?>> emptySet() : portData;
+	}
+
+	/**
+	 * Creates a data description, as found in the behaviour of annotated components.
+	 * 
+	 * @param name
+	 *            the name of the data.
+	 * @param type
+	 *            the type of its values.
+	 * @return the data.
+	 */
+	public static Data<?> data(final String name, final Class<?> type) {
+		return (Data<?>) Proxy.newProxyInstance(Data.class.getClassLoader(), new Class<?>[] { Data.class },
+				new InvocationHandler() {
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						String methodName = method.getName();
+						if (methodName.equals("name")) {
+							return name;
+						} else if (methodName.equals("type")) {
+							return type;
+						} else if (methodName.equals("equals")) {
+							return proxy == args[0];
+						} else if (methodName.equals("hashCode")) {
+							return System.identityHashCode(proxy);
+						} else if (methodName.equals("toString")) {
+							return "Data " + name + " of type " + type.getSimpleName();
+						}
+						logger.error("Method {} is not supported by the stub data.", methodName);
+						throw new BIPEngineException("Method " + methodName + " is not supported by the stub data.");
+					}
+				});
+	}
+
+	/**
+	 * @return a Behaviour backed by this stub behaviour, to be registered with the coordinators.
+	 */
+	public Behaviour asBehaviour() {
+		return (Behaviour) Proxy.newProxyInstance(Behaviour.class.getClassLoader(), new Class<?>[] { Behaviour.class },
+				new InvocationHandler() {
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						return answer(proxy, method, args);
+					}
+				});
+	}
+
+	private Object answer(Object proxy, Method method, Object[] args) {
+		String name = method.getName();
+		if (name.equals("getComponentType")) {
+			return componentType;
+		} else if (name.equals("getCurrentState")) {
+			return currentState;
+		} else if (name.equals("getEnforceablePorts") || name.equals("getAllPorts")) {
+			return enforceablePorts;
+		} else if (name.equals("getStates")) {
+			return getStates();
+		} else if (name.equals("getStateToPorts")) {
+			return stateToPorts;
+		} else if (name.equals("portToDataInForGuard")) {
+			return portToDataInForGuard((Port) args[0]);
+		} else if (name.equals("portToDataInForTransition")) {
+			return Collections.emptySet();
+		} else if (name.equals("portsNeedingData")) {
+			return portsNeedingData((String) args[0]);
+		} else if (name.equals("getDataProvidingPorts")) {
+			return getDataProvidingPorts((String) args[0]);
+		} else if (name.equals("equals")) {
+			return proxy == args[0];
+		} else if (name.equals("hashCode")) {
+			return System.identityHashCode(proxy);
+		} else if (name.equals("toString")) {
+			return "StubBehaviour of " + componentType + " in state " + currentState;
+		}
+		logger.error("Method {} is not supported by the stub behaviour.", name);
+		throw new BIPEngineException("Method " + name + " is not supported by the stub behaviour.");
+	}
+
+	private static void add(Map<String, Set<Port>> portsByData, String dataName, Port port) {
+		Set<Port> ports = portsByData.get(dataName);
+		if (ports == null) {
+			ports = new LinkedHashSet<Port>();
+			portsByData.put(dataName, ports);
+		}
+		ports.add(port);
+	}
+
+	private static Set<Port> get(Map<String, Set<Port>> portsByData, String dataName) {
+		Set<Port> ports = portsByData.get(dataName);
+		return ports == null ? Collections.<Port> emptySet() : ports;
+	}
+
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine.benchmarks.harness;
+
+import org.javabip.api.BIPComponent;
+import org.javabip.api.Port;
+import org.javabip.api.PortBase;
+import org.javabip.exceptions.BIPEngineException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A component following the transitions of its {@link StubComponentType} in the thread of the engine, without an
+ * actor. When the engine notifies it, the component takes the transition of the executed port, if any, and informs
+ * the engine of its new state. Its data, if its type provides any, is the number of transitions it has taken.
+ */
+public class StubComponent implements BIPComponent {
+
+	private Logger logger = LoggerFactory.getLogger(StubComponent.class);
+
+	private final String id;
+	private final StubComponentType type;
+	private final StubHarness harness;
+	private final StubBehaviour behaviour;
+	private final Map<String, Port> ports = new HashMap<String, Port>();
+
+	private volatile String currentState;
+	private volatile long nbTransitions;
+
+	StubComponent(String id, StubComponentType type, StubHarness harness) {
+		this.id = id;
+		this.type = type;
+		this.harness = harness;
+		this.currentState = type.getInitialState();
+		this.behaviour = new StubBehaviour(type.getName(), currentState);
+		for (String portId : type.getPorts()) {
+			Port port = new StubPort(portId, type.getName(), this);
+			ports.put(portId, port);
+			behaviour.addPort(port);
+		}
+		for (String state : type.getStates()) {
+			List<Port> enabledPorts = new ArrayList<Port>();
+			for (String portId : type.getEnabledPorts(state)) {
+				enabledPorts.add(ports.get(portId));
+			}
+			behaviour.addState(state, enabledPorts);
+		}
+		for (String dataName : type.getProvidedData()) {
+			for (Port port : ports.values()) {
+				behaviour.addDataProvidingPort(dataName, port);
+			}
+		}
+		for (String portId : type.getPorts()) {
+			for (String dataName : type.getGuardData(portId)) {
+				behaviour.addPortNeedingData(dataName, ports.get(portId));
+				behaviour.addGuardData(ports.get(portId), StubBehaviour.data(dataName, Integer.class));
+			}
+		}
+	}
+
+	StubBehaviour getBehaviour() {
+		return behaviour;
+	}
+
+	public StubComponentType getComponentType() {
+		return type;
+	}
+
+	public String getCurrentState() {
+		return currentState;
+	}
+
+	/**
+	 * @return the number of transitions taken so far.
+	 */
+	public long getNbTransitions() {
+		return nbTransitions;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public String getType() {
+		return type.getName();
+	}
+
+	public void execute(String portID) {
+		if (portID != null) {
+			currentState = type.getTarget(currentState, portID);
+			behaviour.setCurrentState(currentState);
+			nbTransitions++;
+		}
+		harness.notified(this);
+	}
+
+	public <T> T getData(String name, Class<T> clazz) {
+		if (!type.getProvidedData().contains(name)) {
+			logger.error("Stub component {} has no data {}.", id, name);
+			throw new BIPEngineException("Stub component " + id + " has no data " + name + ".");
+		}
+		return clazz.cast(Integer.valueOf((int) nbTransitions));
+	}
+
+	public List<Boolean> checkEnabledness(PortBase port, List<Map<String, Object>> data) {
+		if (type.getGuardData(port.getId()).isEmpty()) {
+			logger.error("Port {} of stub component {} has no guard.", port.getId(), id);
+			throw new BIPEngineException("Port " + port.getId() + " of stub component " + id + " has no guard.");
+		}
+		List<Boolean> enabled = new ArrayList<Boolean>(data.size());
+		for (Map<String, Object> valuation : data) {
+			enabled.add(type.isEnabled(valuation.values()));
+		}
+		return enabled;
+	}
+
+	public void setData(String dataName, Object data) {
+		logger.error("Stub component {} has no data {}.", id, dataName);
+		throw new BIPEngineException("Stub component " + id + " has no data " + dataName + ".");
+	}
+
+	@Override
+	public String toString() {
+		return id;
+	}
+
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine.benchmarks.harness;
+
+import org.javabip.exceptions.BIPEngineException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A component type given by the table of its labelled transition system: each transition leads from a source state
+ * to a target state through an enforceable port. The transitions are deterministic, i.e. there is at most one
+ * transition per state and port, and a port is enabled in a state if there is a transition through it from this
+ * state.
+ * 
+ * A type may also provide data, whose value is the number of transitions taken so far by the component, and have
+ * guards on the data it receives. A guard holds unless the sum of the received values is two more than a multiple of
+ * three, so that about a third of the data valuations disable the guarded port.
+ */
+public class StubComponentType {
+
+	private Logger logger = LoggerFactory.getLogger(StubComponentType.class);
+
+	private final String name;
+	private final String initialState;
+	private final List<String> ports = new ArrayList<String>();
+
+	/** The target state of each port, by source state. */
+	private final Map<String, Map<String, String>> transitions = new LinkedHashMap<String, Map<String, String>>();
+
+	private final Set<String> providedData = new LinkedHashSet<String>();
+
+	/** The data received by the guard of each port. */
+	private final Map<String, Set<String>> guardData = new LinkedHashMap<String, Set<String>>();
+
+	/**
+	 * @param name
+	 *            the name of the type, as used in the glue.
+	 * @param initialState
+	 *            the initial state of the components of this type.
+	 */
+	public StubComponentType(String name, String initialState) {
+		this.name = name;
+		this.initialState = initialState;
+		addState(initialState);
+	}
+
+	/**
+	 * Adds a state without outgoing transitions, for instance a deadlock state.
+	 * 
+	 * @param state
+	 *            the state.
+	 * @return this type.
+	 */
+	public StubComponentType addState(String state) {
+		if (!transitions.containsKey(state)) {
+			transitions.put(state, new LinkedHashMap<String, String>());
+		}
+		return this;
+	}
+
+	/**
+	 * Adds a transition, and its states and port if they are new.
+	 * 
+	 * @param source
+	 *            the source state.
+	 * @param port
+	 *            the port of the transition.
+	 * @param target
+	 *            the target state.
+	 * @return this type.
+	 * @throws BIPEngineException
+	 *             if there is already a transition through this port from the source state.
+	 */
+	public StubComponentType addTransition(String source, String port, String target) throws BIPEngineException {
+		addState(source);
+		addState(target);
+		if (!ports.contains(port)) {
+			ports.add(port);
+		}
+		Map<String, String> targets = transitions.get(source);
+		if (targets.containsKey(port)) {
+			logger.error("Type {} already has a transition through port {} from state {}.", name, port, source);
+			throw new BIPEngineException("Type " + name + " already has a transition through port " + port
+					+ " from state " + source + ".");
+		}
+		targets.put(port, target);
+		return this;
+	}
+
+	/**
+	 * Adds a data provided by all the ports of the type.
+	 * 
+	 * @param dataName
+	 *            the name of the data out.
+	 * @return this type.
+	 */
+	public StubComponentType addProvidedData(String dataName) {
+		providedData.add(dataName);
+		return this;
+	}
+
+	/**
+	 * Adds a data to the guard of a port.
+	 * 
+	 * @param port
+	 *            the guarded port.
+	 * @param dataName
+	 *            the name of the data in received by the guard.
+	 * @return this type.
+	 * @throws BIPEngineException
+	 *             if the port is not a port of the type.
+	 */
+	public StubComponentType addGuardData(String port, String dataName) throws BIPEngineException {
+		if (!ports.contains(port)) {
+			logger.error("Type {} has no port {} to guard.", name, port);
+			throw new BIPEngineException("Type " + name + " has no port " + port + " to guard.");
+		}
+		Set<String> data = guardData.get(port);
+		if (data == null) {
+			data = new LinkedHashSet<String>();
+			guardData.put(port, data);
+		}
+		data.add(dataName);
+		return this;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getInitialState() {
+		return initialState;
+	}
+
+	/**
+	 * @return the ports of the type, in the order they were added.
+	 */
+	public List<String> getPorts() {
+		return ports;
+	}
+
+	/**
+	 * @return the states of the type, in the order they were added.
+	 */
+	public Iterable<String> getStates() {
+		return transitions.keySet();
+	}
+
+	/**
+	 * @return the ports enabled in a state.
+	 */
+	public Iterable<String> getEnabledPorts(String state) {
+		return transitions.get(state).keySet();
+	}
+
+	/**
+	 * @return the data provided by the type.
+	 */
+	public Set<String> getProvidedData() {
+		return providedData;
+	}
+
+	/**
+	 * @return the data received by the guard of a port, empty if the port has no guard.
+	 */
+	public Set<String> getGuardData(String port) {
+		Set<String> data = guardData.get(port);
+		return data == null ? Collections.<String> emptySet() : data;
+	}
+
+	/**
+	 * Evaluates the guard of a port.
+	 * 
+	 * @param values
+	 *            the values of the data received by the guard.
+	 * @return true if the port is enabled for these values.
+	 */
+	public boolean isEnabled(Iterable<?> values) {
+		long sum = 0;
+		for (Object value : values) {
+			sum += ((Number) value).longValue();
+		}
+		return sum % 3 != 2;
+	}
+
+	/**
+	 * Returns the target state of a transition.
+	 * 
+	 * @param source
+	 *            the source state.
+	 * @param port
+	 *            the executed port.
+	 * @return the target state.
+	 * @throws BIPEngineException
+	 *             if the port is not enabled in the source state.
+	 */
+	public String getTarget(String source, String port) throws BIPEngineException {
+		String target = transitions.get(source).get(port);
+		if (target == null) {
+			logger.error("Port {} of type {} is not enabled in state {}.", port, name, source);
+			throw new BIPEngineException("Port " + port + " of type " + name + " is not enabled in state " + source
+					+ ".");
+		}
+		return target;
+	}
+
+}
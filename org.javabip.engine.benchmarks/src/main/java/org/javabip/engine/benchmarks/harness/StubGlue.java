@@ -0,0 +1,166 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine.benchmarks.harness;
+
+import org.javabip.api.Accept;
+import org.javabip.api.BIPGlue;
+import org.javabip.api.DataWire;
+import org.javabip.api.PortBase;
+import org.javabip.api.Require;
+import org.javabip.exceptions.BIPEngineException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the glue of stub components, whose types are plain names rather than classes. As with
+ * {@link StubBehaviour}, the glue interfaces are implemented through proxies that answer the queries of the encoders.
+ */
+public class StubGlue {
+
+	private static Logger logger = LoggerFactory.getLogger(StubGlue.class);
+
+	private final List<Require> requires = new ArrayList<Require>();
+	private final List<Accept> accepts = new ArrayList<Accept>();
+	private final List<DataWire> dataWires = new ArrayList<DataWire>();
+
+	/**
+	 * @param componentType
+	 *            the name of a component type.
+	 * @param portId
+	 *            the id of a port of this type.
+	 * @return the port of the type, to be used in constraints.
+	 */
+	public PortBase port(String componentType, String portId) {
+		return proxy(PortBase.class, "getSpecType", componentType, "getId", portId);
+	}
+
+	/**
+	 * Adds a require constraint.
+	 * 
+	 * @param effect
+	 *            the constrained port.
+	 * @param causes
+	 *            the alternative sets of ports the effect requires. A single empty set means that the effect requires
+	 *            nothing.
+	 * @return this glue.
+	 */
+	public StubGlue require(PortBase effect, List<List<PortBase>> causes) {
+		requires.add(proxy(Require.class, "getEffect", effect, "getCauses", causes));
+		return this;
+	}
+
+	/**
+	 * Adds an accept constraint.
+	 * 
+	 * @param effect
+	 *            the constrained port.
+	 * @param causes
+	 *            the ports the effect accepts.
+	 * @return this glue.
+	 */
+	public StubGlue accept(PortBase effect, Collection<PortBase> causes) {
+		accepts.add(proxy(Accept.class, "getEffect", effect, "getCauses", causes));
+		return this;
+	}
+
+	/**
+	 * Adds a data wire.
+	 * 
+	 * @param from
+	 *            the providing component type and the name of its data out, as given by {@link #port}.
+	 * @param to
+	 *            the receiving component type and the name of its data in, as given by {@link #port}.
+	 * @return this glue.
+	 */
+	public StubGlue data(final PortBase from, final PortBase to) {
+		dataWires.add((DataWire) Proxy.newProxyInstance(DataWire.class.getClassLoader(),
+				new Class<?>[] { DataWire.class }, new InvocationHandler() {
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						String name = method.getName();
+						if (name.equals("getFrom")) {
+							return from;
+						} else if (name.equals("getTo")) {
+							return to;
+						} else if (name.equals("isIncoming")) {
+							return to.getId().equals(args[0]) && to.getSpecType().equals(args[1]);
+						} else if (name.equals("equals")) {
+							return proxy == args[0];
+						} else if (name.equals("hashCode")) {
+							return System.identityHashCode(proxy);
+						} else if (name.equals("toString")) {
+							return "DataWire from " + from + " to " + to;
+						}
+						logger.error("Method {} is not supported by the stub data wire.", name);
+						throw new BIPEngineException("Method " + name + " is not supported by the stub data wire.");
+					}
+				}));
+		return this;
+	}
+
+	/**
+	 * @return the glue with the constraints and data wires added so far.
+	 */
+	public BIPGlue build() {
+		return proxy(BIPGlue.class, "getRequiresConstraints", Collections.unmodifiableList(requires),
+				"getAcceptConstraints", Collections.unmodifiableList(accepts), "getDataWires",
+				Collections.unmodifiableList(dataWires));
+	}
+
+	/**
+	 * Creates an object answering the given methods without arguments with the given values.
+	 * 
+	 * @param answers
+	 *            pairs of a method name and of the value it returns.
+	 */
+	private static <T> T proxy(final Class<T> type, Object... answers) {
+		final Map<String, Object> values = new HashMap<String, Object>();
+		for (int i = 0; i < answers.length; i += 2) {
+			values.put((String) answers[i], answers[i + 1]);
+		}
+		return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+				new InvocationHandler() {
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						String name = method.getName();
+						if (values.containsKey(name)) {
+							return values.get(name);
+						} else if (name.equals("equals")) {
+							return proxy == args[0];
+						} else if (name.equals("hashCode")) {
+							return System.identityHashCode(proxy);
+						} else if (name.equals("toString")) {
+							return type.getSimpleName() + values;
+						}
+						logger.error("Method {} is not supported by the stub {}.", name, type.getSimpleName());
+						throw new BIPEngineException("Method " + name + " is not supported by the stub "
+								+ type.getSimpleName() + ".");
+					}
+				}));
+	}
+
+}
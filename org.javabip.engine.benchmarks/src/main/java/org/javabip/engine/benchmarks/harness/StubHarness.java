@@ -0,0 +1,288 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine.benchmarks.harness;
+
+import org.javabip.api.BIPGlue;
+import org.javabip.api.Port;
+import org.javabip.engine.BDDBIPEngineImpl;
+import org.javabip.engine.BehaviourEncoderImpl;
+import org.javabip.engine.CurrentStateEncoderImpl;
+import org.javabip.engine.DataEncoderImpl;
+import org.javabip.engine.GlueEncoderImpl;
+import org.javabip.engine.api.EngineMetrics;
+import org.javabip.engine.api.GlueCoordinator;
+import org.javabip.engine.coordinator.DataCoordinatorKernel;
+import org.javabip.engine.coordinator.GlueCoordinatorImpl;
+import org.javabip.exceptions.BIPEngineException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs an engine on stub components, without actors, in order to measure the engine alone on systems of any size.
+ * The components are registered directly with a GlueCoordinatorImpl, and take their transitions and inform in the
+ * thread of the engine, so that a run only depends on the interactions chosen by the engine.
+ * 
+ * If the glue has data wires, the components are also registered with a DataCoordinatorKernel. Their guards are then
+ * evaluated while they inform, which must not happen in the thread of the engine since the temporary constraints
+ * would be discarded at the end of the current cycle, so the components inform from a separate thread.
+ * 
+ * <pre>
+ * StubHarness harness = new StubHarness(glue);
+ * harness.addComponents(clientType, 1000);
+ * harness.addComponents(serverType, 10);
+ * harness.start();
+ * harness.runCycles(100, 60000);
+ * harness.stop();
+ * </pre>
+ */
+public class StubHarness {
+
+	private Logger logger = LoggerFactory.getLogger(StubHarness.class);
+
+	private final BDDBIPEngineImpl engine = new BDDBIPEngineImpl();
+	private final GlueCoordinatorImpl coordinator;
+	private final DataCoordinatorKernel dataCoordinator;
+
+	/** The coordinator informed by the components, i.e. the data coordinator if there is one. */
+	private final GlueCoordinator informedCoordinator;
+
+	/** The thread informing the data coordinator, or null if there is no data coordinator. */
+	private final ExecutorService informer;
+
+	private final List<StubComponent> components = new ArrayList<StubComponent>();
+	private final Map<String, Integer> nbInstances = new HashMap<String, Integer>();
+
+	/** The number of notifications received by the components, and of execution cycles completed. */
+	private long nbNotifications;
+	private long nbCycles;
+
+	/** The number of BDD nodes in use at the end of the last completed cycle. */
+	private int nbBDDNodes;
+
+	private boolean isStarted;
+
+	/**
+	 * Creates an engine with a glue.
+	 * 
+	 * @param glue
+	 *            the glue, whose component types are the names of the stub component types.
+	 */
+	public StubHarness(BIPGlue glue) {
+		coordinator = new GlueCoordinatorImpl(null, new GlueEncoderImpl(), new BehaviourEncoderImpl(),
+				new CurrentStateEncoderImpl(), engine);
+		if (glue.getDataWires().isEmpty()) {
+			dataCoordinator = null;
+			informedCoordinator = coordinator;
+			informer = null;
+		} else {
+			dataCoordinator = new DataCoordinatorKernel(coordinator, new DataEncoderImpl());
+			informedCoordinator = dataCoordinator;
+			informer = Executors.newSingleThreadExecutor();
+		}
+		informedCoordinator.specifyGlue(glue);
+	}
+
+	/**
+	 * Creates and registers components of a type. Their ids are the name of the type followed by their index among
+	 * the components of the type.
+	 * 
+	 * @param type
+	 *            the type of the components.
+	 * @param count
+	 *            the number of components to create.
+	 * @return the new components.
+	 * @throws BIPEngineException
+	 *             if the engine has already started.
+	 */
+	public List<StubComponent> addComponents(StubComponentType type, int count) throws BIPEngineException {
+		synchronized (this) {
+			if (isStarted) {
+				logger.error("Components of type {} cannot be added once the engine has started.", type.getName());
+				throw new BIPEngineException("Components of type " + type.getName()
+						+ " cannot be added once the engine has started.");
+			}
+		}
+		Integer first = nbInstances.get(type.getName());
+		int index = first == null ? 0 : first;
+		List<StubComponent> added = new ArrayList<StubComponent>(count);
+		for (int i = 0; i < count; i++) {
+			StubComponent component = new StubComponent(type.getName() + "-" + (index + i), type, this);
+			coordinator.register(component, component.getBehaviour().asBehaviour());
+			if (dataCoordinator != null) {
+				dataCoordinator.register(component);
+			}
+			added.add(component);
+		}
+		nbInstances.put(type.getName(), index + count);
+		synchronized (this) {
+			components.addAll(added);
+		}
+		return added;
+	}
+
+	/**
+	 * Starts the engine. The components inform it of their initial state, and the engine runs its cycles until it is
+	 * stopped.
+	 */
+	public void start() {
+		synchronized (this) {
+			isStarted = true;
+		}
+		informedCoordinator.start();
+		informedCoordinator.execute();
+		for (StubComponent component : components) {
+			inform(component);
+		}
+	}
+
+	/**
+	 * Waits until the engine has run a number of execution cycles more.
+	 * 
+	 * @param cycles
+	 *            the number of cycles.
+	 * @param timeoutMillis
+	 *            the maximal time to wait.
+	 * @throws InterruptedException
+	 *             if the waiting thread is interrupted.
+	 * @throws BIPEngineException
+	 *             if the cycles are not run in time, for instance because the system has deadlocked.
+	 */
+	public synchronized void runCycles(long cycles, long timeoutMillis) throws InterruptedException,
+			BIPEngineException {
+		long target = nbCycles + cycles;
+		long deadline = System.currentTimeMillis() + timeoutMillis;
+		while (nbCycles < target) {
+			long remaining = deadline - System.currentTimeMillis();
+			if (remaining <= 0) {
+				logger.error("The engine ran {} of {} cycles within {} ms.", cycles - (target - nbCycles), cycles,
+						timeoutMillis);
+				throw new BIPEngineException("The engine ran " + (cycles - (target - nbCycles)) + " of " + cycles
+						+ " cycles within " + timeoutMillis + " ms.");
+			}
+			wait(remaining);
+		}
+	}
+
+	/**
+	 * Stops the engine.
+	 */
+	public void stop() {
+		informedCoordinator.stop();
+		if (informer != null) {
+			informer.shutdownNow();
+		}
+	}
+
+	/**
+	 * Informs the engine of the new state of a notified component, and counts the execution cycle as complete once
+	 * all the components have been notified.
+	 */
+	void notified(StubComponent component) {
+		inform(component);
+		boolean isCycleComplete;
+		synchronized (this) {
+			nbNotifications++;
+			isCycleComplete = nbNotifications % components.size() == 0;
+		}
+		if (isCycleComplete) {
+			int nodes = countBDDNodes();
+			synchronized (this) {
+				nbBDDNodes = nodes;
+				nbCycles++;
+				notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * Counts the BDD nodes in use. The components are notified in the thread of the engine, so the engine does not use
+	 * the BDD manager meanwhile, and the data coordinator only uses it while holding its own monitor.
+	 */
+	private int countBDDNodes() {
+		if (dataCoordinator == null) {
+			return engine.getBDDManager().getNodeNum();
+		}
+		synchronized (dataCoordinator) {
+			return engine.getBDDManager().getNodeNum();
+		}
+	}
+
+	private void inform(final StubComponent component) {
+		if (informer == null) {
+			coordinator.inform(component, component.getCurrentState(), Collections.<Port> emptySet());
+			return;
+		}
+		final String currentState = component.getCurrentState();
+		informer.execute(new Runnable() {
+			public void run() {
+				informedCoordinator.inform(component, currentState, Collections.<Port> emptySet());
+			}
+		});
+	}
+
+	/**
+	 * @return the number of execution cycles completed so far.
+	 */
+	public synchronized long getNbCycles() {
+		return nbCycles;
+	}
+
+	public synchronized List<StubComponent> getComponents() {
+		return Collections.unmodifiableList(components);
+	}
+
+	public BDDBIPEngineImpl getEngine() {
+		return engine;
+	}
+
+	public GlueCoordinatorImpl getCoordinator() {
+		return coordinator;
+	}
+
+	/**
+	 * @return the data coordinator, or null if the glue has no data wires.
+	 */
+	public DataCoordinatorKernel getDataCoordinator() {
+		return dataCoordinator;
+	}
+
+	/**
+	 * @return the number of BDD nodes in use by the engine at the end of the last completed execution cycle, counted
+	 *         in the thread of the engine.
+	 */
+	public synchronized int getNbBDDNodes() {
+		return nbBDDNodes;
+	}
+
+	/**
+	 * @return the durations of the phases of the execution cycles.
+	 */
+	public EngineMetrics getMetrics() {
+		return engine.getMetrics();
+	}
+
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine.benchmarks.harness;
+
+import org.javabip.api.BIPComponent;
+import org.javabip.api.Port;
+
+/**
+ * An enforceable port of a stub component. Ports are compared by identity, each port being created once.
+ */
+public class StubPort implements Port {
+
+	private final String id;
+	private final String specType;
+	private final BIPComponent component;
+
+	/**
+	 * @param id
+	 *            the id of the port.
+	 * @param specType
+	 *            the type of the component.
+	 * @param component
+	 *            the component owning the port.
+	 */
+	public StubPort(String id, String specType, BIPComponent component) {
+		this.id = id;
+		this.specType = specType;
+		this.component = component;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public String getSpecType() {
+		return specType;
+	}
+
+	public BIPComponent component() {
+		return component;
+	}
+
+	@Override
+	public String toString() {
+		return component.getId() + "." + id;
+	}
+
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine.benchmarks.models;
+
+import org.javabip.annotations.ComponentType;
+import org.javabip.annotations.Port;
+import org.javabip.annotations.Ports;
+import org.javabip.annotations.Transition;
+import org.javabip.api.PortType;
+import org.javabip.engine.benchmarks.InteractionCounter;
+
+/**
+ * Broadcasts to all the receivers that are ready. Each broadcast counts as one interaction.
+ */
+@Ports({ @Port(name = "send", type = PortType.enforceable) })
+@ComponentType(initial = "ready", name = "org.javabip.engine.benchmarks.models.BroadcastSender")
+public class BroadcastSender {
+
+	private final InteractionCounter counter;
+
+	public BroadcastSender(InteractionCounter counter) {
+		this.counter = counter;
+	}
+
+	@Transition(name = "send", source = "ready", target = "ready")
+	public void send() {
+		counter.increment();
+	}
+
+}
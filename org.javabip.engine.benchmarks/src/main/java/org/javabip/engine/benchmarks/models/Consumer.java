@@ -0,0 +1,57 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine.benchmarks.models;
+
+import org.javabip.annotations.ComponentType;
+import org.javabip.annotations.Data;
+import org.javabip.annotations.Guard;
+import org.javabip.annotations.Port;
+import org.javabip.annotations.Ports;
+import org.javabip.annotations.Transition;
+import org.javabip.api.PortType;
+import org.javabip.engine.benchmarks.InteractionCounter;
+
+/**
+ * Consumes the item provided by a producer. Its guard reads the item, so that the engine has to evaluate it for each
+ * producer. Each consumed item counts as one interaction.
+ */
+@Ports({ @Port(name = "consume", type = PortType.enforceable) })
+@ComponentType(initial = "ready", name = "org.javabip.engine.benchmarks.models.Consumer")
+public class Consumer {
+
+	private final InteractionCounter counter;
+
+	private long consumed;
+
+	public Consumer(InteractionCounter counter) {
+		this.counter = counter;
+	}
+
+	@Transition(name = "consume", source = "ready", target = "ready", guard = "isValid")
+	public void consume(@Data(name = "item") Integer item) {
+		consumed += item;
+		counter.increment();
+	}
+
+	@Guard(name = "isValid")
+	public boolean isValid(@Data(name = "item") Integer item) {
+		return item >= 0;
+	}
+
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine.benchmarks.models;
+
+import org.javabip.annotations.ComponentType;
+import org.javabip.annotations.Port;
+import org.javabip.annotations.Ports;
+import org.javabip.annotations.Transition;
+import org.javabip.api.PortType;
+import org.javabip.engine.benchmarks.InteractionCounter;
+
+/**
+ * A dining philosopher, who eats with two forks and then puts them back. Each meal counts as one interaction.
+ */
+@Ports({ @Port(name = "eat", type = PortType.enforceable), @Port(name = "finish", type = PortType.enforceable) })
+@ComponentType(initial = "thinking", name = "org.javabip.engine.benchmarks.models.Philosopher")
+public class Philosopher {
+
+	private final InteractionCounter counter;
+
+	public Philosopher(InteractionCounter counter) {
+		this.counter = counter;
+	}
+
+	@Transition(name = "eat", source = "thinking", target = "eating")
+	public void eat() {
+		counter.increment();
+	}
+
+	@Transition(name = "finish", source = "eating", target = "thinking")
+	public void finish() {
+	}
+
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine.benchmarks.models;
+
+import org.javabip.annotations.ComponentType;
+import org.javabip.annotations.Data;
+import org.javabip.annotations.Guard;
+import org.javabip.annotations.Port;
+import org.javabip.annotations.Ports;
+import org.javabip.annotations.Transition;
+import org.javabip.api.PortType;
+import org.javabip.engine.benchmarks.InteractionCounter;
+
+/**
+ * A node of a token ring. The glue lets any node send to any other one, the ring is enforced by the guard of the
+ * receiving node, which only accepts the token from its predecessor. Each hop of the token counts as one interaction.
+ */
+@Ports({ @Port(name = "send", type = PortType.enforceable), @Port(name = "receive", type = PortType.enforceable) })
+@ComponentType(initial = "init", name = "org.javabip.engine.benchmarks.models.TokenRingNode")
+public class TokenRingNode {
+
+	private final int id;
+	private final int predecessor;
+	private final InteractionCounter counter;
+
+	/**
+	 * @param id
+	 *            the position of the node in the ring, the node at position 0 holds the token initially.
+	 * @param ringSize
+	 *            the number of nodes in the ring.
+	 * @param counter
+	 *            the counter of the executed interactions.
+	 */
+	public TokenRingNode(int id, int ringSize, InteractionCounter counter) {
+		this.id = id;
+		this.predecessor = (id + ringSize - 1) % ringSize;
+		this.counter = counter;
+	}
+
+	@Transition(name = "", source = "init", target = "holding", guard = "hasToken")
+	public void takeToken() {
+	}
+
+	@Transition(name = "", source = "init", target = "idle", guard = "!hasToken")
+	public void awaitToken() {
+	}
+
+	@Transition(name = "send", source = "holding", target = "idle")
+	public void send() {
+		counter.increment();
+	}
+
+	@Transition(name = "receive", source = "idle", target = "holding", guard = "isFromPredecessor")
+	public void receive(@Data(name = "senderId") Integer senderId) {
+	}
+
+	@Guard(name = "hasToken")
+	public boolean hasToken() {
+		return id == 0;
+	}
+
+	@Guard(name = "isFromPredecessor")
+	public boolean isFromPredecessor(@Data(name = "senderId") Integer senderId) {
+		return senderId == predecessor;
+	}
+
+	@Data(name = "id")
+	public Integer getId() {
+		return id;
+	}
+
+}
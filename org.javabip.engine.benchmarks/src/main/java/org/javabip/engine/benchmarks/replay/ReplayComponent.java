@@ -0,0 +1,153 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine.benchmarks.replay;
+
+import org.javabip.api.BIPComponent;
+import org.javabip.api.Port;
+import org.javabip.api.PortBase;
+import org.javabip.engine.benchmarks.harness.StubBehaviour;
+import org.javabip.engine.benchmarks.harness.StubPort;
+import org.javabip.engine.coordinator.TraceRecord;
+import org.javabip.exceptions.BIPEngineException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * A component of a replayed trace. Instead of executing transitions, it replays the recorded informs and
+ * informSpecifics of the component each time the engine notifies it.
+ */
+class ReplayComponent implements BIPComponent {
+
+	private Logger logger = LoggerFactory.getLogger(ReplayComponent.class);
+
+	private final String id;
+	private final String type;
+	private final TraceReplay replay;
+	private final StubBehaviour behaviour;
+	private final Map<String, Port> ports = new HashMap<String, Port>();
+
+	/** The recorded informs and informSpecifics of the component not replayed yet. */
+	private final Queue<TraceRecord> steps = new ArrayDeque<TraceRecord>();
+
+	/**
+	 * Creates a component from its registration record.
+	 */
+	ReplayComponent(TraceRecord register, TraceReplay replay) {
+		this.id = register.getComponentId();
+		this.type = register.getComponentType();
+		this.replay = replay;
+		this.behaviour = new StubBehaviour(type, register.getState());
+		for (String portId : register.getPorts()) {
+			Port port = new StubPort(portId, type, this);
+			ports.put(portId, port);
+			behaviour.addPort(port);
+		}
+		for (Map.Entry<String, List<String>> state : register.getPortsByName().entrySet()) {
+			behaviour.addState(state.getKey(), getPorts(state.getValue()));
+		}
+		for (Map.Entry<String, List<String>> data : register.getDataPorts().entrySet()) {
+			for (Port port : getPorts(data.getValue())) {
+				behaviour.addPortNeedingData(data.getKey(), port);
+			}
+		}
+	}
+
+	StubBehaviour getBehaviour() {
+		return behaviour;
+	}
+
+	void setDataProvidingPorts(String dataName, List<String> portIds) {
+		for (Port port : getPorts(portIds)) {
+			behaviour.addDataProvidingPort(dataName, port);
+		}
+	}
+
+	void addStep(TraceRecord step) {
+		steps.add(step);
+	}
+
+	/**
+	 * @return the next recorded inform or informSpecific, or null if there is none left.
+	 */
+	TraceRecord nextStep() {
+		return steps.poll();
+	}
+
+	/**
+	 * @return the port with the given id, or null if the component has no such port.
+	 */
+	Port getPort(String portId) {
+		return ports.get(portId);
+	}
+
+	/**
+	 * @return the ports with the given ids, skipping the ids of unknown ports.
+	 */
+	Set<Port> getPorts(List<String> portIds) {
+		Set<Port> result = new LinkedHashSet<Port>();
+		for (String portId : portIds) {
+			Port port = ports.get(portId);
+			if (port != null) {
+				result.add(port);
+			}
+		}
+		return result;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public String getType() {
+		return type;
+	}
+
+	public void execute(String portID) {
+		replay.deliverNext(this);
+	}
+
+	public <T> T getData(String name, Class<T> clazz) {
+		logger.error("Data {} of component {} is not recorded in the trace.", name, id);
+		throw new BIPEngineException("Data " + name + " of component " + id + " is not recorded in the trace.");
+	}
+
+	public List<Boolean> checkEnabledness(PortBase port, List<Map<String, Object>> data) {
+		logger.error("The guards of component {} are not recorded in the trace.", id);
+		throw new BIPEngineException("The guards of component " + id + " are not recorded in the trace.");
+	}
+
+	public void setData(String dataName, Object data) {
+		logger.error("Data {} of component {} is not recorded in the trace.", dataName, id);
+		throw new BIPEngineException("Data " + dataName + " of component " + id + " is not recorded in the trace.");
+	}
+
+	@Override
+	public String toString() {
+		return id;
+	}
+
+}
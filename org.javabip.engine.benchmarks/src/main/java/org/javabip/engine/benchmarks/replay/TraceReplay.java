@@ -0,0 +1,284 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine.benchmarks.replay;
+
+import org.javabip.api.BIPComponent;
+import org.javabip.api.BIPGlue;
+import org.javabip.api.Port;
+import org.javabip.engine.BDDBIPEngineImpl;
+import org.javabip.engine.BehaviourEncoderImpl;
+import org.javabip.engine.CurrentStateEncoderImpl;
+import org.javabip.engine.DataEncoderImpl;
+import org.javabip.engine.GlueEncoderImpl;
+import org.javabip.engine.api.EngineMetrics;
+import org.javabip.engine.api.EngineMetrics.Phase;
+import org.javabip.engine.api.GlueCoordinator;
+import org.javabip.engine.api.InteractionExecutor;
+import org.javabip.engine.api.LatencyHistogram;
+import org.javabip.engine.benchmarks.BenchmarkModel;
+import org.javabip.engine.coordinator.DataCoordinatorKernel;
+import org.javabip.engine.coordinator.GlueCoordinatorImpl;
+import org.javabip.engine.coordinator.TraceReader;
+import org.javabip.engine.coordinator.TraceRecord;
+import org.javabip.exceptions.BIPEngineException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays a trace recorded by an engine, see EngineFactory.setTraceDirectory, into a new engine without actors. The
+ * recorded components are replaced by stub components with the recorded behaviours, which send the recorded informs
+ * and informSpecifics whenever the engine notifies them. The engine computes each interaction as usual, but the
+ * recorded interaction is executed instead of the one it chooses, so that the replay follows the recorded run. The
+ * engine therefore does the same work as in production, on a laptop.
+ * 
+ * The glue is not part of the trace and must be the glue the engine was created with. Components are registered
+ * before the replay starts, even if they registered while the recorded engine was running.
+ */
+public class TraceReplay {
+
+	private Logger logger = LoggerFactory.getLogger(TraceReplay.class);
+
+	private final BIPGlue glue;
+	private final Map<String, ReplayComponent> components = new LinkedHashMap<String, ReplayComponent>();
+	private final List<TraceRecord> interactions = new ArrayList<TraceRecord>();
+
+	private final BDDBIPEngineImpl engine = new BDDBIPEngineImpl();
+	private GlueCoordinatorImpl glueCoordinator;
+	private DataCoordinatorKernel dataCoordinator;
+
+	/**
+	 * The thread executing the recorded interactions, so that the components inform once the engine has finished its
+	 * cycle, as they would through their actors.
+	 */
+	private final ExecutorService dispatcher = Executors.newSingleThreadExecutor();
+
+	private int nbReplayedInteractions;
+	private final CountDownLatch finished = new CountDownLatch(1);
+
+	/**
+	 * Reads a trace.
+	 * 
+	 * @param trace
+	 *            the trace file.
+	 * @param glue
+	 *            the glue of the recorded engine.
+	 * @throws IOException
+	 *             if the trace cannot be read.
+	 */
+	public TraceReplay(File trace, BIPGlue glue) throws IOException {
+		this.glue = glue;
+		TraceReader reader = new TraceReader(trace);
+		try {
+			for (TraceRecord record = reader.next(); record != null; record = reader.next()) {
+				if (record.getKind() == TraceRecord.Kind.REGISTER) {
+					components.put(record.getComponentId(), new ReplayComponent(record, this));
+				} else if (record.getKind() == TraceRecord.Kind.INTERACTION) {
+					interactions.add(record);
+				} else {
+					ReplayComponent component = components.get(record.getComponentId());
+					if (component == null) {
+						logger.warn("Record of unregistered component {} is skipped.", record.getComponentId());
+					} else if (record.getKind() == TraceRecord.Kind.DATA_OUT) {
+						component.setDataProvidingPorts(record.getDataName(), record.getPorts());
+					} else {
+						component.addStep(record);
+					}
+				}
+			}
+		} finally {
+			reader.close();
+		}
+	}
+
+	/**
+	 * Replays the trace until its last interaction, then stops the engine.
+	 * 
+	 * @param timeoutMillis
+	 *            the maximal duration of the replay.
+	 * @return the duration of the replay, in nanoseconds, from the start of the engine to the execution of the last
+	 *         interaction.
+	 * @throws InterruptedException
+	 *             if the replay is interrupted.
+	 * @throws BIPEngineException
+	 *             if the replay does not finish in time.
+	 */
+	public long replay(long timeoutMillis) throws InterruptedException, BIPEngineException {
+		glueCoordinator = new GlueCoordinatorImpl(null, new GlueEncoderImpl(), new BehaviourEncoderImpl(),
+				new CurrentStateEncoderImpl(), engine);
+		final GlueCoordinator coordinator;
+		if (glue.getDataWires().isEmpty()) {
+			coordinator = glueCoordinator;
+		} else {
+			dataCoordinator = new DataCoordinatorKernel(glueCoordinator, new DataEncoderImpl());
+			coordinator = dataCoordinator;
+		}
+		coordinator.specifyGlue(glue);
+		for (ReplayComponent component : components.values()) {
+			glueCoordinator.register(component, component.getBehaviour().asBehaviour());
+			if (dataCoordinator != null) {
+				dataCoordinator.register(component);
+			}
+		}
+		coordinator.setInteractionExecutor(new InteractionExecutor() {
+			public void execute(byte[] valuation) {
+				dispatcher.execute(new Runnable() {
+					public void run() {
+						executeNextInteraction(coordinator);
+					}
+				});
+			}
+
+			public void executeInteractions(List<List<Port>> portsToFire) {
+				coordinator.executeInteractions(portsToFire);
+			}
+		});
+
+		long start = System.nanoTime();
+		coordinator.start();
+		coordinator.execute();
+		dispatcher.execute(new Runnable() {
+			public void run() {
+				for (ReplayComponent component : components.values()) {
+					deliverNext(component);
+				}
+			}
+		});
+		boolean isFinished = finished.await(timeoutMillis, TimeUnit.MILLISECONDS);
+		long duration = System.nanoTime() - start;
+		coordinator.stop();
+		dispatcher.shutdownNow();
+		if (!isFinished) {
+			logger.error("The replay did not finish within {} ms, after {} of {} interactions.", timeoutMillis,
+					nbReplayedInteractions, interactions.size());
+			throw new BIPEngineException("The replay did not finish within " + timeoutMillis + " ms, after "
+					+ nbReplayedInteractions + " of " + interactions.size() + " interactions.");
+		}
+		return duration;
+	}
+
+	/**
+	 * Executes the next recorded interaction instead of the one chosen by the engine, or ends the replay.
+	 */
+	private void executeNextInteraction(GlueCoordinator coordinator) {
+		if (nbReplayedInteractions == interactions.size()) {
+			finished.countDown();
+			return;
+		}
+		TraceRecord interaction = interactions.get(nbReplayedInteractions++);
+		List<List<Port>> portGroups = new ArrayList<List<Port>>();
+		for (List<TraceRecord.PortReference> recordedGroup : interaction.getPortGroups()) {
+			List<Port> portGroup = new ArrayList<Port>();
+			for (TraceRecord.PortReference reference : recordedGroup) {
+				ReplayComponent component = components.get(reference.getComponentId());
+				Port port = component == null ? null : component.getPort(reference.getPortId());
+				if (port != null) {
+					portGroup.add(port);
+				}
+			}
+			if (!portGroup.isEmpty()) {
+				portGroups.add(portGroup);
+			}
+		}
+		coordinator.executeInteractions(portGroups);
+	}
+
+	/**
+	 * Sends the recorded informSpecifics of a component up to its next inform, and this inform.
+	 */
+	void deliverNext(ReplayComponent component) {
+		for (TraceRecord step = component.nextStep(); step != null; step = component.nextStep()) {
+			if (step.getKind() == TraceRecord.Kind.INFORM_SPECIFIC) {
+				if (dataCoordinator != null) {
+					dataCoordinator.informSpecific(component, component.getPort(step.getPortId()),
+							getDisabledCombinations(step));
+				}
+			} else {
+				component.getBehaviour().setCurrentState(step.getState());
+				glueCoordinator.inform(component, step.getState(), component.getPorts(step.getPorts()));
+				return;
+			}
+		}
+	}
+
+	private Map<BIPComponent, Set<Port>> getDisabledCombinations(TraceRecord informSpecific) {
+		Map<BIPComponent, Set<Port>> disabledCombinations = new HashMap<BIPComponent, Set<Port>>();
+		for (Map.Entry<String, List<String>> combination : informSpecific.getPortsByName().entrySet()) {
+			ReplayComponent component = components.get(combination.getKey());
+			if (component != null) {
+				disabledCombinations.put(component, component.getPorts(combination.getValue()));
+			}
+		}
+		return disabledCombinations;
+	}
+
+	/**
+	 * @return the number of recorded interactions executed so far.
+	 */
+	public int getReplayedInteractions() {
+		return nbReplayedInteractions;
+	}
+
+	public int getNbComponents() {
+		return components.size();
+	}
+
+	/**
+	 * @return the durations of the phases of the execution cycles of the engine.
+	 */
+	public EngineMetrics getMetrics() {
+		return engine.getMetrics();
+	}
+
+	/**
+	 * Replays a trace recorded from one of the benchmark models:
+	 * 
+	 * <pre>
+	 * java -cp target/benchmarks.jar org.javabip.engine.benchmarks.replay.TraceReplay engine.trace TOKEN_RING
+	 * </pre>
+	 */
+	public static void main(String[] args) throws IOException, InterruptedException {
+		if (args.length != 2) {
+			System.err.println("Usage: TraceReplay <trace file> <" + BenchmarkModel.class.getSimpleName() + ">");
+			System.exit(1);
+		}
+		TraceReplay replay = new TraceReplay(new File(args[0]), BenchmarkModel.valueOf(args[1]).createGlue());
+		long duration = replay.replay(TimeUnit.HOURS.toMillis(1));
+		LatencyHistogram cycles = replay.getMetrics().getHistogram(Phase.CYCLE);
+		System.out.printf("Replayed %d interactions of %d components in %d ms%n", replay.getReplayedInteractions(),
+				replay.getNbComponents(), TimeUnit.NANOSECONDS.toMillis(duration));
+		System.out.printf("Cycle latency: p50 %d us, p99 %d us, max %d us%n",
+				TimeUnit.NANOSECONDS.toMicros(cycles.getPercentile(50)),
+				TimeUnit.NANOSECONDS.toMicros(cycles.getPercentile(99)),
+				TimeUnit.NANOSECONDS.toMicros(cycles.getMax()));
+	}
+
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine.benchmarks.synthetic;
+
+import org.javabip.engine.api.EngineMetrics.Phase;
+import org.javabip.engine.api.LatencyHistogram;
+import org.javabip.engine.benchmarks.harness.StubHarness;
+import org.javabip.exceptions.BIPEngineException;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the models of a generator at increasing sizes on a {@link StubHarness} and reports, for each size, the number
+ * of BDD nodes used by the engine and the latency of its execution cycles.
+ */
+public class CapacityReport {
+
+	private final SyntheticModelGenerator generator;
+	private final PrintStream out;
+
+	private long warmupCycles = 20;
+	private long measuredCycles = 100;
+	private long timeoutMillis = TimeUnit.MINUTES.toMillis(10);
+
+	/**
+	 * @param generator
+	 *            the generator, whose number of instances per type is set for each size.
+	 * @param out
+	 *            where the report is printed.
+	 */
+	public CapacityReport(SyntheticModelGenerator generator, PrintStream out) {
+		this.generator = generator;
+		this.out = out;
+	}
+
+	/**
+	 * @param warmupCycles
+	 *            the number of cycles run before measuring.
+	 * @param measuredCycles
+	 *            the number of cycles measured.
+	 * @param timeoutMillis
+	 *            the maximal time given to each size.
+	 * @return this report.
+	 */
+	public CapacityReport setCycles(long warmupCycles, long measuredCycles, long timeoutMillis) {
+		this.warmupCycles = warmupCycles;
+		this.measuredCycles = measuredCycles;
+		this.timeoutMillis = timeoutMillis;
+		return this;
+	}
+
+	/**
+	 * Prints one line per size. A size whose cycles are not run in time is reported as such, and the larger sizes are
+	 * still run.
+	 * 
+	 * @param instancesPerType
+	 *            the sizes, as numbers of components of each type.
+	 * @throws InterruptedException
+	 *             if the report is interrupted.
+	 */
+	public void run(int... instancesPerType) throws InterruptedException {
+		out.println(generator.setNbInstances(instancesPerType[0]).generate());
+		out.printf("%10s %10s %8s %8s %6s %12s %10s %10s %10s %10s%n", "components", "ports", "requires",
+				"accepted", "wires", "BDD nodes", "start ms", "p50 us", "p99 us", "max us");
+		for (int instances : instancesPerType) {
+			SyntheticModel model = generator.setNbInstances(instances).generate();
+			StubHarness harness = model.createHarness();
+			out.printf("%10d %10d %8d %8d %6d ", model.getNbComponents(), model.getNbPorts(), model.getNbRequires(),
+					model.getNbAccepted(), model.getNbDataWires());
+			long start = System.nanoTime();
+			try {
+				harness.start();
+				harness.runCycles(1, timeoutMillis);
+				long startMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+				harness.runCycles(warmupCycles, timeoutMillis);
+				harness.getMetrics().reset();
+				harness.runCycles(measuredCycles, timeoutMillis);
+				LatencyHistogram cycles = harness.getMetrics().getHistogram(Phase.CYCLE);
+				out.printf("%12d %10d %10d %10d %10d%n", harness.getNbBDDNodes(), startMillis,
+						TimeUnit.NANOSECONDS.toMicros(cycles.getPercentile(50)),
+						TimeUnit.NANOSECONDS.toMicros(cycles.getPercentile(99)),
+						TimeUnit.NANOSECONDS.toMicros(cycles.getMax()));
+			} catch (BIPEngineException e) {
+				out.printf("%12s %s%n", "-", e.getMessage());
+			} finally {
+				harness.stop();
+			}
+		}
+	}
+
+	/**
+	 * Reports on the models generated from the given parameters:
+	 * 
+	 * <pre>
+	 * java -cp target/benchmarks.jar org.javabip.engine.benchmarks.synthetic.CapacityReport \
+	 *     &lt;types&gt; &lt;states&gt; &lt;ports&gt; &lt;fan-in&gt; &lt;cardinality weights, e.g. 3:1&gt; \
+	 *     &lt;accept density&gt; &lt;data-wire density&gt; &lt;instances per type&gt;...
+	 * </pre>
+	 */
+	public static void main(String[] args) throws InterruptedException {
+		if (args.length < 8) {
+			System.err.println("Usage: CapacityReport <types> <states> <ports> <fan-in> <cardinality weights> "
+					+ "<accept density> <data-wire density> <instances per type>...");
+			System.exit(1);
+		}
+		String[] weights = args[4].split(":");
+		double[] cardinalityWeights = new double[weights.length];
+		for (int i = 0; i < weights.length; i++) {
+			cardinalityWeights[i] = Double.parseDouble(weights[i]);
+		}
+		SyntheticModelGenerator generator = new SyntheticModelGenerator().setNbTypes(Integer.parseInt(args[0]))
+				.setNbStates(Integer.parseInt(args[1])).setNbPorts(Integer.parseInt(args[2]))
+				.setRequireFanIn(Integer.parseInt(args[3])).setCardinalityWeights(cardinalityWeights)
+				.setAcceptDensity(Double.parseDouble(args[5])).setDataWireDensity(Double.parseDouble(args[6]));
+		int[] instancesPerType = new int[args.length - 7];
+		for (int i = 7; i < args.length; i++) {
+			instancesPerType[i - 7] = Integer.parseInt(args[i]);
+		}
+		new CapacityReport(generator, System.out).run(instancesPerType);
+	}
+
+}
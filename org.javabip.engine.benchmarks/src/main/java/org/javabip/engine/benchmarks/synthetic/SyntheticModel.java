@@ -0,0 +1,110 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine.benchmarks.synthetic;
+
+import org.javabip.api.BIPGlue;
+import org.javabip.engine.benchmarks.harness.StubComponentType;
+import org.javabip.engine.benchmarks.harness.StubHarness;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A model generated by a {@link SyntheticModelGenerator}: component types with the number of instances of each, and
+ * their glue.
+ */
+public class SyntheticModel {
+
+	private final String parameters;
+	private final List<StubComponentType> types;
+	private final int nbInstances;
+	private final BIPGlue glue;
+	private final int nbRequires;
+	private final int nbAccepted;
+	private final int nbDataWires;
+
+	SyntheticModel(String parameters, List<StubComponentType> types, int nbInstances, BIPGlue glue, int nbRequires,
+			int nbAccepted, int nbDataWires) {
+		this.parameters = parameters;
+		this.types = types;
+		this.nbInstances = nbInstances;
+		this.glue = glue;
+		this.nbRequires = nbRequires;
+		this.nbAccepted = nbAccepted;
+		this.nbDataWires = nbDataWires;
+	}
+
+	/**
+	 * @return a harness with the components of the model registered, not yet started.
+	 */
+	public StubHarness createHarness() {
+		StubHarness harness = new StubHarness(glue);
+		for (StubComponentType type : types) {
+			harness.addComponents(type, nbInstances);
+		}
+		return harness;
+	}
+
+	public List<StubComponentType> getTypes() {
+		return Collections.unmodifiableList(types);
+	}
+
+	public BIPGlue getGlue() {
+		return glue;
+	}
+
+	public int getNbComponents() {
+		return types.size() * nbInstances;
+	}
+
+	public int getNbPorts() {
+		int nbPorts = 0;
+		for (StubComponentType type : types) {
+			nbPorts += type.getPorts().size();
+		}
+		return nbPorts * nbInstances;
+	}
+
+	/**
+	 * @return the number of ports, among the ports of the types, that require other ports.
+	 */
+	public int getNbRequires() {
+		return nbRequires;
+	}
+
+	/**
+	 * @return the number of accepted ports summed over the accept constraints of the types.
+	 */
+	public int getNbAccepted() {
+		return nbAccepted;
+	}
+
+	/**
+	 * @return the number of data wires between types.
+	 */
+	public int getNbDataWires() {
+		return nbDataWires;
+	}
+
+	@Override
+	public String toString() {
+		return "SyntheticModel " + parameters;
+	}
+
+}
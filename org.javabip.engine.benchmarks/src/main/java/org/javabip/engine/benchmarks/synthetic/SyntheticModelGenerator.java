@@ -0,0 +1,306 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine.benchmarks.synthetic;
+
+import org.javabip.api.PortBase;
+import org.javabip.engine.benchmarks.harness.StubComponentType;
+import org.javabip.engine.benchmarks.harness.StubGlue;
+import org.javabip.exceptions.BIPEngineException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Generates random BIP models from a few parameters, in order to predict how the engine behaves on a system before
+ * the system exists. Two generators with the same parameters and seed generate the same model.
+ * 
+ * Each component type goes around a cycle of states. Port i of a type leads from state i modulo the number of states
+ * to the next state, and the first port of each state requires nothing, so that no generated model deadlocks. The
+ * other ports require a number of ports of other types, each a number of times drawn from the cardinality
+ * distribution, and may receive the data of the types they require through a guard. Two ports constrained by a require
+ * accept each other, and any two ports accept each other with the accept density.
+ */
+public class SyntheticModelGenerator {
+
+	private Logger logger = LoggerFactory.getLogger(SyntheticModelGenerator.class);
+
+	/** The name of the data provided by all the types, which is the number of transitions of the component. */
+	static final String DATA_OUT = "value";
+
+	private int nbTypes = 4;
+	private int nbInstances = 10;
+	private int nbStates = 2;
+	private int nbPorts = 4;
+	private int requireFanIn = 1;
+	private double[] cardinalityWeights = { 1 };
+	private double acceptDensity = 0.1;
+	private double dataWireDensity = 0;
+	private long seed = 0;
+
+	/**
+	 * @param nbTypes
+	 *            the number of component types.
+	 * @return this generator.
+	 */
+	public SyntheticModelGenerator setNbTypes(int nbTypes) {
+		this.nbTypes = nbTypes;
+		return this;
+	}
+
+	/**
+	 * @param nbInstances
+	 *            the number of components of each type.
+	 * @return this generator.
+	 */
+	public SyntheticModelGenerator setNbInstances(int nbInstances) {
+		this.nbInstances = nbInstances;
+		return this;
+	}
+
+	/**
+	 * @param nbStates
+	 *            the number of states of each type.
+	 * @return this generator.
+	 */
+	public SyntheticModelGenerator setNbStates(int nbStates) {
+		this.nbStates = nbStates;
+		return this;
+	}
+
+	/**
+	 * @param nbPorts
+	 *            the number of ports of each type, at least the number of states.
+	 * @return this generator.
+	 */
+	public SyntheticModelGenerator setNbPorts(int nbPorts) {
+		this.nbPorts = nbPorts;
+		return this;
+	}
+
+	/**
+	 * @param requireFanIn
+	 *            the number of distinct ports required by each constrained port.
+	 * @return this generator.
+	 */
+	public SyntheticModelGenerator setRequireFanIn(int requireFanIn) {
+		this.requireFanIn = requireFanIn;
+		return this;
+	}
+
+	/**
+	 * @param cardinalityWeights
+	 *            the relative probabilities that a required port is required once, twice, and so on.
+	 * @return this generator.
+	 */
+	public SyntheticModelGenerator setCardinalityWeights(double... cardinalityWeights) {
+		this.cardinalityWeights = cardinalityWeights.clone();
+		return this;
+	}
+
+	/**
+	 * @param acceptDensity
+	 *            the probability that two ports accept each other, in addition to the ports constrained by a require.
+	 * @return this generator.
+	 */
+	public SyntheticModelGenerator setAcceptDensity(double acceptDensity) {
+		this.acceptDensity = acceptDensity;
+		return this;
+	}
+
+	/**
+	 * @param dataWireDensity
+	 *            the probability that a port requiring a port of another type receives the data of this type.
+	 * @return this generator.
+	 */
+	public SyntheticModelGenerator setDataWireDensity(double dataWireDensity) {
+		this.dataWireDensity = dataWireDensity;
+		return this;
+	}
+
+	/**
+	 * @param seed
+	 *            the seed of the random choices.
+	 * @return this generator.
+	 */
+	public SyntheticModelGenerator setSeed(long seed) {
+		this.seed = seed;
+		return this;
+	}
+
+	/**
+	 * Generates a model.
+	 * 
+	 * @return the model.
+	 * @throws BIPEngineException
+	 *             if the parameters are inconsistent.
+	 */
+	public SyntheticModel generate() throws BIPEngineException {
+		checkParameters();
+		Random random = new Random(seed);
+
+		Map<String, StubComponentType> types = new LinkedHashMap<String, StubComponentType>();
+		List<String[]> allPorts = new ArrayList<String[]>();
+		for (int t = 0; t < nbTypes; t++) {
+			StubComponentType type = new StubComponentType("T" + t, "s0");
+			for (int p = 0; p < nbPorts; p++) {
+				type.addTransition("s" + (p % nbStates), "p" + p, "s" + ((p + 1) % nbStates));
+				allPorts.add(new String[] { type.getName(), "p" + p });
+			}
+			types.put(type.getName(), type);
+		}
+
+		StubGlue glue = new StubGlue();
+		Map<String, PortBase> portBases = new LinkedHashMap<String, PortBase>();
+		Map<String, Set<String>> accepted = new LinkedHashMap<String, Set<String>>();
+		for (String[] port : allPorts) {
+			String key = key(port);
+			portBases.put(key, glue.port(port[0], port[1]));
+			accepted.put(key, new LinkedHashSet<String>());
+		}
+
+		Set<String> dataWires = new LinkedHashSet<String>();
+		int nbRequires = 0;
+		for (StubComponentType type : types.values()) {
+			for (int p = 0; p < nbPorts; p++) {
+				String effect = key(type.getName(), "p" + p);
+				List<PortBase> causes = new ArrayList<PortBase>();
+				if (p >= nbStates) {
+					for (String[] cause : pickCauses(random, allPorts, type.getName())) {
+						int cardinality = pickCardinality(random);
+						for (int i = 0; i < cardinality; i++) {
+							causes.add(portBases.get(key(cause)));
+						}
+						acceptEachOther(accepted, effect, key(cause));
+						if (cardinality > 1) {
+							acceptEachOther(accepted, key(cause), key(cause));
+						}
+						if (random.nextDouble() < dataWireDensity) {
+							String dataIn = "from" + cause[0];
+							type.addGuardData("p" + p, dataIn);
+							if (dataWires.add(cause[0] + ">" + type.getName())) {
+								types.get(cause[0]).addProvidedData(DATA_OUT);
+								glue.data(glue.port(cause[0], DATA_OUT), glue.port(type.getName(), dataIn));
+							}
+						}
+					}
+					nbRequires++;
+				}
+				glue.require(portBases.get(effect), Collections.singletonList(causes));
+			}
+		}
+
+		for (int i = 0; i < allPorts.size(); i++) {
+			for (int j = i; j < allPorts.size(); j++) {
+				if (random.nextDouble() < acceptDensity) {
+					acceptEachOther(accepted, key(allPorts.get(i)), key(allPorts.get(j)));
+				}
+			}
+		}
+		int nbAccepted = 0;
+		for (Map.Entry<String, Set<String>> entry : accepted.entrySet()) {
+			List<PortBase> causes = new ArrayList<PortBase>();
+			for (String cause : entry.getValue()) {
+				causes.add(portBases.get(cause));
+			}
+			glue.accept(portBases.get(entry.getKey()), causes);
+			nbAccepted += causes.size();
+		}
+
+		return new SyntheticModel(describe(), new ArrayList<StubComponentType>(types.values()), nbInstances,
+				glue.build(), nbRequires, nbAccepted, dataWires.size());
+	}
+
+	private void checkParameters() throws BIPEngineException {
+		if (nbTypes < 1 || nbInstances < 1 || nbStates < 1 || nbPorts < nbStates) {
+			logger.error("A synthetic model needs at least one type, one instance per type, one state"
+					+ " and as many ports as states.");
+			throw new BIPEngineException("A synthetic model needs at least one type, one instance per type, one state"
+					+ " and as many ports as states.");
+		}
+		int nbCandidateCauses = nbTypes == 1 ? nbPorts : (nbTypes - 1) * nbPorts;
+		if (nbPorts > nbStates && (requireFanIn < 1 || requireFanIn > nbCandidateCauses)) {
+			logger.error("The require fan-in {} is not between 1 and the {} ports of the other types.", requireFanIn,
+					nbCandidateCauses);
+			throw new BIPEngineException("The require fan-in " + requireFanIn
+					+ " is not between 1 and the " + nbCandidateCauses + " ports of the other types.");
+		}
+		if (cardinalityWeights.length == 0) {
+			logger.error("The cardinality distribution of the requires is empty.");
+			throw new BIPEngineException("The cardinality distribution of the requires is empty.");
+		}
+	}
+
+	/**
+	 * Picks the distinct ports required by a port, among the ports of the other types, or of its own type if it is the
+	 * only one.
+	 */
+	private List<String[]> pickCauses(Random random, List<String[]> allPorts, String effectType) {
+		List<String[]> candidates = new ArrayList<String[]>();
+		for (String[] port : allPorts) {
+			if (nbTypes == 1 || !port[0].equals(effectType)) {
+				candidates.add(port);
+			}
+		}
+		Collections.shuffle(candidates, random);
+		return candidates.subList(0, requireFanIn);
+	}
+
+	private int pickCardinality(Random random) {
+		double total = 0;
+		for (double weight : cardinalityWeights) {
+			total += weight;
+		}
+		double drawn = random.nextDouble() * total;
+		for (int i = 0; i < cardinalityWeights.length; i++) {
+			drawn -= cardinalityWeights[i];
+			if (drawn < 0) {
+				return i + 1;
+			}
+		}
+		return cardinalityWeights.length;
+	}
+
+	private static void acceptEachOther(Map<String, Set<String>> accepted, String first, String second) {
+		accepted.get(first).add(second);
+		accepted.get(second).add(first);
+	}
+
+	private static String key(String... port) {
+		return port[0] + "." + port[1];
+	}
+
+	private String describe() {
+		StringBuilder cardinalities = new StringBuilder();
+		for (double weight : cardinalityWeights) {
+			cardinalities.append(cardinalities.length() == 0 ? "" : ":").append(weight);
+		}
+		return "types=" + nbTypes + " instances=" + nbInstances + " states=" + nbStates + " ports=" + nbPorts
+				+ " fanIn=" + requireFanIn + " cardinalities=" + cardinalities + " accept=" + acceptDensity
+				+ " data=" + dataWireDensity + " seed=" + seed;
+	}
+
+}
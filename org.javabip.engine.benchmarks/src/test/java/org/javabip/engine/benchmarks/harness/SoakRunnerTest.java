@@ -0,0 +1,56 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine.benchmarks.harness;
+
+import static org.junit.Assert.assertEquals;
+
+import org.javabip.exceptions.BIPEngineException;
+import org.junit.Test;
+
+public class SoakRunnerTest {
+
+	@Test
+	public void flatValuesDoNotGrow() {
+		assertEquals(0, SoakRunner.relativeGrowth(new long[] { 100, 100, 100, 100 }), 1e-9);
+		assertEquals(0, SoakRunner.relativeGrowth(new long[] { 100, 120, 80, 80, 120, 100 }), 1e-9);
+	}
+
+	@Test
+	public void linearValuesGrowFromTheStartOfTheLine() {
+		assertEquals(0.5, SoakRunner.relativeGrowth(new long[] { 100, 110, 120, 130, 140, 150 }), 1e-9);
+		assertEquals(-0.5, SoakRunner.relativeGrowth(new long[] { 200, 150, 100 }), 1e-9);
+	}
+
+	@Test(expected = BIPEngineException.class)
+	public void sampleIntervalMustBePositive() {
+		new SoakRunner(null).setCycles(100, 0);
+	}
+
+	@Test(expected = BIPEngineException.class)
+	public void sampleIntervalMustDivideTheCycles() {
+		new SoakRunner(null).setCycles(100, 30);
+	}
+
+	@Test
+	public void fewValuesDoNotGrow() {
+		assertEquals(0, SoakRunner.relativeGrowth(new long[0]), 0);
+		assertEquals(0, SoakRunner.relativeGrowth(new long[] { 42 }), 0);
+	}
+
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine.benchmarks.harness;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.javabip.api.PortBase;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class StubHarnessTest {
+
+	private static final long TIMEOUT_MILLIS = 60000;
+
+	/**
+	 * A switch synchronises with a lamp. Since each require asks for exactly one port of the other type, a single
+	 * switch and a single lamp execute together in each cycle, while the other components keep their state.
+	 */
+	@Test
+	public void switchesAndLamps() throws InterruptedException {
+		StubComponentType lamp = new StubComponentType("Lamp", "off").addTransition("off", "on", "lit")
+				.addTransition("lit", "off", "off");
+		StubComponentType flip = new StubComponentType("Switch", "down").addTransition("down", "up", "up")
+				.addTransition("up", "down", "down");
+
+		StubGlue glue = new StubGlue();
+		synchronise(glue, glue.port("Switch", "up"), glue.port("Lamp", "on"));
+		synchronise(glue, glue.port("Switch", "down"), glue.port("Lamp", "off"));
+
+		StubHarness harness = new StubHarness(glue.build());
+		harness.addComponents(lamp, 3);
+		harness.addComponents(flip, 3);
+		harness.start();
+		try {
+			harness.runCycles(4, TIMEOUT_MILLIS);
+		} finally {
+			harness.stop();
+		}
+
+		// the engine may have started further cycles before it was stopped
+		long nbCycles = harness.getNbCycles();
+		assertTrue(nbCycles >= 4);
+		// a cycle is counted once its transitions are done, so the components cannot be behind the count
+		long nbTransitions = 0;
+		for (StubComponent component : harness.getComponents()) {
+			nbTransitions += component.getNbTransitions();
+			// each type toggles between two states
+			StubComponentType type = component.getComponentType();
+			String initialState = type.getInitialState();
+			String expectedState = component.getNbTransitions() % 2 == 0 ? initialState : type.getTarget(
+					initialState, type.getEnabledPorts(initialState).iterator().next());
+			assertEquals(expectedState, component.getCurrentState());
+		}
+		assertTrue(nbTransitions >= 2 * nbCycles);
+	}
+
+	private static void synchronise(StubGlue glue, PortBase first, PortBase second) {
+		glue.require(first, Collections.singletonList(Collections.singletonList(second)));
+		glue.require(second, Collections.singletonList(Collections.singletonList(first)));
+		List<PortBase> both = Arrays.asList(first, second);
+		glue.accept(first, both);
+		glue.accept(second, both);
+	}
+
+}
@@ -0,0 +1,386 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine.coordinator;
+
+import net.sf.javabdd.BDD;
+import net.sf.javabdd.BDDFactory;
+import org.javabip.api.*;
+import org.javabip.engine.api.BehaviourEncoder;
+import org.javabip.engine.api.FiniteDataDomain;
+import org.javabip.engine.api.SymbolicGuard;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.Map.Entry;
+
+/**
+ * Stores the total constraints BDD computed at the initialization phase in a local file, so that an engine restarted
+ * with the same glue and the same components can skip the computation of the behaviour, glue and data BDDs and the
+ * subsequent re-ordering.
+ *
+ * The file is valid for a given key, which is a hash of the glue, of the component types, of the number of instances
+ * per type and of the symbolic guards over finite data domains, and for a given variable layout, which is a hash of the
+ * positions of the state, port and d-variables in the BDD manager. If any of the two does not match, the cache is
+ * ignored and the engine compiles the constraints as usual.
+ */
+public class CompiledGlueCache {
+
+	private static final String HEADER = "javabip-compiled-glue 1";
+
+	private Logger logger = LoggerFactory.getLogger(CompiledGlueCache.class);
+
+	/** The file holding the compiled constraints. */
+	private File cacheFile;
+
+	/**
+	 * Instantiates a new compiled glue cache.
+	 *
+	 * @param cacheFile
+	 *            the file where the compiled constraints are stored.
+	 */
+	public CompiledGlueCache(File cacheFile) {
+		this.cacheFile = cacheFile;
+	}
+
+	public File getCacheFile() {
+		return cacheFile;
+	}
+
+	/**
+	 * Computes the cache key from the glue, the component types and the number of instances of each type.
+	 *
+	 * @param glue
+	 *            the BIP glue.
+	 * @param typeInstancesMapping
+	 *            the registered component instances per component type.
+	 * @param componentBehaviourMapping
+	 *            the behaviours of the registered components.
+	 * @return the hexadecimal hash of the above.
+	 */
+	public String computeKey(BIPGlue glue, Map<String, ? extends List<BIPComponent>> typeInstancesMapping,
+			Map<BIPComponent, Behaviour> componentBehaviourMapping) {
+		return computeKey(glue, typeInstancesMapping, componentBehaviourMapping,
+				Collections.<FiniteDataDomain> emptyList(), Collections.<SymbolicGuard> emptyList());
+	}
+
+	/**
+	 * Computes the cache key from the glue, the component types, the number of instances of each type, the finite data
+	 * domains and the symbolic guards. A symbolic guard is represented by its results over the domains of the data it
+	 * receives, since these results are what the permanent constraints encode.
+	 *
+	 * @param glue
+	 *            the BIP glue.
+	 * @param typeInstancesMapping
+	 *            the registered component instances per component type.
+	 * @param componentBehaviourMapping
+	 *            the behaviours of the registered components.
+	 * @param domains
+	 *            the finite domains of the provided data encoded in the permanent constraints.
+	 * @param guards
+	 *            the symbolic guards encoded in the permanent constraints.
+	 * @return the hexadecimal hash of the above.
+	 */
+	public String computeKey(BIPGlue glue, Map<String, ? extends List<BIPComponent>> typeInstancesMapping,
+			Map<BIPComponent, Behaviour> componentBehaviourMapping, List<FiniteDataDomain> domains,
+			List<SymbolicGuard> guards) {
+		StringBuilder key = new StringBuilder();
+
+		if (glue != null) {
+			for (Require require : glue.getRequiresConstraints()) {
+				key.append("require ").append(portKey(require.getEffect()));
+				for (List<PortBase> causes : require.getCauses()) {
+					key.append(" |");
+					for (PortBase cause : causes) {
+						key.append(' ').append(portKey(cause));
+					}
+				}
+				key.append('\n');
+			}
+			for (Accept accept : glue.getAcceptConstraints()) {
+				key.append("accept ").append(portKey(accept.getEffect()));
+				for (PortBase cause : accept.getCauses()) {
+					key.append(' ').append(portKey(cause));
+				}
+				key.append('\n');
+			}
+			for (DataWire wire : glue.getDataWires()) {
+				key.append("wire ").append(portKey(wire.getFrom())).append(' ').append(portKey(wire.getTo()))
+						.append('\n');
+			}
+		}
+
+		/*
+		 * The behaviour of one instance represents the whole type.
+		 */
+		for (String type : new TreeSet<String>(typeInstancesMapping.keySet())) {
+			List<BIPComponent> instances = typeInstancesMapping.get(type);
+			Behaviour behaviour = componentBehaviourMapping.get(instances.get(0));
+			key.append("type ").append(type).append(" instances ").append(instances.size()).append('\n');
+			for (String state : new TreeSet<String>(behaviour.getStates())) {
+				key.append(" state ").append(state).append(" ->");
+				TreeSet<String> statePorts = new TreeSet<String>();
+				for (Port port : behaviour.getStateToPorts().get(state)) {
+					statePorts.add(port.getId());
+				}
+				for (String port : statePorts) {
+					key.append(' ').append(port);
+				}
+				key.append('\n');
+			}
+			for (Port port : behaviour.getEnforceablePorts()) {
+				key.append(" port ").append(port.getId()).append('\n');
+			}
+		}
+
+		appendSymbolicData(key, glue, domains, guards);
+		return digest(key.toString());
+	}
+
+	/**
+	 * Appends the finite data domains and the results of the symbolic guards over them to the key, in an order that
+	 * does not depend on the order of their declaration.
+	 */
+	private static void appendSymbolicData(StringBuilder key, BIPGlue glue, List<FiniteDataDomain> domains,
+			List<SymbolicGuard> guards) {
+		Map<String, FiniteDataDomain> domainsByData = new TreeMap<String, FiniteDataDomain>();
+		for (FiniteDataDomain domain : domains) {
+			domainsByData.put(domain.getComponentType() + "." + domain.getDataName(), domain);
+		}
+		for (Entry<String, FiniteDataDomain> domain : domainsByData.entrySet()) {
+			key.append("domain ").append(domain.getKey()).append(' ').append(domain.getValue().getType().getName())
+					.append(' ').append(domain.getValue().getValues()).append('\n');
+		}
+
+		List<String> guardKeys = new ArrayList<String>();
+		for (SymbolicGuard guard : guards) {
+			StringBuilder guardKey = new StringBuilder("guard ").append(guard.getComponentType()).append('.')
+					.append(guard.getPortId()).append(' ').append(guard.getDataName());
+			if (glue != null) {
+				for (DataWire wire : glue.getDataWires()) {
+					FiniteDataDomain domain = domainsByData.get(wire.getFrom().getSpecType() + "."
+							+ wire.getFrom().getId());
+					if (domain == null || !wire.getTo().getSpecType().equals(guard.getComponentType())
+							|| !wire.getTo().getId().equals(guard.getDataName())) {
+						continue;
+					}
+					guardKey.append(" | ").append(portKey(wire.getFrom()));
+					for (int code = 0; code < domain.getValues().size(); code++) {
+						guardKey.append(guard.isEnabled(domain.getValues().get(code)) ? " 1" : " 0");
+					}
+				}
+			}
+			guardKeys.add(guardKey.toString());
+		}
+		Collections.sort(guardKeys);
+		for (String guardKey : guardKeys) {
+			key.append(guardKey).append('\n');
+		}
+	}
+
+	/**
+	 * Computes the hash of the variable layout, i.e. which BDD variable corresponds to which state, port and
+	 * d-variable. A cached BDD can only be used if the variables of the current run are at the same positions.
+	 *
+	 * @param registeredComponents
+	 *            the registered components in the order of registration.
+	 * @param behaviourEncoder
+	 *            the behaviour encoder holding the state and port BDDs.
+	 * @param dVarPositionsToWires
+	 *            the d-variable positions, or null if there is no data transfer.
+	 * @return the hexadecimal hash of the layout.
+	 */
+	public String computeLayout(List<BIPComponent> registeredComponents, BehaviourEncoder behaviourEncoder,
+			Map<Integer, Entry<Port, Port>> dVarPositionsToWires) {
+		StringBuilder layout = new StringBuilder();
+		for (BIPComponent component : registeredComponents) {
+			layout.append("component ").append(component.getId()).append(' ').append(component.getType()).append('\n');
+			for (Entry<String, BDD> state : new TreeMap<String, BDD>(
+					behaviourEncoder.getStateToBDDOfAComponent(component)).entrySet()) {
+				layout.append(" state ").append(state.getKey()).append(' ').append(state.getValue().var()).append('\n');
+			}
+			for (Entry<String, BDD> port : new TreeMap<String, BDD>(
+					behaviourEncoder.getPortToBDDOfAComponent(component)).entrySet()) {
+				layout.append(" port ").append(port.getKey()).append(' ').append(port.getValue().var()).append('\n');
+			}
+		}
+		if (dVarPositionsToWires != null) {
+			for (Entry<Integer, Entry<Port, Port>> dVar : new TreeMap<Integer, Entry<Port, Port>>(dVarPositionsToWires)
+					.entrySet()) {
+				Port inPort = dVar.getValue().getKey();
+				Port outPort = dVar.getValue().getValue();
+				layout.append("d ").append(dVar.getKey()).append(' ').append(inPort.component().getId()).append('.')
+						.append(inPort.getId()).append(' ').append(outPort.component().getId()).append('.')
+						.append(outPort.getId()).append('\n');
+			}
+		}
+		return digest(layout.toString());
+	}
+
+	/**
+	 * Loads the total constraints BDD if the cache file exists and was written for the same key and layout. The
+	 * variable order stored with the BDD is restored in the BDD manager before the BDD itself is loaded.
+	 *
+	 * @param manager
+	 *            the BDD manager.
+	 * @param key
+	 *            the expected key.
+	 * @param layout
+	 *            the expected variable layout.
+	 * @return the cached total constraints BDD, or null if the cache is missing, stale or corrupt.
+	 */
+	public BDD load(BDDFactory manager, String key, String layout) {
+		if (!cacheFile.isFile()) {
+			logger.info("No compiled glue found at {}.", cacheFile);
+			return null;
+		}
+		BufferedReader reader = null;
+		try {
+			reader = new BufferedReader(new InputStreamReader(new FileInputStream(cacheFile), StandardCharsets.UTF_8));
+			if (!HEADER.equals(reader.readLine())) {
+				logger.warn("File {} is not a compiled glue cache. Ignoring it.", cacheFile);
+				return null;
+			}
+			if (!key.equals(readField(reader, "key"))) {
+				logger.info("Compiled glue at {} was built for a different system. Recompiling.", cacheFile);
+				return null;
+			}
+			if (!layout.equals(readField(reader, "layout"))) {
+				logger.info("Compiled glue at {} was built for a different variable layout. Recompiling.", cacheFile);
+				return null;
+			}
+			int varNum = Integer.parseInt(readField(reader, "varnum"));
+			if (varNum != manager.varNum()) {
+				logger.info("Compiled glue at {} has {} variables instead of {}. Recompiling.", cacheFile, varNum,
+						manager.varNum());
+				return null;
+			}
+			String[] order = readField(reader, "order").split(" ");
+			int[] varOrder = new int[varNum];
+			for (int i = 0; i < varNum; i++) {
+				varOrder[i] = Integer.parseInt(order[i]);
+			}
+			manager.setVarOrder(varOrder);
+			BDD totalConstraints = manager.load(reader);
+			logger.info("Compiled glue loaded from {}.", cacheFile);
+			return totalConstraints;
+		} catch (IOException e) {
+			logger.warn("Compiled glue at {} could not be read: {}. Recompiling.", cacheFile, e.getMessage());
+		} catch (RuntimeException e) {
+			logger.warn("Compiled glue at {} is corrupt: {}. Recompiling.", cacheFile, e.toString());
+		} finally {
+			closeQuietly(reader);
+		}
+		return null;
+	}
+
+	/**
+	 * Stores the total constraints BDD together with the current variable order. The file is first written next to the
+	 * cache file and then moved in place, so that a crash never leaves a truncated cache behind.
+	 *
+	 * @param manager
+	 *            the BDD manager.
+	 * @param key
+	 *            the key of the system.
+	 * @param layout
+	 *            the variable layout of the system.
+	 * @param totalConstraints
+	 *            the total constraints BDD.
+	 */
+	public void save(BDDFactory manager, String key, String layout, BDD totalConstraints) {
+		File parent = cacheFile.getAbsoluteFile().getParentFile();
+		File tmpFile = new File(parent, cacheFile.getName() + ".tmp");
+		BufferedWriter writer = null;
+		try {
+			if (!parent.isDirectory() && !parent.mkdirs()) {
+				throw new IOException("cannot create directory " + parent);
+			}
+			writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(tmpFile), StandardCharsets.UTF_8));
+			writer.write(HEADER);
+			writer.newLine();
+			writer.write("key " + key);
+			writer.newLine();
+			writer.write("layout " + layout);
+			writer.newLine();
+			writer.write("varnum " + manager.varNum());
+			writer.newLine();
+			StringBuilder order = new StringBuilder();
+			for (int var : manager.getVarOrder()) {
+				if (order.length() > 0) {
+					order.append(' ');
+				}
+				order.append(var);
+			}
+			writer.write("order " + order);
+			writer.newLine();
+			manager.save(writer, totalConstraints);
+			writer.close();
+			writer = null;
+			Files.move(tmpFile.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			logger.info("Compiled glue stored at {}.", cacheFile);
+		} catch (IOException e) {
+			logger.warn("Compiled glue could not be stored at {}: {}", cacheFile, e.getMessage());
+			tmpFile.delete();
+		} finally {
+			closeQuietly(writer);
+		}
+	}
+
+	private String readField(BufferedReader reader, String name) throws IOException {
+		String line = reader.readLine();
+		if (line == null || !line.startsWith(name + " ")) {
+			throw new IOException("missing field " + name);
+		}
+		return line.substring(name.length() + 1);
+	}
+
+	private static String portKey(PortBase port) {
+		return port.getSpecType() + "." + port.getId();
+	}
+
+	private static String digest(String text) {
+		try {
+			MessageDigest sha = MessageDigest.getInstance("SHA-256");
+			StringBuilder hex = new StringBuilder();
+			for (byte b : sha.digest(text.getBytes(StandardCharsets.UTF_8))) {
+				hex.append(String.format("%02x", b));
+			}
+			return hex.toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+	}
+
+	private static void closeQuietly(Closeable closeable) {
+		if (closeable != null) {
+			try {
+				closeable.close();
+			} catch (IOException e) {
+				// nothing to do
+			}
+		}
+	}
+
+}
@@ -18,7 +18,6 @@
  */
 package org.javabip.engine.coordinator;
 
-import com.google.gson.Gson;
 import net.sf.javabdd.BDD;
 import net.sf.javabdd.BDDFactory;
 import org.javabip.api.*;
@@ -30,6 +29,10 @@ import org.slf4j.LoggerFactory;
 
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * DataCoordinatorKernel implements the DataCoordinator interface. It takes care of data exchange, and the rest of the
@@ -92,6 +95,9 @@ public class DataCoordinatorKernel implements BIPEngine, InteractionExecutor, Da
 	/** The component data wires. */
 	private Map<String, Map<String, Set<DataWire>>> componentDataWires;
 
+	/** The data wires by required data and providing port, computed from componentDataWires. */
+	private DataWireRoutingTable dataWireRoutingTable = new DataWireRoutingTable();
+
 	/** The interaction executor. */
 	private InteractionExecutor interactionExecutor;
 
@@ -106,6 +112,68 @@ public class DataCoordinatorKernel implements BIPEngine, InteractionExecutor, Da
 	 */
 	private boolean isEngineExecuting = false;
 
+	/** The data values obtained from the providing components in the current execution cycle. */
+	private DataValueCache dataValueCache = new DataValueCache();
+
+	/** The maximal number of data valuations sent to checkEnabledness at once. */
+	private int dataValuationBatchSize = 256;
+
+	/** Copies the data values transferred to executing components, or null if the values are shared. */
+	private DataValueCopier dataValueCopier = new ReflectiveDataValueCopier();
+
+	/**
+	 * The temporary constraints of the last cycle per deciding port, or null if they are computed anew at each cycle.
+	 */
+	private TemporaryConstraintCache temporaryConstraintCache;
+
+	/** The last state each component has informed about. */
+	private Map<BIPComponent, String> lastInformedStates = new HashMap<BIPComponent, String>();
+
+	/** The finite domains of provided data, by the type of the providing components. */
+	private Map<String, List<FiniteDataDomain>> finiteDataDomains = new HashMap<String, List<FiniteDataDomain>>();
+
+	/** The symbolic guards, as specified. */
+	private List<SymbolicGuard> symbolicGuards = new ArrayList<SymbolicGuard>();
+
+	/** The keys of the data of the ports whose guards over them are encoded symbolically, see symbolicGuardKey. */
+	private Set<String> symbolicGuardKeys = new HashSet<String>();
+
+	/** The results of the guards evaluated so far, or null if guard results are not cached. */
+	private GuardResultCache guardResultCache;
+
+	/** Optional recorder of the disabled combinations and of the data providing ports. */
+	private TraceRecorder traceRecorder;
+
+	/**
+	 * The threads deciding the ports of informing components concurrently, or null if every component is handled by
+	 * the thread calling inform.
+	 */
+	private ExecutorService guardEvaluationPool;
+
+	/**
+	 * The outcome of the guard evaluation of an undecided port: either the disabled combinations, or a reference to a
+	 * still valid constraint in the temporary constraint cache.
+	 */
+	private static class PortDecision {
+		final Port port;
+		/** The disabled combinations, or null if the cached constraint is still valid. */
+		final Map<BIPComponent, Set<Port>> disabledCombinations;
+		/** The cache the constraint is stored in, or null if it is not cached. */
+		final TemporaryConstraintCache cache;
+		final long computedAt;
+		/** The data values the disabled combinations are computed from, by providing component. */
+		final Map<BIPComponent, List<Object>> providedValues;
+
+		PortDecision(Port port, Map<BIPComponent, Set<Port>> disabledCombinations, TemporaryConstraintCache cache,
+				long computedAt, Map<BIPComponent, List<Object>> providedValues) {
+			this.port = port;
+			this.disabledCombinations = disabledCombinations;
+			this.cache = cache;
+			this.computedAt = computedAt;
+			this.providedValues = providedValues;
+		}
+	}
+
 	/**
 	 * Instantiates a new data coordinator implementation.
 	 * 
@@ -142,6 +210,7 @@ public class DataCoordinatorKernel implements BIPEngine, InteractionExecutor, Da
 	public void stop() {
 		isEngineExecuting = false;
 		glueCoordinator.stop();
+		setGuardEvaluationThreads(0);
 
 	}
 
@@ -174,7 +243,10 @@ public class DataCoordinatorKernel implements BIPEngine, InteractionExecutor, Da
 			 * 
 			 * specifyDataGlue checks the validity of wires and throws an exception if necessary.
 			 */
+			GlueCompilationEvent stageEvent = new GlueCompilationEvent("dataGlue");
+			stageEvent.begin();
 			Set<BDD> dataConstraints = dataEncoder.specifyDataGlue(dataWires);
+			stageEvent.commit();
 			// logger.debug("Data constraints from the encoder not null: " + (dataConstraints != null));
 			glueCoordinator.specifyPermanentConstraints(dataConstraints);
 		} catch (BIPEngineException e) {
@@ -225,6 +297,14 @@ public class DataCoordinatorKernel implements BIPEngine, InteractionExecutor, Da
 
 			componentDataWires.put(componentType, dataWire);
 		}
+		computeDataWireRoutes();
+		if (traceRecorder != null) {
+			recordDataOut(traceRecorder);
+		}
+		GlueCompilationEvent stageEvent = new GlueCompilationEvent("symbolicGuards");
+		stageEvent.begin();
+		specifySymbolicGuards();
+		stageEvent.commit();
 		registrationFinished = true;
 		int nbComponent = informedComponents.size();
 		for (int i = 0; i < nbComponent; i++) {
@@ -255,38 +335,7 @@ public class DataCoordinatorKernel implements BIPEngine, InteractionExecutor, Da
 			}
 			// actor = glueCoordinator.register(object, id, useSpec, doRuntimeVerification, useVerCorsReport);
 
-			BIPComponent component = glueCoordinator.getComponentFromObject(object);
-			Behaviour behaviour = glueCoordinator.getBehaviourByComponent(component);
-
-			if (behaviour == null) {
-				throw new BIPEngineException("Registering a component with null behaviour.");
-			}
-			assert (component != null && behaviour != null);
-
-			if (registeredComponents.contains(component)) {
-				logger.error("Component " + component + " has already registered before.");
-				throw new BIPEngineException("Component " + component + " has already registered before.");
-			} else {
-				registeredComponents.add(component);
-				componentBehaviourMapping.put(component, behaviour);
-				nbPorts += behaviour.getEnforceablePorts().size();
-				nbStates += behaviour.getStates().size();
-
-			}
-			ArrayList<BIPComponent> componentInstances = new ArrayList<BIPComponent>();
-
-			/*
-			 * If this component type already exists in the hashtable, update the ArrayList of BIPComponents that
-			 * corresponds to this component type.
-			 */
-			if (typeInstancesMapping.containsKey(component.getType())) {
-				componentInstances.addAll(typeInstancesMapping.get(component.getType()));
-			}
-
-			componentInstances.add(component);
-			// SB: Not sure this is necessary, but should not harm
-			typeInstancesMapping.remove(component.getType());
-			typeInstancesMapping.put(component.getType(), componentInstances);
+			register(glueCoordinator.getComponentFromObject(object));
 		} catch (BIPEngineException e) {
 			// e.printStackTrace();
 		} catch (Exception e) {
@@ -296,12 +345,57 @@ public class DataCoordinatorKernel implements BIPEngine, InteractionExecutor, Da
 		return actor;
 	}
 
+	/**
+	 * Registers for data transfer a component that has already been registered with the glue coordinator, for instance
+	 * a component registered directly, without an actor.
+	 * 
+	 * @param component
+	 *            the component registered with the glue coordinator.
+	 * @throws BIPEngineException
+	 *             when the component has no behaviour or has already registered.
+	 */
+	public synchronized void register(BIPComponent component) throws BIPEngineException {
+		Behaviour behaviour = component == null ? null : glueCoordinator.getBehaviourByComponent(component);
+
+		if (behaviour == null) {
+			logger.error("Registering a component with null behaviour.");
+			throw new BIPEngineException("Registering a component with null behaviour.");
+		}
+		assert (component != null && behaviour != null);
+
+		if (registeredComponents.contains(component)) {
+			logger.error("Component " + component + " has already registered before.");
+			throw new BIPEngineException("Component " + component + " has already registered before.");
+		} else {
+			registeredComponents.add(component);
+			componentBehaviourMapping.put(component, behaviour);
+			nbPorts += behaviour.getEnforceablePorts().size();
+			nbStates += behaviour.getStates().size();
+
+		}
+		ArrayList<BIPComponent> componentInstances = new ArrayList<BIPComponent>();
+
+		/*
+		 * If this component type already exists in the hashtable, update the ArrayList of BIPComponents that
+		 * corresponds to this component type.
+		 */
+		if (typeInstancesMapping.containsKey(component.getType())) {
+			componentInstances.addAll(typeInstancesMapping.get(component.getType()));
+		}
+
+		componentInstances.add(component);
+		// SB: Not sure this is necessary, but should not harm
+		typeInstancesMapping.remove(component.getType());
+		typeInstancesMapping.put(component.getType(), componentInstances);
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
 	 * @see org.bip.api.BIPEngine#inform(org.bip.api.BIPComponent, java.lang.String, java.util.Set)
 	 */
-	public synchronized void inform(BIPComponent component, String currentState, Set<Port> disabledPorts) {
+	public synchronized void inform(final BIPComponent component, final String currentState,
+			final Set<Port> disabledPorts) {
 		// long time1 = System.currentTimeMillis();
 
 		/*
@@ -315,11 +409,53 @@ public class DataCoordinatorKernel implements BIPEngine, InteractionExecutor, Da
 			return;
 		}
 
+		/*
+		 * A component may reach a new state by a transition the engine has not been told about.
+		 */
+		String lastState = lastInformedStates.put(component, currentState);
+		if (lastState != null && !lastState.equals(currentState)) {
+			dataChanged(component);
+		}
+
+		/*
+		 * The component informs after its own transition, so any value it provided before, for instance to a component
+		 * that informed earlier in this cycle, may be stale.
+		 */
+		dataValueCache.invalidate(component);
+
+		/*
+		 * The data of the component is gathered and its guards are evaluated by the pool, while other components may
+		 * inform. Only the encoding of the decisions and the notification of the BIPCoordinator hold the monitor.
+		 */
+		ExecutorService pool = this.guardEvaluationPool;
+		if (pool != null) {
+			pool.execute(new Runnable() {
+				public void run() {
+					List<PortDecision> decisions = null;
+					try {
+						decisions = decidePorts(component, currentState, disabledPorts);
+					} catch (BIPEngineException e) {
+						// e.printStackTrace();
+					} catch (RuntimeException e) {
+						/*
+						 * The component informs without decisions, as it would if its guards disabled nothing, so that
+						 * the engine does not wait for it forever.
+						 */
+						logger.error("Guard evaluation of component " + component.getId() + " in state "
+								+ currentState + " failed.", e);
+					}
+					finishInform(component, currentState, disabledPorts, decisions);
+				}
+			});
+			return;
+		}
+
 		try {
 			doInformSpecific(component, currentState, disabledPorts);
 		} catch (BIPEngineException e) {
 			// e.printStackTrace();
 		}
+		sendDataValues(component);
 		/*
 		 * Inform the BIPCoordinator only after all the informSpecifics for the particular component have finished
 		 */
@@ -328,6 +464,108 @@ public class DataCoordinatorKernel implements BIPEngine, InteractionExecutor, Da
 		// System.out.println((System.currentTimeMillis() - time1));
 	}
 
+	private synchronized void finishInform(BIPComponent component, String currentState, Set<Port> disabledPorts,
+			List<PortDecision> decisions) {
+		if (decisions != null) {
+			try {
+				sendPortDecisions(component, currentState, decisions);
+			} catch (BIPEngineException e) {
+				// e.printStackTrace();
+			}
+		}
+		sendDataValues(component);
+		glueCoordinator.inform(component, currentState, disabledPorts);
+	}
+
+	/**
+	 * Sends the current values of the data of a component that have a finite domain, so that the engine can resolve
+	 * the symbolic guards over them.
+	 */
+	private synchronized void sendDataValues(BIPComponent component) {
+		List<FiniteDataDomain> domains = finiteDataDomains.get(componentBehaviourMapping.get(component)
+				.getComponentType());
+		if (domains == null) {
+			return;
+		}
+		for (FiniteDataDomain domain : domains) {
+			Object value = dataValueCache.getData(component, domain.getDataName(), domain.getType());
+			BDD valueCube = dataEncoder.encodeDataValue(component, domain.getDataName(), value);
+			if (valueCube != null) {
+				glueCoordinator.specifyTemporaryConstraints(valueCube);
+			}
+		}
+	}
+
+	/**
+	 * Passes the symbolic guards to the data encoder. A guard is only used if all the wires of its data come from data
+	 * with a finite domain.
+	 */
+	private void specifySymbolicGuards() {
+		if (symbolicGuards.isEmpty()) {
+			return;
+		}
+		List<FiniteDataDomain> domains = new ArrayList<FiniteDataDomain>();
+		Set<String> domainKeys = new HashSet<String>();
+		for (List<FiniteDataDomain> typeDomains : finiteDataDomains.values()) {
+			for (FiniteDataDomain domain : typeDomains) {
+				domains.add(domain);
+				domainKeys.add(domain.getComponentType() + "." + domain.getDataName());
+			}
+		}
+
+		List<SymbolicGuard> usableGuards = new ArrayList<SymbolicGuard>();
+		for (SymbolicGuard guard : symbolicGuards) {
+			Map<String, Set<DataWire>> typeDataWires = componentDataWires.get(guard.getComponentType());
+			Set<DataWire> wires = typeDataWires == null ? null : typeDataWires.get(guard.getDataName());
+			boolean isUsable = wires != null && !wires.isEmpty();
+			if (isUsable) {
+				for (DataWire wire : wires) {
+					isUsable &= domainKeys.contains(wire.getFrom().getSpecType() + "." + wire.getFrom().getId());
+				}
+			}
+			if (isUsable) {
+				usableGuards.add(guard);
+				symbolicGuardKeys.add(symbolicGuardKey(guard.getComponentType(), guard.getPortId(),
+						guard.getDataName()));
+			} else {
+				logger.warn("Symbolic guard {} is ignored, since not all the data it receives has a finite domain.",
+						guard);
+			}
+		}
+		try {
+			glueCoordinator.specifyPermanentConstraints(dataEncoder.specifySymbolicData(dataWires, domains,
+					usableGuards));
+		} catch (RuntimeException e) {
+			/*
+			 * The guards are then evaluated by the components, and no data value is encoded at each cycle.
+			 */
+			logger.error("The symbolic guards and finite data domains cannot be encoded and are ignored.", e);
+			symbolicGuardKeys.clear();
+			symbolicGuards.clear();
+			finiteDataDomains.clear();
+		}
+	}
+
+	private static String symbolicGuardKey(String componentType, String portId, String dataName) {
+		return componentType + "." + portId + "." + dataName;
+	}
+
+	/**
+	 * Returns true if every data the guards of a port depend on has a symbolic guard, so that the engine decides the
+	 * port without asking the component.
+	 */
+	private boolean isDecidedSymbolically(String componentType, Port port, Set<Data<?>> dataIn) {
+		if (symbolicGuardKeys.isEmpty()) {
+			return false;
+		}
+		for (Data<?> data : dataIn) {
+			if (!symbolicGuardKeys.contains(symbolicGuardKey(componentType, port.getId(), data.name()))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	/**
 	 * Send each disabled combination of each deciding Component directly to the Data Encoder.
 	 * 
@@ -347,6 +585,24 @@ public class DataCoordinatorKernel implements BIPEngine, InteractionExecutor, Da
 	 */
 	public synchronized void informSpecific(BIPComponent decidingComponent, Port decidingPort,
 			Map<BIPComponent, Set<Port>> disabledCombinations) throws BIPEngineException {
+		if (traceRecorder != null) {
+			traceRecorder.recordInformSpecific(decidingComponent, decidingPort, disabledCombinations);
+		}
+		BDD constraint = encodeDisabledCombinations(decidingComponent, decidingPort, disabledCombinations);
+		if (constraint != null) {
+			glueCoordinator.specifyTemporaryConstraints(constraint);
+		}
+	}
+
+	/**
+	 * Checks the disabled combinations of a deciding port and encodes them into a BDD.
+	 * 
+	 * @return the BDD of the disabled combinations, or null if there are none.
+	 * @throws BIPEngineException
+	 *             if the arguments are not valid, see informSpecific.
+	 */
+	private BDD encodeDisabledCombinations(BIPComponent decidingComponent, Port decidingPort,
+			Map<BIPComponent, Set<Port>> disabledCombinations) throws BIPEngineException {
 		if (disabledCombinations == null || disabledCombinations.isEmpty()) {
 			logger.debug("No disabled combinations specified in informSpecific for deciding component."
 					+ decidingComponent.getId() + " for deciding port " + decidingPort.getId()
@@ -355,7 +611,7 @@ public class DataCoordinatorKernel implements BIPEngine, InteractionExecutor, Da
 			 * This is not a bad situation, since that only means that all combinations are acceptable. Hence nothing to
 			 * do.
 			 */
-			return;
+			return null;
 		}
 		assert (disabledCombinations != null && !disabledCombinations.isEmpty());
 
@@ -416,9 +672,14 @@ public class DataCoordinatorKernel implements BIPEngine, InteractionExecutor, Da
 		 * Send each disabled combination of each deciding Component directly to the Data Encoder.
 		 */
 
-		glueCoordinator.specifyTemporaryConstraints(dataEncoder.encodeDisabledCombinations(decidingComponent,
-				decidingPort, disabledCombinations));
+		return dataEncoder.encodeDisabledCombinations(decidingComponent, decidingPort, disabledCombinations);
+	}
 
+	private void dataChanged(BIPComponent component) {
+		TemporaryConstraintCache cache = this.temporaryConstraintCache;
+		if (cache != null) {
+			cache.dataChanged(component);
+		}
 	}
 
 	/**
@@ -474,14 +735,89 @@ public class DataCoordinatorKernel implements BIPEngine, InteractionExecutor, Da
 		 * chosen components in order to differentiate them from the non chosen ones. Through this function all the
 		 * components need to be notified. Either by sending null to them or the port to be fired.
 		 */
+		/*
+		 * Every registered component is notified, either with the port to execute or with null, and may change its data
+		 * afterwards. The data of the next cycle must be fetched again.
+		 */
+		for (BIPComponent component : registeredComponents) {
+			dataValueCache.invalidate(component);
+		}
+		if (portGroupsToExecute != null) {
+			for (List<Port> portGroup : portGroupsToExecute) {
+				for (Port port : portGroup) {
+					dataChanged(port.component());
+				}
+			}
+		}
 		if (isEngineExecuting)
 			glueCoordinator.executeInteractions(portGroupsToExecute);
 	}
 
 	/**
-	 * For each port which is neither enabled, nor disabled, for each data that the port needs, the method gets the data
-	 * from other components (based on data-wires), calls the checkEnabledness method of Executor and finally calls
-	 * informSpecific method with the port combinations which are disabled based on data.
+	 * Evaluates the guards of a port for a batch of data valuations. If guard results are cached, only the valuations
+	 * that are not in the cache are sent to the component, and the component is not called at all if every valuation
+	 * is.
+	 * 
+	 * @param component
+	 *            the deciding component
+	 * @param currentState
+	 *            the current state of the component
+	 * @param port
+	 *            the port whose guards are evaluated
+	 * @param dataTable
+	 *            the data valuations
+	 * @return for each data valuation, whether the port is enabled
+	 */
+	private List<Boolean> checkEnabledness(BIPComponent component, String currentState, Port port,
+			List<Map<String, Object>> dataTable) {
+		GuardResultCache cache = this.guardResultCache;
+		if (cache == null) {
+			return evaluateGuards(component, port, dataTable);
+		}
+
+		List<Boolean> portActive = new ArrayList<Boolean>(dataTable.size());
+		List<Integer> missingRows = new ArrayList<Integer>();
+		List<Map<String, Object>> missingValuations = new ArrayList<Map<String, Object>>();
+		for (Map<String, Object> dataValuation : dataTable) {
+			Boolean cached = cache.get(component, currentState, port, dataValuation);
+			if (cached == null) {
+				missingRows.add(portActive.size());
+				missingValuations.add(dataValuation);
+			}
+			portActive.add(cached);
+		}
+		if (missingValuations.isEmpty()) {
+			return portActive;
+		}
+
+		List<Boolean> evaluated = evaluateGuards(component, port, missingValuations);
+		for (int i = 0; i < missingRows.size(); i++) {
+			portActive.set(missingRows.get(i), evaluated.get(i));
+			cache.put(component, currentState, port, missingValuations.get(i), evaluated.get(i));
+		}
+		return portActive;
+	}
+
+	/**
+	 * Calls checkEnabledness on a component, recording the round trip for the flight recorder.
+	 */
+	private List<Boolean> evaluateGuards(BIPComponent component, Port port, List<Map<String, Object>> dataTable) {
+		DataRoundTripEvent event = new DataRoundTripEvent(DataRoundTripEvent.CHECK_ENABLEDNESS);
+		event.begin();
+		List<Boolean> portActive = component.checkEnabledness(port, dataTable);
+		event.end();
+		if (event.shouldCommit()) {
+			event.setComponent(component.getId());
+			event.setTarget(port.getId());
+			event.setValuations(dataTable.size());
+			event.commit();
+		}
+		return portActive;
+	}
+
+	/**
+	 * For each port which is neither enabled, nor disabled, decides which combinations are disabled based on data and
+	 * sends them to the engine.
 	 * 
 	 * @param component
 	 *            component requiring data
@@ -492,6 +828,61 @@ public class DataCoordinatorKernel implements BIPEngine, InteractionExecutor, Da
 	 * @throws BIPEngineException
 	 */
 	private void doInformSpecific(BIPComponent component, String currentState, Set<Port> disabledPorts) {
+		sendPortDecisions(component, currentState, decidePorts(component, currentState, disabledPorts));
+	}
+
+	/**
+	 * Sends the temporary constraints of the decided ports of a component to the engine. The constraints are encoded
+	 * here, since the BDD manager must not be used concurrently.
+	 * 
+	 * @param component
+	 *            the deciding component
+	 * @param currentState
+	 *            the current state of the component
+	 * @param decisions
+	 *            the decisions of its ports
+	 * @throws BIPEngineException
+	 */
+	private synchronized void sendPortDecisions(BIPComponent component, String currentState,
+			List<PortDecision> decisions) {
+		for (PortDecision decision : decisions) {
+			if (traceRecorder != null) {
+				traceRecorder.recordInformSpecific(component, decision.port, decision.disabledCombinations);
+			}
+			BDD constraint;
+			if (decision.disabledCombinations == null) {
+				constraint = decision.cache.getConstraint(component, decision.port);
+			} else {
+				constraint = encodeDisabledCombinations(component, decision.port, decision.disabledCombinations);
+				// a cache dropped in the meantime has freed its constraints and must not keep new ones
+				if (decision.cache != null && decision.cache == temporaryConstraintCache) {
+					decision.cache.put(component, decision.port, currentState, decision.computedAt, decision.providedValues,
+							constraint == null ? null : constraint.id());
+				}
+			}
+			if (constraint != null) {
+				glueCoordinator.specifyTemporaryConstraints(constraint);
+			}
+		}
+	}
+
+	/**
+	 * For each port which is neither enabled, nor disabled, for each data that the port needs, the method gets the data
+	 * from other components (based on data-wires), calls the checkEnabledness method of Executor and finally returns
+	 * the port combinations which are disabled based on data. It does not use the BDD manager and may run concurrently
+	 * for different components.
+	 * 
+	 * @param component
+	 *            component requiring data
+	 * @param currentState
+	 *            the current state of the component
+	 * @param disabledPorts
+	 *            the set of globally disabled ports of the component
+	 * @return the decisions of the undecided ports that have guards depending on data
+	 * @throws BIPEngineException
+	 */
+	private List<PortDecision> decidePorts(BIPComponent component, String currentState, Set<Port> disabledPorts) {
+		List<PortDecision> decisions = new ArrayList<PortDecision>();
 		// mapping port <-> data it needs for computing guards
 		Behaviour decidingBehaviour = componentBehaviourMapping.get(component);
 		// for each undecided port of each component :
@@ -501,10 +892,19 @@ public class DataCoordinatorKernel implements BIPEngine, InteractionExecutor, Da
 			logger.debug("Port " + port + " of component " + decidingBehaviour.getComponentType()
 					+ " required the following dataIn: " + dataIn);
 			if (dataIn.isEmpty()) {
-				// if the data is empty, then the port is enabled. just send it.
-				this.informSpecific(component, port, new HashMap<BIPComponent, Set<Port>>());
+				// if the data is empty, then the port is enabled. nothing to send.
 				continue;
 			}
+			if (isDecidedSymbolically(decidingBehaviour.getComponentType(), port, dataIn)) {
+				// the guards are part of the permanent constraints
+				continue;
+			}
+
+			TemporaryConstraintCache cache = this.temporaryConstraintCache;
+			long computedAt = cache == null ? 0 : cache.now();
+			// the values obtained from each providing component, to tell whether a cached constraint is still valid
+			Map<BIPComponent, List<Object>> providedValues = cache == null ? null
+					: new HashMap<BIPComponent, List<Object>>();
 
 			// list of data structures build upon receiving the data value
 			ArrayList<DataContainer> dataList = new ArrayList<DataContainer>();
@@ -525,7 +925,7 @@ public class DataCoordinatorKernel implements BIPEngine, InteractionExecutor, Da
 						if (aComponent.equals(component)) {
 							continue;
 						}
-						Object inValue = aComponent.getData(wire.getFrom().getId(), inDataItem.type());
+						Object inValue = dataValueCache.getData(aComponent, wire.getFrom().getId(), inDataItem.type());
 						// get data out variable in order to get the ports
 							if (inValue != null) {
 							assert (componentBehaviourMapping.get(aComponent) != null);
@@ -533,15 +933,11 @@ public class DataCoordinatorKernel implements BIPEngine, InteractionExecutor, Da
 							Set<Port> providingPorts = componentBehaviourMapping.get(aComponent).getDataProvidingPorts(
 									wire.getFrom().getId());
 
-							// if (wire.isCopy()){
-							// 	Gson gson = new Gson();
-							// 	Object inValueCopy = gson.fromJson(gson.toJson(inValue), Object.class);
-							// 	dataList.add(new DataContainer(inDataItem.name(), inValueCopy, aComponent, providingPorts));
-							// 	dataValues.add(inValueCopy);
-							// } else {
-							// 	dataList.add(new DataContainer(inDataItem.name(), inValue, aComponent, providingPorts));
-							// 	dataValues.add(inValue);
-							// }
+							dataList.add(new DataContainer(inDataItem.name(), inValue, aComponent, providingPorts));
+							dataValues.add(inValue);
+							if (providedValues != null) {
+								addProvidedValue(providedValues, aComponent, inValue);
+							}
 						}
 					}
 					logger.debug("Added a data evaluation of data " + inDataItem.name() + " with the values "
@@ -550,41 +946,79 @@ public class DataCoordinatorKernel implements BIPEngine, InteractionExecutor, Da
 				}
 			}
 
-			// a list with sub-lists consisting of different permutations of all required data values
-			ArrayList<ArrayList<DataContainer>> containerList = DataHelper.getDataValueTable(dataList);
-			if (logger.isTraceEnabled()) {
-				logDataValuations(containerList, component);
+			/*
+			 * If the component is in the same state, the data values are the same and none of the components has
+			 * executed since the last computation, the guards would give the same results. The constraint computed then
+			 * is sent again.
+			 */
+			if (cache != null && cache.isUpToDate(component, port, currentState, providedValues)) {
+				logger.trace("Data of port {} of component {} unchanged, resending its constraint.", port, component);
+				decisions.add(new PortDecision(port, null, cache, 0, null));
+				continue;
 			}
-			// a list of maps, each map containing values for all required data
-			ArrayList<Map<String, Object>> dataTable = DataHelper.createDataValueMaps(containerList);
+
 			/*
-			 * NOTE: We need both lists above, as one contains information about component providing the data, and the
-			 * other has only name-value pairs used in checkEnabledness. List of booleans portActive below is mutually
-			 * dependent with containerList, as the order of variables in one must correspond to the order of variables
-			 * in the other.
+			 * The permutations of all required data values are enumerated lazily and sent to checkEnabledness in batches,
+			 * so that the memory used does not depend on the number of permutations.
 			 */
-			List<Boolean> portActive = component.checkEnabledness(port, dataTable);
-			logger.trace("The result of checkEndabledness for component {}: {}.", component, portActive);
+			Iterator<ArrayList<DataContainer>> dataValueRows = DataHelper.dataValueRows(dataList);
 			HashMap<BIPComponent, Set<Port>> disabledCombinations = new HashMap<BIPComponent, Set<Port>>();
-			for (int i = 0; i < portActive.size(); i++) {
-				disabledCombinations.clear();
-				if (!(portActive.get(i))) {
-					ArrayList<DataContainer> dataContainer = containerList.get(i);
-					for (DataContainer dc : dataContainer) {
-						disabledCombinations.put(dc.component(), dc.ports());
+			while (dataValueRows.hasNext()) {
+				// a list with sub-lists consisting of different permutations of the required data values
+				ArrayList<ArrayList<DataContainer>> containerList = DataHelper.nextDataValueBatch(dataValueRows,
+						dataValuationBatchSize);
+				if (logger.isTraceEnabled()) {
+					logDataValuations(containerList, component);
+				}
+				// a list of maps, each map containing values for all required data
+				ArrayList<Map<String, Object>> dataTable = DataHelper.createDataValueMaps(containerList);
+				/*
+				 * NOTE: We need both lists above, as one contains information about component providing the data, and
+				 * the other has only name-value pairs used in checkEnabledness. List of booleans portActive below is
+				 * mutually dependent with containerList, as the order of variables in one must correspond to the order
+				 * of variables in the other.
+				 */
+				List<Boolean> portActive = checkEnabledness(component, currentState, port, dataTable);
+				logger.trace("The result of checkEndabledness for component {}: {}.", component, portActive);
+				for (int i = 0; i < portActive.size(); i++) {
+					if (!(portActive.get(i))) {
+						ArrayList<DataContainer> dataContainer = containerList.get(i);
+						for (DataContainer dc : dataContainer) {
+							addDisabledPorts(disabledCombinations, dc.component(), dc.ports());
+						}
+						logger.debug(this.count + " CONTAINER CHOSEN: For deciding component " + component
+								+ " and its port " + port.getId() + " the disabled combinations are "
+								+ dataContainer);
 					}
-					logger.debug(this.count + " CONTAINER CHOSEN: For deciding component " + component
-							+ " and its port " + port.getId() + " the disabled combinations are "
-							+ disabledCombinations);
 				}
-				this.informSpecific(component, port, disabledCombinations);
 			}
-			// TODO HACK this was added to make the component unable to interact with itself.
-			// discuss it and check whether it works fine in all situations
-			disabledCombinations.clear();
-			disabledCombinations.put(component, new HashSet<Port>(decidingBehaviour.getEnforceablePorts()));
-			this.informSpecific(component, port, disabledCombinations);
+			/*
+			 * The disabled combinations of all data valuations are sent at once, so that they are encoded as a single
+			 * cube of negated d-variables.
+			 */
+			decisions.add(new PortDecision(port, disabledCombinations, cache, computedAt, providedValues));
+		}
+		return decisions;
+	}
+
+	private static void addProvidedValue(Map<BIPComponent, List<Object>> providedValues, BIPComponent component,
+			Object value) {
+		List<Object> values = providedValues.get(component);
+		if (values == null) {
+			values = new ArrayList<Object>();
+			providedValues.put(component, values);
 		}
+		values.add(value);
+	}
+
+	private static void addDisabledPorts(Map<BIPComponent, Set<Port>> disabledCombinations, BIPComponent component,
+			Collection<Port> ports) {
+		Set<Port> disabledPorts = disabledCombinations.get(component);
+		if (disabledPorts == null) {
+			disabledPorts = new HashSet<Port>();
+			disabledCombinations.put(component, disabledPorts);
+		}
+		disabledPorts.addAll(ports);
 	}
 
 	/**
@@ -731,10 +1165,8 @@ public class DataCoordinatorKernel implements BIPEngine, InteractionExecutor, Da
 				// + firstPair.component() + "\n\t " + secondPair + "\n\t of component " +
 				// secondPair.component());
 
-				// TODO DISCUSS DANGER remove from merged interactions those where component communicates with itself
-				if (firstPair.component().equals(secondPair.component())) {
-					continue;
-				}
+				// the data encoder creates no d-variables for a component communicating with itself
+				assert (!firstPair.component().equals(secondPair.component()));
 
 				// check for data for the first component
 				setDataValuationToExecutor(firstPair, secondPair);
@@ -773,8 +1205,6 @@ public class DataCoordinatorKernel implements BIPEngine, InteractionExecutor, Da
 					assert (componentBehaviourMapping.get(askingData.component()) != null);
 					String dataOutName = getProviderDataName(providingData,
 							componentBehaviourMapping.get(askingData.component()).getComponentType(), dataItem.name());
-					Boolean isCopy = getWireIsCopy(providingData,
-							componentBehaviourMapping.get(askingData.component()).getComponentType(), dataItem.name());
 
 					BIPComponent providingComponent = providingData.component();
 					if (dataOutName != null && !dataOutName.isEmpty() && isEngineExecuting) {
@@ -794,10 +1224,8 @@ public class DataCoordinatorKernel implements BIPEngine, InteractionExecutor, Da
 									+ dataOutName + " and type: " + dataItem.type()
 									+ " The function getData of the Executor kernel returns null for these arguments. ");
 						}
-						if (isCopy!=null && isCopy){
-							Gson gson = new Gson();
-							Object newDataValue = gson.fromJson(gson.toJson(dataValue), Object.class);
-							askingData.component().setData(dataItem.name(), newDataValue);
+						if (dataValueCopier != null) {
+							askingData.component().setData(dataItem.name(), dataValueCopier.copy(dataValue));
 						} else {
 							askingData.component().setData(dataItem.name(), dataValue);
 						}
@@ -808,28 +1236,32 @@ public class DataCoordinatorKernel implements BIPEngine, InteractionExecutor, Da
 
 	}
 
-	private Boolean getWireIsCopy(Port providingPort, String requiringComponentType, String dataName) {
-		BIPComponent providingComponent = providingPort.component();
-		assert (componentBehaviourMapping.get(providingComponent) != null);
-		for (DataWire wire : this.componentDataWires.get(requiringComponentType).get(dataName)) {
-			if (wire.getFrom().getSpecType()
-					.equals(componentBehaviourMapping.get(providingComponent).getComponentType())) {
-				Set<Port> portsProviding = componentBehaviourMapping.get(providingComponent).getDataProvidingPorts(
-						wire.getFrom().getId());
-				for (Port outport : portsProviding) {
-					if (outport.getId().equals(providingPort.getId())
-							&& outport.getSpecType().equals(providingPort.getSpecType())) {
-						return null; // wire.isCopy();
+	/**
+	 * Compiles componentDataWires into the routing table used by getProviderDataName. The behaviour of one instance of
+	 * the providing component type stands for all instances.
+	 */
+	private void computeDataWireRoutes() {
+		for (Entry<String, Map<String, Set<DataWire>>> requiringType : componentDataWires.entrySet()) {
+			for (Entry<String, Set<DataWire>> requiredData : requiringType.getValue().entrySet()) {
+				for (DataWire wire : requiredData.getValue()) {
+					String providingType = wire.getFrom().getSpecType();
+					if (!typeInstancesMapping.containsKey(providingType)) {
+						continue;
+					}
+					Behaviour providingBehaviour = componentBehaviourMapping.get(typeInstancesMapping.get(
+							providingType).get(0));
+					DataWireRoutingTable.Route route = new DataWireRoutingTable.Route(wire.getFrom().getId());
+					for (Port outport : providingBehaviour.getDataProvidingPorts(wire.getFrom().getId())) {
+						dataWireRoutingTable.addRoute(requiringType.getKey(), requiredData.getKey(), providingType,
+								outport.getId(), route);
 					}
 				}
 			}
 		}
-		return null;
-
 	}
 
 	/**
-	 * Looks through all the wires and returns the name of the dataOut of a component providing the data required.
+	 * Looks up the data wires and returns the name of the dataOut of a component providing the data required.
 	 * 
 	 * @param providingPort
 	 *            the port providing the data
@@ -840,28 +1272,201 @@ public class DataCoordinatorKernel implements BIPEngine, InteractionExecutor, Da
 	 * @return the data name
 	 */
 	private String getProviderDataName(Port providingPort, String requiringComponentType, String dataName) {
+		DataWireRoutingTable.Route route = getRoute(providingPort, requiringComponentType, dataName);
+		return route == null ? null : route.dataOutName;
+	}
+
+	private DataWireRoutingTable.Route getRoute(Port providingPort, String requiringComponentType, String dataName) {
 		BIPComponent providingComponent = providingPort.component();
 		assert (componentBehaviourMapping.get(providingComponent) != null);
-		for (DataWire wire : this.componentDataWires.get(requiringComponentType).get(dataName)) {
-			if (wire.getFrom().getSpecType()
-					.equals(componentBehaviourMapping.get(providingComponent).getComponentType())) {
-				Set<Port> portsProviding = componentBehaviourMapping.get(providingComponent).getDataProvidingPorts(
-						wire.getFrom().getId());
-				for (Port outport : portsProviding) {
-					if (outport.getId().equals(providingPort.getId())
-							&& outport.getSpecType().equals(providingPort.getSpecType())) {
-						return wire.getFrom().getId();
-					}
+		return dataWireRoutingTable.getRoute(requiringComponentType, dataName,
+				componentBehaviourMapping.get(providingComponent).getComponentType(), providingPort.getId());
+	}
+
+	public void setInteractionExecutor(InteractionExecutor interactionExecutor) {
+		this.interactionExecutor = interactionExecutor;
+
+	}
+
+	/**
+	 * Sets the maximal number of data valuations that are evaluated by one call to checkEnabledness. Smaller batches
+	 * use less memory, larger batches need fewer calls to the components.
+	 * 
+	 * @param batchSize
+	 *            the number of data valuations per batch, at least one.
+	 */
+	public void setDataValuationBatchSize(int batchSize) {
+		if (batchSize < 1) {
+			logger.error("The data valuation batch size must be positive, {} was given.", batchSize);
+			throw new BIPEngineException("The data valuation batch size must be positive, " + batchSize
+					+ " was given.");
+		}
+		this.dataValuationBatchSize = batchSize;
+	}
+
+	/**
+	 * Declares that a provided data only takes values from a finite domain. Its value is then encoded into BDD
+	 * variables at each execution cycle. It must be called before the engine starts.
+	 * 
+	 * @param domain
+	 *            the finite domain of a data.
+	 */
+	public synchronized void specifyFiniteDataDomain(FiniteDataDomain domain) {
+		if (registrationFinished) {
+			logger.error("The finite domain of data {} is specified after the engine has started.", domain);
+			throw new BIPEngineException("The finite domain of data " + domain
+					+ " is specified after the engine has started.");
+		}
+		List<FiniteDataDomain> domains = finiteDataDomains.get(domain.getComponentType());
+		if (domains == null) {
+			domains = new ArrayList<FiniteDataDomain>();
+			finiteDataDomains.put(domain.getComponentType(), domains);
+		}
+		domains.add(domain);
+	}
+
+	/**
+	 * Declares a guard over a data with a finite domain. If every data the guards of a port depend on has a symbolic
+	 * guard, the port is decided by the engine within its execution cycle and checkEnabledness is no longer called for
+	 * it. It must be called before the engine starts.
+	 * 
+	 * @param guard
+	 *            the symbolic guard.
+	 */
+	public synchronized void specifySymbolicGuard(SymbolicGuard guard) {
+		if (registrationFinished) {
+			logger.error("Symbolic guard {} is specified after the engine has started.", guard);
+			throw new BIPEngineException("Symbolic guard " + guard + " is specified after the engine has started.");
+		}
+		symbolicGuards.add(guard);
+	}
+
+	/**
+	 * Sets the number of threads that gather data and evaluate guards for informing components. With zero threads,
+	 * which is the default, the thread calling inform does this itself while holding the monitor of the coordinator, so
+	 * that components are handled one after the other. With one or more threads, the components are handled
+	 * concurrently and only the encoding of their temporary constraints and the notification of the BIPCoordinator are
+	 * serialized.
+	 * 
+	 * @param threads
+	 *            the number of threads of the guard evaluation pool, or zero to evaluate the guards in the informing
+	 *            thread.
+	 */
+	public synchronized void setGuardEvaluationThreads(int threads) {
+		if (threads < 0) {
+			logger.error("The number of guard evaluation threads must not be negative, {} was given.", threads);
+			throw new BIPEngineException("The number of guard evaluation threads must not be negative, " + threads
+					+ " was given.");
+		}
+		if (guardEvaluationPool != null) {
+			guardEvaluationPool.shutdown();
+			guardEvaluationPool = null;
+		}
+		if (threads > 0) {
+			guardEvaluationPool = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+				private final AtomicInteger count = new AtomicInteger();
+
+				public Thread newThread(Runnable runnable) {
+					Thread thread = new Thread(runnable, "GuardEvaluation-" + count.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
 				}
-			}
+			});
 		}
-		return null;
+	}
 
+	/**
+	 * Enables or disables the reuse of the temporary constraints of a deciding port across cycles, which is disabled
+	 * by default. When enabled, the data values of a port are still obtained at each cycle, but its guards are
+	 * evaluated again only if the deciding component has changed its state, if a value differs from the one the
+	 * constraint was computed from, or if the deciding component or a component providing data to the port has
+	 * executed a transition since. This assumes that the guards of a component only depend on its state and on the
+	 * data it receives when it executes no transition, and that a spontaneous or internal transition does not change a
+	 * provided value in place. Disabling the reuse frees the cached constraints, so it must not be done while the
+	 * guards of a component are evaluated.
+	 * 
+	 * @param enabled
+	 *            whether temporary constraints are reused.
+	 */
+	public synchronized void setTemporaryConstraintReuse(boolean enabled) {
+		if (enabled && temporaryConstraintCache == null) {
+			temporaryConstraintCache = new TemporaryConstraintCache();
+		} else if (!enabled && temporaryConstraintCache != null) {
+			temporaryConstraintCache.clear();
+			temporaryConstraintCache = null;
+		}
 	}
 
-	public void setInteractionExecutor(InteractionExecutor interactionExecutor) {
-		this.interactionExecutor = interactionExecutor;
+	/**
+	 * Sets the copier used for the data values transferred to executing components. Data wires do not tell whether
+	 * they copy, so every transferred value is copied, unless the copier is null, in which case the receiving component
+	 * shares the value with the providing component. By default, values are copied by a
+	 * {@link ReflectiveDataValueCopier}.
+	 * 
+	 * @param dataValueCopier
+	 *            the data value copier, or null to share the values.
+	 */
+	public void setDataValueCopier(DataValueCopier dataValueCopier) {
+		this.dataValueCopier = dataValueCopier;
+	}
 
+	/**
+	 * Enables the caching of guard results. Afterwards, a guard is evaluated by its component only once for a given
+	 * current state of the component and a given data valuation, as long as the result is not evicted. This is only
+	 * correct if the guards of all components depend on nothing but the current state and the data they receive, and if
+	 * the data values are not modified after being provided.
+	 * 
+	 * @param capacity
+	 *            the maximal number of guard results kept, or zero to disable the cache.
+	 */
+	public void setGuardResultCacheCapacity(int capacity) {
+		if (capacity < 0) {
+			logger.error("The guard result cache capacity must not be negative, {} was given.", capacity);
+			throw new BIPEngineException("The guard result cache capacity must not be negative, " + capacity
+					+ " was given.");
+		}
+		this.guardResultCache = capacity == 0 ? null : new GuardResultCache(capacity);
+	}
+
+	/**
+	 * Records the disabled combinations sent to the engine from now on. The ports providing each data are recorded once
+	 * the data wires are known, when the engine starts.
+	 * 
+	 * @param traceRecorder
+	 *            the recorder, or null to stop recording.
+	 */
+	public void setTraceRecorder(TraceRecorder traceRecorder) {
+		this.traceRecorder = traceRecorder;
+	}
+
+	/**
+	 * Records, for each data wire, the ports of the providing components that provide its data.
+	 */
+	private void recordDataOut(TraceRecorder recorder) {
+		for (DataWire wire : dataWires) {
+			List<BIPComponent> providers = typeInstancesMapping.get(wire.getFrom().getSpecType());
+			if (providers == null) {
+				continue;
+			}
+			for (BIPComponent provider : providers) {
+				recorder.recordDataOut(provider, wire.getFrom().getId(), componentBehaviourMapping.get(provider)
+						.getDataProvidingPorts(wire.getFrom().getId()));
+			}
+		}
+	}
+
+	/**
+	 * @return the number of guard evaluations answered from the guard result cache.
+	 */
+	public long getGuardResultCacheHits() {
+		return guardResultCache == null ? 0 : guardResultCache.getHits();
+	}
+
+	/**
+	 * @return the number of guard evaluations that had to be sent to the components despite the guard result cache.
+	 */
+	public long getGuardResultCacheMisses() {
+		return guardResultCache == null ? 0 : guardResultCache.getMisses();
 	}
 
 	public void specifyTemporaryConstraints(BDD constraints) {
@@ -876,6 +1481,10 @@ public class DataCoordinatorKernel implements BIPEngine, InteractionExecutor, Da
 		return glueCoordinator.getBehaviourEncoderInstance();
 	}
 
+	public EngineMetrics getMetrics() {
+		return glueCoordinator.getMetrics();
+	}
+
 	public BDDFactory getBDDManager() {
 		return glueCoordinator.getBDDManager();
 	}
@@ -884,6 +1493,20 @@ public class DataCoordinatorKernel implements BIPEngine, InteractionExecutor, Da
 		return dataEncoder;
 	}
 
+	public List<FiniteDataDomain> getFiniteDataDomains() {
+		List<FiniteDataDomain> domains = new ArrayList<FiniteDataDomain>();
+		if (!symbolicGuards.isEmpty()) {
+			for (List<FiniteDataDomain> typeDomains : finiteDataDomains.values()) {
+				domains.addAll(typeDomains);
+			}
+		}
+		return domains;
+	}
+
+	public List<SymbolicGuard> getSymbolicGuards() {
+		return new ArrayList<SymbolicGuard>(symbolicGuards);
+	}
+
 	public Map<Integer, Entry<Port, Port>> getdVarPositionsToWires() {
 		return dVarPositionsToWires;
 	}
@@ -897,6 +1520,21 @@ public class DataCoordinatorKernel implements BIPEngine, InteractionExecutor, Da
 		return glueCoordinator.getComponentFromObject(component);
 	}
 
+	/**
+	 * Components cannot be removed while data is transferred, since the d-variables and the data constraints are only
+	 * computed once for the registered components.
+	 * 
+	 * @param component
+	 *            the BIP component to remove.
+	 * @throws BIPEngineException
+	 *             always.
+	 */
+	public void deregister(BIPComponent component) throws BIPEngineException {
+		logger.error("Component {} cannot deregister while the engine is running with data transfer.", component.getId());
+		throw new BIPEngineException("Component " + component.getId()
+				+ " cannot deregister while the engine is running with data transfer.");
+	}
+
 	/**
 	 * Helper function that returns the registered component instances that correspond to a component type.
 	 * 
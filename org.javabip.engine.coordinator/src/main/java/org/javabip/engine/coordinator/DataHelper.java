@@ -18,10 +18,11 @@
 package org.javabip.engine.coordinator;
 
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collections;
 import java.util.Hashtable;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
 /**
  * Contains helper functions to manipulate structures of data containers used by the Data Coordinator.
@@ -57,6 +58,9 @@ public class DataHelper {
 	 * Given an unsorted list of data containers, creates a grouped list of data containers, where each sub-list is a
 	 * permutation containing a value for each data request (one for each data name)
 	 * 
+	 * The whole table is kept in memory, its size being the product of the number of values of each data. Use
+	 * {@link #dataValueRows(ArrayList)} to go through it row by row instead.
+	 * 
 	 * @param unsortedDataList
 	 *            list of unsorted data containers
 	 * @return a list of data containers grouped into sub-lists, each sub-list having a different tuple of data values,
@@ -65,78 +69,88 @@ public class DataHelper {
 	public static ArrayList<ArrayList<DataContainer>> getDataValueTable(
 			ArrayList<DataContainer> unsortedDataList) {
 		ArrayList<ArrayList<DataContainer>> result = new ArrayList<ArrayList<DataContainer>>();
+		Iterator<ArrayList<DataContainer>> rows = dataValueRows(unsortedDataList);
+		while (rows.hasNext()) {
+			result.add(rows.next());
+		}
+		return result;
+	}
 
+	/**
+	 * Given an unsorted list of data containers, returns an iterator over the rows of the table computed by
+	 * {@link #getDataValueTable(ArrayList)}. The rows are created on demand, so that only the values grouped by name
+	 * are kept in memory and not their product.
+	 * 
+	 * @param unsortedDataList
+	 *            list of unsorted data containers, emptied by this method
+	 * @return an iterator over the sub-lists having a different tuple of data values, one value for each data name
+	 */
+	public static Iterator<ArrayList<DataContainer>> dataValueRows(ArrayList<DataContainer> unsortedDataList) {
 		if (unsortedDataList == null || unsortedDataList.isEmpty()) {
-			return result;
-		}
-		// the data is now grouped by the name
-		ArrayList<ArrayList<DataContainer>> sortedList = dataGroupedByName(unsortedDataList);
-		// for one bipData get iterator over its values
-		ArrayList<DataContainer> entry = sortedList.get(0);
-		Iterator<DataContainer> iterator = entry.iterator();
-
-		// for each value of this first bipData
-		while (iterator.hasNext()) {
-			// create one map, where
-			// all the different pairs name<->value will be stored
-			// put there the current value of the first bipData
-			ArrayList<DataContainer> dataRow = new ArrayList<DataContainer>();
-			DataContainer next = iterator.next();
-			dataRow.add(next);
-			// remove the current data from the initial data table
-			// so that it is not treated again further
-			sortedList.remove(entry);
-			// treat the other bipData variables
-			result.addAll(getNextTableRow(sortedList, dataRow));
-			// restore the current data
-			sortedList.add(entry);
+			return Collections.<ArrayList<DataContainer>> emptyList().iterator();
 		}
-		return result;
+		return new DataValueRowIterator(dataGroupedByName(unsortedDataList));
 	}
 
 	/**
-	 * A recursive method to get all the permutations of a data values for the getDataValueTable method
+	 * Takes the next rows of a data value table.
 	 * 
-	 * @param sortedList
-	 *            the list of data lists grouped by name
-	 * @param dataRow
-	 *            the data row currently being built
-	 * @return the next table row of different data values
+	 * @param rows
+	 *            the iterator over the rows of the table
+	 * @param batchSize
+	 *            the maximal number of rows to take
+	 * @return at most batchSize rows, empty if there are no rows left
 	 */
-	private static ArrayList<ArrayList<DataContainer>> getNextTableRow(
-			ArrayList<ArrayList<DataContainer>> sortedList, ArrayList<DataContainer> dataRow) {
-		ArrayList<ArrayList<DataContainer>> result = new ArrayList<ArrayList<DataContainer>>();
-		// if there is no more data left, it means we have constructed one map
-		// of all the bipData variables
-		if (sortedList == null || sortedList.isEmpty()) {
-			result.add(dataRow);
-			return result;
+	public static ArrayList<ArrayList<DataContainer>> nextDataValueBatch(Iterator<ArrayList<DataContainer>> rows,
+			int batchSize) {
+		ArrayList<ArrayList<DataContainer>> batch = new ArrayList<ArrayList<DataContainer>>();
+		while (batch.size() < batchSize && rows.hasNext()) {
+			batch.add(rows.next());
 		}
+		return batch;
+	}
 
-		// for one bipData get iterator over its values
-		ArrayList<DataContainer> entry = sortedList.iterator().next();
-		Iterator<DataContainer> iterator = entry.iterator();
-
-		// for each value of this bipData
-		while (iterator.hasNext()) {
-			// create a new map, where
-			// all the different pairs name<->value will be stored
-			// copy there all the previous values
-			// (this must be done to escape
-			// change of one variable that leads to change of all its copies
-			ArrayList<DataContainer> thisRow = new ArrayList<DataContainer>();
-			thisRow.addAll(dataRow);
-			// put there the current value of the bipData
-			thisRow.add(iterator.next());
-			// remove the current data from the initial data table
-			// so that it is not treated again further
-			sortedList.remove(entry);
-			// treat the other bipData variables
-			result.addAll(getNextTableRow(sortedList, thisRow));
-			// restore the current data
-			sortedList.add(entry);
+	/**
+	 * Enumerates the product of the values of all data names like an odometer, the value of the last data name
+	 * changing first.
+	 */
+	private static class DataValueRowIterator implements Iterator<ArrayList<DataContainer>> {
+
+		/** The values of each data name. */
+		private final ArrayList<ArrayList<DataContainer>> groupedByName;
+
+		/** The index of the value of each data name in the next row. */
+		private final int[] indices;
+
+		private boolean hasNext;
+
+		DataValueRowIterator(ArrayList<ArrayList<DataContainer>> groupedByName) {
+			this.groupedByName = groupedByName;
+			this.indices = new int[groupedByName.size()];
+			this.hasNext = !groupedByName.isEmpty();
+		}
+
+		public boolean hasNext() {
+			return hasNext;
+		}
+
+		public ArrayList<DataContainer> next() {
+			if (!hasNext) {
+				throw new NoSuchElementException();
+			}
+			ArrayList<DataContainer> row = new ArrayList<DataContainer>(indices.length);
+			for (int i = 0; i < indices.length; i++) {
+				row.add(groupedByName.get(i).get(indices[i]));
+			}
+
+			int i = indices.length - 1;
+			while (i >= 0 && ++indices[i] == groupedByName.get(i).size()) {
+				indices[i] = 0;
+				i--;
+			}
+			hasNext = i >= 0;
+			return row;
 		}
-		return result;
 	}
 
 	/**
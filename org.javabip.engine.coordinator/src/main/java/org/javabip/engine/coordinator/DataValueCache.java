@@ -0,0 +1,105 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine.coordinator;
+
+import org.javabip.api.BIPComponent;
+import org.javabip.engine.api.DataRoundTripEvent;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the data values obtained from the providing components during one execution cycle. Every call to getData on a
+ * component is a synchronous round trip to its actor, whereas the value of a data does not change until the component
+ * executes. The values of a component must therefore be invalidated whenever the component informs the engine of its
+ * new state, before its guards are evaluated, and whenever it is notified by the engine. The values transferred to an
+ * executing component are not taken from this cache.
+ */
+class DataValueCache {
+
+	/**
+	 * A data value together with the type it was requested with.
+	 */
+	private static class CachedValue {
+		final Class<?> type;
+		final Object value;
+
+		CachedValue(Class<?> type, Object value) {
+			this.type = type;
+			this.value = value;
+		}
+	}
+
+	/** The cached values of each providing component, by data name. */
+	private final ConcurrentHashMap<BIPComponent, Map<String, CachedValue>> values =
+			new ConcurrentHashMap<BIPComponent, Map<String, CachedValue>>();
+
+	/**
+	 * Returns the value of a data of a component, calling getData on the component only if the value is not cached
+	 * yet. Null values are not cached.
+	 *
+	 * @param provider
+	 *            the component providing the data.
+	 * @param dataName
+	 *            the name of the data.
+	 * @param type
+	 *            the type of the data.
+	 * @return the value returned by the component.
+	 */
+	@SuppressWarnings("unchecked")
+	<T> T getData(BIPComponent provider, String dataName, Class<T> type) {
+		Map<String, CachedValue> providerValues = values.get(provider);
+		if (providerValues == null) {
+			providerValues = new ConcurrentHashMap<String, CachedValue>();
+			Map<String, CachedValue> existing = values.putIfAbsent(provider, providerValues);
+			if (existing != null) {
+				providerValues = existing;
+			}
+		}
+
+		CachedValue cached = providerValues.get(dataName);
+		if (cached != null && cached.type.equals(type)) {
+			return (T) cached.value;
+		}
+		DataRoundTripEvent event = new DataRoundTripEvent(DataRoundTripEvent.GET_DATA);
+		event.begin();
+		T value = provider.getData(dataName, type);
+		event.end();
+		if (event.shouldCommit()) {
+			event.setComponent(provider.getId());
+			event.setTarget(dataName);
+			event.commit();
+		}
+		if (value != null) {
+			providerValues.put(dataName, new CachedValue(type, value));
+		}
+		return value;
+	}
+
+	/**
+	 * Forgets the cached values of a component, for instance, because it has executed.
+	 *
+	 * @param provider
+	 *            the component providing data.
+	 */
+	void invalidate(BIPComponent provider) {
+		values.remove(provider);
+	}
+
+}
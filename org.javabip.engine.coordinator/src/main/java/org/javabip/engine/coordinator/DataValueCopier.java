@@ -0,0 +1,37 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine.coordinator;
+
+/**
+ * Copies the data values transferred to executing components, so that the receiving component never shares mutable
+ * state with the providing component.
+ */
+public interface DataValueCopier {
+
+	/**
+	 * Returns a copy of a data value that can be modified without affecting the original one. Values that cannot be
+	 * modified may be returned as they are.
+	 *
+	 * @param value
+	 *            the data value provided by a component.
+	 * @return the copy of the value.
+	 */
+	<T> T copy(T value);
+
+}
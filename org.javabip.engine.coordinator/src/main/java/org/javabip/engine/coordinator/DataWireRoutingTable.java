@@ -0,0 +1,124 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine.coordinator;
+
+import org.javabip.exceptions.BIPEngineException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maps a data required by a component type and a port providing it to the data wire that connects them, i.e. the name
+ * of the data out of the providing component. The table is filled once the glue is
+ * known, so that the data wires need not be searched each time data is transferred.
+ *
+ * Component types, data names and port ids are interned into small integers, which are packed into one key.
+ */
+class DataWireRoutingTable {
+
+	/** The number of bits of each interned name in a key. */
+	private static final int NAME_BITS = 16;
+
+	/**
+	 * The end of a data wire at the providing component.
+	 */
+	static class Route {
+		final String dataOutName;
+
+		Route(String dataOutName) {
+			this.dataOutName = dataOutName;
+		}
+	}
+
+	private static Logger logger = LoggerFactory.getLogger(DataWireRoutingTable.class);
+
+	private final Map<String, Integer> componentTypes = new HashMap<String, Integer>();
+	private final Map<String, Integer> dataNames = new HashMap<String, Integer>();
+	private final Map<String, Integer> portIds = new HashMap<String, Integer>();
+
+	private final Map<Long, Route> routes = new HashMap<Long, Route>();
+
+	/**
+	 * Adds a route, unless the data is already routed from the given port.
+	 *
+	 * @param requiringComponentType
+	 *            the type of component that requires the data
+	 * @param dataName
+	 *            the required data name
+	 * @param providingComponentType
+	 *            the type of component that provides the data
+	 * @param providingPortId
+	 *            the port providing the data
+	 * @param route
+	 *            the providing end of the data wire
+	 */
+	void addRoute(String requiringComponentType, String dataName, String providingComponentType,
+			String providingPortId, Route route) {
+		long key = key(intern(componentTypes, requiringComponentType), intern(dataNames, dataName),
+				intern(componentTypes, providingComponentType), intern(portIds, providingPortId));
+		if (!routes.containsKey(key)) {
+			routes.put(key, route);
+		}
+	}
+
+	/**
+	 * Returns the providing end of the data wire that connects a required data with a providing port.
+	 *
+	 * @param requiringComponentType
+	 *            the type of component that requires the data
+	 * @param dataName
+	 *            the required data name
+	 * @param providingComponentType
+	 *            the type of component that provides the data
+	 * @param providingPortId
+	 *            the port providing the data
+	 * @return the route, or null if no data wire connects them
+	 */
+	Route getRoute(String requiringComponentType, String dataName, String providingComponentType,
+			String providingPortId) {
+		Integer requiringType = componentTypes.get(requiringComponentType);
+		Integer data = dataNames.get(dataName);
+		Integer providingType = componentTypes.get(providingComponentType);
+		Integer port = portIds.get(providingPortId);
+		if (requiringType == null || data == null || providingType == null || port == null) {
+			return null;
+		}
+		return routes.get(key(requiringType, data, providingType, port));
+	}
+
+	private static int intern(Map<String, Integer> names, String name) {
+		Integer index = names.get(name);
+		if (index == null) {
+			index = names.size();
+			if (index >= 1 << NAME_BITS) {
+				logger.error("Too many distinct names in the data wires to build the routing table.");
+				throw new BIPEngineException("Too many distinct names in the data wires to build the routing table.");
+			}
+			names.put(name, index);
+		}
+		return index;
+	}
+
+	private static long key(int requiringType, int data, int providingType, int port) {
+		return ((((long) requiringType << NAME_BITS | data) << NAME_BITS | providingType) << NAME_BITS) | port;
+	}
+
+}
@@ -27,6 +27,7 @@ import net.sf.javabdd.BDD;
 import net.sf.javabdd.BDDFactory;
 import org.javabip.api.*;
 import org.javabip.engine.api.*;
+import org.javabip.engine.api.EngineMetrics.Phase;
 import org.javabip.exceptions.BIPEngineException;
 import org.javabip.executor.ExecutorKernel;
 // import org.javabip.executor.ExecutorKernelRV;
@@ -35,6 +36,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Semaphore;
 
 /**
@@ -118,6 +120,46 @@ public class GlueCoordinatorImpl implements GlueCoordinator, Runnable {
 	private ActorContext typedActorContext;
 	private Object typedActorSelf;
 
+	/**
+	 * Optional cache of the total constraints BDD. If set, the behaviour, glue and data BDDs are only computed when the
+	 * cache does not match the registered system.
+	 */
+	private CompiledGlueCache compiledGlueCache;
+
+	/**
+	 * Optional recorder of the registrations, informs and interactions received by the engine.
+	 */
+	private TraceRecorder traceRecorder;
+
+	/**
+	 * Boolean field that shows whether the total constraints BDD has been computed. From then on, components that
+	 * register or deregister are added to or removed from the total constraints BDD between two execution cycles.
+	 */
+	private boolean areConstraintsCompiled = false;
+
+	/**
+	 * Components that have registered while the engine is running and wait to be added at the end of the current
+	 * execution cycle.
+	 */
+	private ArrayList<BIPComponent> pendingComponents = new ArrayList<BIPComponent>();
+
+	/**
+	 * The first inform of the pending components, i.e. their current state and their disabled ports. A pending
+	 * component is only added once its current state is known.
+	 */
+	private Hashtable<BIPComponent, Map.Entry<String, Set<Port>>> pendingInforms = new Hashtable<BIPComponent, Map.Entry<String, Set<Port>>>();
+
+	/**
+	 * Components that have deregistered and wait to be removed at the end of the current execution cycle.
+	 */
+	private ArrayList<BIPComponent> componentsToRemove = new ArrayList<BIPComponent>();
+
+	/**
+	 * The moment, as given by System.nanoTime(), at which an execute was last dispatched to each component that has
+	 * not informed since.
+	 */
+	private final ConcurrentHashMap<BIPComponent, Long> executeDispatchTimes = new ConcurrentHashMap<BIPComponent, Long>();
+
 	public GlueCoordinatorImpl(ActorSystem system, GlueEncoder glueEncoder, BehaviourEncoder behenc, CurrentStateEncoder currentStateEncoder, BDDBIPEngine engine) {
 
 		this.glueenc = glueEncoder;
@@ -208,6 +250,10 @@ public class GlueCoordinatorImpl implements GlueCoordinator, Runnable {
 			logger.error("Component " + objectToComponent.get(component).getId() + " has already registered before.");
 			throw new BIPEngineException("Component " + objectToComponent.get(component).getId()
 					+ " has already registered before.");
+		} else if (areConstraintsCompiled && interactionExecutor != this) {
+			logger.error("Component {} cannot register while the engine is running with data transfer.", id);
+			throw new BIPEngineException("Component " + id
+					+ " cannot register while the engine is running with data transfer.");
 		} else {
 
 			//final ExecutorKernel executor = new ExecutorKernel(component, id, useSpec);
@@ -263,62 +309,264 @@ public class GlueCoordinatorImpl implements GlueCoordinator, Runnable {
 			logger.info("********************************* Register *************************************");
 
 			/*
-			 * Map all component instances of the same type in the typeInstancesMapping Hashtable
+			 * Keep the local ID for now, but use OSGI IDs later
 			 */
-			ArrayList<BIPComponent> componentInstances = new ArrayList<BIPComponent>();
+			logger.info("Component : {}", component);
 
-			/*
-			 * If this component type already exists in the hashtable, update the ArrayList of BIPComponents that
-			 * corresponds to this component type.
-			 */
-			if (typeInstancesMapping.containsKey(executorActor.getType())) {
-				componentInstances.addAll(typeInstancesMapping.get(executorActor.getType()));
-			}
+			registerBehaviour(executorActor, behaviour);
+			logger.info("******************************************************************************");
+			org.javabip.api.BIPEngine typedActorEngine = (org.javabip.api.BIPEngine) typedActorSelf;
+			executorActor.register(typedActorEngine); // BIG TODO: Try synchronous call
 
-			componentInstances.add(executorActor);
-			typeInstancesMapping.put(executorActor.getType(), componentInstances);
-			registeredComponents.add(executorActor);
+			// return actorWithLifeCycle;
+			return executorActor;
+		}
 
-			/*
-			 * Keep the local ID for now, but use OSGI IDs later
-			 */
-			logger.info("Component : {}", component);
+	}
 
-			componentBehaviourMapping.put(executorActor, behaviour);
-			int nbComponentPorts = (behaviour.getEnforceablePorts()).size();
-			int nbComponentStates = (behaviour.getStates()).size();
+	/**
+	 * Registers a component that is not wrapped by an actor, for instance a component driven directly by a test or a
+	 * benchmark. The engine sends the ports to execute through the execute function of the component, which must then
+	 * inform the engine itself.
+	 * 
+	 * @param component
+	 *            the component to be managed by the engine.
+	 * @param behaviour
+	 *            the behaviour of the component.
+	 * @throws BIPEngineException
+	 *             when the component has already registered or the engine is running with data transfer.
+	 */
+	public synchronized void register(BIPComponent component, Behaviour behaviour) throws BIPEngineException {
+		if (registeredComponents.contains(component) || componentBehaviourMapping.containsKey(component)) {
+			logger.error("Component {} has already registered before.", component.getId());
+			throw new BIPEngineException("Component " + component.getId() + " has already registered before.");
+		} else if (areConstraintsCompiled && interactionExecutor != this) {
+			logger.error("Component {} cannot register while the engine is running with data transfer.",
+					component.getId());
+			throw new BIPEngineException("Component " + component.getId()
+					+ " cannot register while the engine is running with data transfer.");
+		}
+		logger.info("Component : {}", component);
+		registerBehaviour(component, behaviour);
+	}
 
+	/**
+	 * Adds a newly registered component to the system, or to the pending components if the engine is running.
+	 * 
+	 * @param component
+	 *            the registered component.
+	 * @param behaviour
+	 *            the behaviour of the component.
+	 */
+	private void registerBehaviour(BIPComponent component, Behaviour behaviour) {
+		if (traceRecorder != null) {
+			traceRecorder.recordRegister(component, behaviour);
+		}
+		if (areConstraintsCompiled) {
+			/*
+			 * The total constraints BDD is in use by the engine. The component is added at the end of the current
+			 * execution cycle, once it has informed about its current state.
+			 */
+			componentBehaviourMapping.put(component, behaviour);
+			pendingComponents.add(component);
+		} else {
+			addComponent(component, behaviour);
 			try {
-				behenc.createBDDNodes(executorActor, (behaviour.getEnforceablePorts()), ((new ArrayList<String>(
-						behaviour.getStates()))));
+				engine.informBehaviour(component, behenc.behaviourBDD(component));
 			} catch (BIPEngineException e) {
 				// e.printStackTrace();
 			}
-			try {
-				engine.informBehaviour(executorActor, behenc.behaviourBDD(executorActor));
-			} catch (BIPEngineException e) {
-				// e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Adds a component to the registered components and creates the BDD nodes of its states and ports.
+	 * 
+	 * @param component
+	 *            the component to add.
+	 * @param behaviour
+	 *            the behaviour of the component.
+	 */
+	private void addComponent(BIPComponent component, Behaviour behaviour) {
+		/*
+		 * Map all component instances of the same type in the typeInstancesMapping Hashtable
+		 */
+		ArrayList<BIPComponent> componentInstances = new ArrayList<BIPComponent>();
+
+		/*
+		 * If this component type already exists in the hashtable, update the ArrayList of BIPComponents that
+		 * corresponds to this component type.
+		 */
+		if (typeInstancesMapping.containsKey(component.getType())) {
+			componentInstances.addAll(typeInstancesMapping.get(component.getType()));
+		}
+
+		componentInstances.add(component);
+		typeInstancesMapping.put(component.getType(), componentInstances);
+		registeredComponents.add(component);
+
+		componentBehaviourMapping.put(component, behaviour);
+		int nbComponentPorts = (behaviour.getEnforceablePorts()).size();
+		int nbComponentStates = (behaviour.getStates()).size();
+
+		try {
+			behenc.createBDDNodes(component, (behaviour.getEnforceablePorts()), ((new ArrayList<String>(
+					behaviour.getStates()))));
+		} catch (BIPEngineException e) {
+			// e.printStackTrace();
+		}
+
+		/*
+		 * The position of a port is the variable of its BDD, which does not follow the ports and states registered
+		 * before when components have been removed or d-variables have been created.
+		 */
+		Map<String, BDD> portToBDD = behenc.getPortToBDDOfAComponent(component);
+		for (Port port : behaviour.getEnforceablePorts()) {
+			int position = portToBDD.get(port.getId()).var();
+			behenc.getPositionsOfPorts().add(position);
+			behenc.getPortToPosition().put(port, position);
+		}
+		nbPorts += nbComponentPorts;
+		nbStates += nbComponentStates;
+		nbComponents++;
+		// if (!behaviour.getEnforceablePorts().isEmpty()) {
+		// nbComponentsWithEnforceableTransitions++;
+		// }
+	}
+
+	/**
+	 * Removes a component from the system. The component stops being notified by the engine. It is removed at the end
+	 * of the current execution cycle, so it should not be stopped before it has informed in the current cycle.
+	 * 
+	 * @param component
+	 *            the component to remove.
+	 * @throws BIPEngineException
+	 *             when the component is not registered or the engine is running with data transfer.
+	 */
+	public synchronized void deregister(BIPComponent component) throws BIPEngineException {
+		if (pendingComponents.remove(component)) {
+			pendingInforms.remove(component);
+			componentBehaviourMapping.remove(component);
+			objectToComponent.values().remove(component);
+			return;
+		}
+		if (!registeredComponents.contains(component) || componentsToRemove.contains(component)) {
+			logger.error("Component {} cannot be deregistered since it is not registered.", component.getId());
+			throw new BIPEngineException("Component " + component.getId()
+					+ " cannot be deregistered since it is not registered.");
+		}
+		if (interactionExecutor != null && interactionExecutor != this) {
+			logger.error("Component {} cannot deregister while the engine is running with data transfer.",
+					component.getId());
+			throw new BIPEngineException("Component " + component.getId()
+					+ " cannot deregister while the engine is running with data transfer.");
+		}
+		componentsToRemove.add(component);
+	}
+
+	/**
+	 * Called by the engine thread between two execution cycles. Removes the deregistered components from the total
+	 * constraints BDD and adds the components that have registered and informed about their current state since the
+	 * previous cycle.
+	 * 
+	 * A new component is added by conjoining its behaviour BDD and the glue BDDs that involve it with the total
+	 * constraints BDD. If the glue encoder cannot compute these glue BDDs incrementally, the total constraints BDD is
+	 * computed again for all the registered components.
+	 * 
+	 * @throws BIPEngineException
+	 */
+	private synchronized void updateRegisteredComponents() throws BIPEngineException {
+		if (!componentsToRemove.isEmpty()) {
+			for (BIPComponent component : componentsToRemove) {
+				removeComponent(component);
 			}
+			componentsToRemove.clear();
+		}
 
-			for (int i = 0; i < nbComponentPorts; i++) {
-				behenc.getPositionsOfPorts().add(nbPorts + nbStates + nbComponentStates + i);
-				behenc.getPortToPosition().put((behaviour.getEnforceablePorts()).get(i),
-						nbPorts + nbStates + nbComponentStates + i);
+		if (pendingComponents.isEmpty()) {
+			return;
+		}
+		boolean isRecomputationNeeded = false;
+		for (Iterator<BIPComponent> it = pendingComponents.iterator(); it.hasNext();) {
+			BIPComponent component = it.next();
+			Map.Entry<String, Set<Port>> firstInform = pendingInforms.remove(component);
+			if (firstInform == null) {
+				continue;
 			}
-			nbPorts += nbComponentPorts;
-			nbStates += nbComponentStates;
-			nbComponents++;
-			// if (!behaviour.getEnforceablePorts().isEmpty()) {
-			// nbComponentsWithEnforceableTransitions++;
-			// }
-			logger.info("******************************************************************************");
-			org.javabip.api.BIPEngine typedActorEngine = (org.javabip.api.BIPEngine) typedActorSelf;
-			executorActor.register(typedActorEngine); // BIG TODO: Try synchronous call
+			it.remove();
+			addComponent(component, componentBehaviourMapping.get(component));
+
+			if (!isRecomputationNeeded) {
+				List<BDD> componentGlue = glueenc.componentGlue(component);
+				if (componentGlue == null) {
+					isRecomputationNeeded = true;
+				} else {
+					engine.informNewComponent(component, behenc.behaviourBDD(component), componentGlue);
+				}
+			}
+			engine.informCurrentState(component,
+					currstenc.inform(component, firstInform.getKey(), firstInform.getValue()));
+		}
 
-			// return actorWithLifeCycle;
-			return executorActor;
+		if (isRecomputationNeeded) {
+			BDD totalConstraints = engine.getBDDManager().one();
+			for (BIPComponent component : registeredComponents) {
+				totalConstraints.andWith(behenc.behaviourBDD(component));
+			}
+			for (BDD glueBDD : glueenc.totalGlue()) {
+				totalConstraints.andWith(glueBDD);
+			}
+			engine.informTotalConstraints(totalConstraints);
+			BDDReorderEvent.reorder(engine.getBDDManager(), BDDFactory.REORDER_SIFTITE);
+			logger.info("Total constraints recomputed for {} components.", nbComponents);
 		}
+	}
 
+	/**
+	 * Removes a component from the registered components and from the total constraints BDD.
+	 * 
+	 * @param component
+	 *            the component to remove.
+	 */
+	private void removeComponent(BIPComponent component) {
+		executeDispatchTimes.remove(component);
+		engine.getMetrics().forgetComponent(component.getId());
+		Behaviour behaviour = componentBehaviourMapping.remove(component);
+		registeredComponents.remove(component);
+		objectToComponent.values().remove(component);
+
+		ArrayList<BIPComponent> componentInstances = new ArrayList<BIPComponent>(
+				typeInstancesMapping.get(component.getType()));
+		componentInstances.remove(component);
+		if (componentInstances.isEmpty()) {
+			typeInstancesMapping.remove(component.getType());
+		} else {
+			typeInstancesMapping.put(component.getType(), componentInstances);
+		}
+
+		for (Port port : behaviour.getEnforceablePorts()) {
+			Integer position = behenc.getPortToPosition().remove(port);
+			if (position != null) {
+				behenc.getPositionsOfPorts().remove(position);
+			}
+		}
+
+		BDD disabledPorts = engine.getBDDManager().one();
+		for (BDD portBDD : behenc.getPortBDDs().get(component)) {
+			disabledPorts.andWith(portBDD.not());
+		}
+		BDD[] stateBDDs = behenc.getStateBDDs().get(component);
+		int[] stateVariables = new int[stateBDDs.length];
+		for (int i = 0; i < stateBDDs.length; i++) {
+			stateVariables[i] = stateBDDs[i].var();
+		}
+		behenc.deleteBDDNodes(component);
+		engine.informRemovedComponent(component, disabledPorts, stateVariables);
+
+		nbPorts -= behaviour.getEnforceablePorts().size();
+		nbStates -= behaviour.getStates().size();
+		nbComponents--;
+		logger.info("Component {} removed.", component.getId());
 	}
 
 	/**
@@ -330,6 +578,21 @@ public class GlueCoordinatorImpl implements GlueCoordinator, Runnable {
 	 */
 	public synchronized void inform(BIPComponent component, String currentState, Set<Port> disabledPorts) {
 		// long time1 = System.currentTimeMillis();
+		Long dispatchedAt = executeDispatchTimes.remove(component);
+		if (dispatchedAt != null) {
+			engine.getMetrics().recordInform(component.getId(), System.nanoTime() - dispatchedAt);
+		}
+		if (traceRecorder != null) {
+			traceRecorder.recordInform(component, currentState, disabledPorts);
+		}
+		if (pendingComponents.contains(component)) {
+			/*
+			 * The component is not part of the total constraints BDD yet. Its current state is taken into account when
+			 * it is added at the end of the execution cycle.
+			 */
+			pendingInforms.put(component, new AbstractMap.SimpleEntry<String, Set<Port>>(currentState, disabledPorts));
+			return;
+		}
 		if (componentsHaveInformed.contains(component)) {
 			try {
 				logger.debug("************************ Already Have Informed *******************************");
@@ -461,6 +724,9 @@ public class GlueCoordinatorImpl implements GlueCoordinator, Runnable {
 	 * @throws BIPEngineException
 	 */
 	public void executeInteractions(List<List<Port>> portsToFire) throws BIPEngineException {
+		if (traceRecorder != null) {
+			traceRecorder.recordInteraction(portsToFire);
+		}
 
 		if (portsToFire == null) {
 			logger.warn("BIP Coordinator: Empty interaction requested for execution -- nothing to do.");
@@ -469,7 +735,7 @@ public class GlueCoordinatorImpl implements GlueCoordinator, Runnable {
 			 * Send null to the components that are not part of the overall interaction.
 			 */
 			for (BIPComponent component : registeredComponents) {
-				component.execute(null);
+				dispatchExecute(component, null);
 
 			}
 
@@ -529,7 +795,7 @@ public class GlueCoordinatorImpl implements GlueCoordinator, Runnable {
 
 				logger.debug("Chosen port: " + port.getId() + " of component: " + port.component().getId());
 				if (isEngineExecuting)
-					port.component().execute(port.getId());
+					dispatchExecute(port.component(), port.getId());
 
 				/*
 				 * Remove the corresponding component from the list of those that do not move
@@ -542,11 +808,25 @@ public class GlueCoordinatorImpl implements GlueCoordinator, Runnable {
 		 * Send null to the components that are not part of the overall interaction.
 		 */
 		for (BIPComponent component : waitingComponents) {
-			component.execute(null);
+			dispatchExecute(component, null);
 		}
 
 	}
 
+	/**
+	 * Sends the port to execute to a component, noting the moment so that the time until the component informs can be
+	 * measured.
+	 * 
+	 * @param component
+	 *            the component.
+	 * @param portId
+	 *            the port to execute, or null if the component does not take part in the chosen interactions.
+	 */
+	private void dispatchExecute(BIPComponent component, String portId) {
+		executeDispatchTimes.put(component, System.nanoTime());
+		component.execute(portId);
+	}
+
 	/**
 	 * Initialization phase. Orders the Behaviour and Current State Encoders to compute their total BDDs and send these
 	 * to the BDDBIPEngine.
@@ -616,14 +896,76 @@ public class GlueCoordinatorImpl implements GlueCoordinator, Runnable {
 		 * Compute behaviour and glue BDDs with the components that have registered before the call to execute(). If
 		 * components were to register after the call to execute() these BDDs must be recomputed accordingly.
 		 */
-		// For performance info
-		// long startTime = System.currentTimeMillis();
-		computeTotalBehaviour();
-		computeTotalGlueAndInformEngine();
-		// For performance info
-		// long estimatedTime = System.currentTimeMillis() - startTime;
-		// System.out.println("Init time : " + estimatedTime);
+		GlueCompilationEvent stageEvent = new GlueCompilationEvent("loadCompiledConstraints");
+		stageEvent.begin();
+		boolean isLoaded = loadCompiledConstraints();
+		stageEvent.commit();
+		if (!isLoaded) {
+			stageEvent = new GlueCompilationEvent("totalBehaviour");
+			stageEvent.begin();
+			computeTotalBehaviour();
+			stageEvent.commit();
+
+			stageEvent = new GlueCompilationEvent("totalGlue");
+			stageEvent.begin();
+			computeTotalGlueAndInformEngine();
+			stageEvent.commit();
+
+			stageEvent = new GlueCompilationEvent("storeCompiledConstraints");
+			stageEvent.begin();
+			storeCompiledConstraints();
+			stageEvent.commit();
+		}
+		synchronized (this) {
+			areConstraintsCompiled = true;
+		}
+
+	}
+
+	/**
+	 * Installs the total constraints BDD from the compiled glue cache if the cache was written for the same glue, the
+	 * same component types and instances, and the same variable layout.
+	 * 
+	 * @return true if the total constraints were taken from the cache, false if they must be computed.
+	 */
+	private boolean loadCompiledConstraints() {
+		if (compiledGlueCache == null) {
+			return false;
+		}
+		BDD totalConstraints = compiledGlueCache.load(engine.getBDDManager(), compiledGlueKey(), compiledGlueLayout());
+		if (totalConstraints == null) {
+			return false;
+		}
+		engine.informTotalConstraints(totalConstraints);
+		return true;
+	}
 
+	/**
+	 * Stores the freshly computed total constraints BDD in the compiled glue cache, if there is one.
+	 */
+	private void storeCompiledConstraints() {
+		if (compiledGlueCache == null || engine.getTotalConstraints() == null) {
+			return;
+		}
+		compiledGlueCache.save(engine.getBDDManager(), compiledGlueKey(), compiledGlueLayout(),
+				engine.getTotalConstraints());
+	}
+
+	private String compiledGlueKey() {
+		if (interactionExecutor instanceof DataCoordinator) {
+			DataCoordinator dataCoordinator = (DataCoordinator) interactionExecutor;
+			return compiledGlueCache.computeKey(glueHolder, typeInstancesMapping, componentBehaviourMapping,
+					dataCoordinator.getFiniteDataDomains(), dataCoordinator.getSymbolicGuards());
+		}
+		return compiledGlueCache.computeKey(glueHolder, typeInstancesMapping, componentBehaviourMapping);
+	}
+
+	private String compiledGlueLayout() {
+		Map<Integer, Map.Entry<Port, Port>> dVarPositionsToWires = null;
+		if (interactionExecutor instanceof DataCoordinator) {
+			dVarPositionsToWires = ((DataCoordinator) interactionExecutor).getdVarPositionsToWires();
+		}
+		return compiledGlueCache.computeLayout(registeredComponents, behenc, dVarPositionsToWires);
 	}
 
 	public void run() {
@@ -644,6 +986,7 @@ public class GlueCoordinatorImpl implements GlueCoordinator, Runnable {
 
 		while (isEngineExecuting) {
 
+			long cycleStart = System.nanoTime();
 			logger.trace("isEngineExecuting: {} ", isEngineExecuting);
 			logger.trace("noComponents: {}, componentCounter: {}", nbComponents, componentsHaveInformed.size());
 			logger.trace("Number of available permits in the semaphore: {}",
@@ -652,10 +995,9 @@ public class GlueCoordinatorImpl implements GlueCoordinator, Runnable {
 			componentsHaveInformed.clear();
 
 			try {
+				updateRegisteredComponents();
 
-				// long time1 = System.currentTimeMillis();
 				engine.runOneIteration();
-				// System.out.printf("E: %s ", (System.currentTimeMillis() - time1));
 			} catch (BIPEngineException e1) {
 
 				isEngineExecuting = false;
@@ -666,7 +1008,11 @@ public class GlueCoordinatorImpl implements GlueCoordinator, Runnable {
 
 			try {
 				logger.trace("Waiting for the acquire in run()...");
+				long waitStart = System.nanoTime();
 				haveAllComponentsInformed.acquire(nbComponents);
+				long waitEnd = System.nanoTime();
+				engine.getMetrics().record(Phase.WAIT_FOR_INFORMS, waitEnd - waitStart);
+				engine.getMetrics().record(Phase.CYCLE, waitEnd - cycleStart);
 
 				logger.trace("run() acquire successful.");
 			} catch (InterruptedException e) {
@@ -827,6 +1173,19 @@ public class GlueCoordinatorImpl implements GlueCoordinator, Runnable {
 		return componentBehaviourMapping.get(component);
 	}
 
+	public EngineMetrics getMetrics() {
+		return engine.getMetrics();
+	}
+
+	/**
+	 * @return the number of components that have informed about their current state in the current execution cycle.
+	 */
+	public int getNumberOfInformedComponents() {
+		synchronized (componentsHaveInformed) {
+			return componentsHaveInformed.size();
+		}
+	}
+
 	public BehaviourEncoder getBehaviourEncoderInstance() {
 		return behenc;
 	}
@@ -835,6 +1194,26 @@ public class GlueCoordinatorImpl implements GlueCoordinator, Runnable {
 		return engine.getBDDManager();
 	}
 
+	/**
+	 * Sets the cache used to store and restore the total constraints BDD across engine restarts.
+	 * 
+	 * @param compiledGlueCache
+	 *            the compiled glue cache, or null to always compute the total constraints.
+	 */
+	public void setCompiledGlueCache(CompiledGlueCache compiledGlueCache) {
+		this.compiledGlueCache = compiledGlueCache;
+	}
+
+	/**
+	 * Records the registrations, informs and interactions received by the engine from now on.
+	 * 
+	 * @param traceRecorder
+	 *            the recorder, or null to stop recording.
+	 */
+	public void setTraceRecorder(TraceRecorder traceRecorder) {
+		this.traceRecorder = traceRecorder;
+	}
+
 	/**
 	 * Set Interaction Executor to BIPCoordinator in the case there are no data transfer
 	 */
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine.coordinator;
+
+import org.javabip.api.BIPComponent;
+import org.javabip.api.Port;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers the results of checkEnabledness for a component in a given state, for a given port and a given tuple of
+ * data values, with least recently used eviction.
+ *
+ * The cache is only correct for components whose guards are pure functions of their current state and of the data
+ * they receive, and for data values whose equals and hashCode reflect their content and that are not modified while
+ * they are cached.
+ */
+class GuardResultCache {
+
+	private final int capacity;
+
+	private final LinkedHashMap<List<Object>, Boolean> results;
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	/**
+	 * Instantiates a new guard result cache.
+	 *
+	 * @param capacity
+	 *            the maximal number of results kept.
+	 */
+	GuardResultCache(final int capacity) {
+		this.capacity = capacity;
+		this.results = new LinkedHashMap<List<Object>, Boolean>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<List<Object>, Boolean> eldest) {
+				return size() > GuardResultCache.this.capacity;
+			}
+		};
+	}
+
+	/**
+	 * Returns the cached result of the guard of a port, counting a hit or a miss.
+	 *
+	 * @param component
+	 *            the deciding component.
+	 * @param currentState
+	 *            the current state of the component.
+	 * @param port
+	 *            the port whose guard is evaluated.
+	 * @param dataValues
+	 *            the data values the guard is evaluated with.
+	 * @return the cached result, or null if the guard has not been evaluated for these values.
+	 */
+	synchronized Boolean get(BIPComponent component, String currentState, Port port, Map<String, Object> dataValues) {
+		Boolean result = results.get(key(component, currentState, port, dataValues));
+		if (result == null) {
+			misses.incrementAndGet();
+		} else {
+			hits.incrementAndGet();
+		}
+		return result;
+	}
+
+	/**
+	 * Stores the result of the guard of a port.
+	 *
+	 * @param component
+	 *            the deciding component.
+	 * @param currentState
+	 *            the current state of the component.
+	 * @param port
+	 *            the port whose guard was evaluated.
+	 * @param dataValues
+	 *            the data values the guard was evaluated with.
+	 * @param isEnabled
+	 *            the result of the guard.
+	 */
+	synchronized void put(BIPComponent component, String currentState, Port port, Map<String, Object> dataValues,
+			boolean isEnabled) {
+		results.put(key(component, currentState, port, dataValues), isEnabled);
+	}
+
+	long getHits() {
+		return hits.get();
+	}
+
+	long getMisses() {
+		return misses.get();
+	}
+
+	private static List<Object> key(BIPComponent component, String currentState, Port port,
+			Map<String, Object> dataValues) {
+		return Arrays.<Object> asList(component, currentState, port.getId(), dataValues);
+	}
+
+}
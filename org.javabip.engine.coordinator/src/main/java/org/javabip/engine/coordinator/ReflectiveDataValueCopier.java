@@ -0,0 +1,339 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine.coordinator;
+
+import org.javabip.exceptions.BIPEngineException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Deep-copies data values by copying their fields, preserving their types and the sharing of objects within a value.
+ *
+ * How an object is copied is decided once per class and kept in a copy plan:
+ * <ul>
+ * <li>values of immutable classes are not copied at all. A class is immutable if it is a primitive wrapper, a string,
+ * an enumeration, a class of java.time or another well known immutable class of the JDK, or if all its fields are
+ * final and of immutable types;</li>
+ * <li>arrays are copied element by element;</li>
+ * <li>collections and maps are copied into a new instance of their class, or of the closest general purpose
+ * implementation if their class cannot be instantiated;</li>
+ * <li>other objects are created with their constructor without arguments and their fields are copied;</li>
+ * <li>objects that cannot be copied this way, because their class has no constructor without arguments or belongs to
+ * a module that does not open its fields, such as most classes of the JDK, are cloned if their class has a public
+ * clone method, and shared otherwise. A warning is logged once for each class whose values are shared.</li>
+ * </ul>
+ */
+public class ReflectiveDataValueCopier implements DataValueCopier {
+
+	private static final Set<Class<?>> IMMUTABLE_CLASSES = new HashSet<Class<?>>(Arrays.<Class<?>> asList(
+			String.class, Boolean.class, Character.class, Byte.class, Short.class, Integer.class, Long.class,
+			Float.class, Double.class, BigInteger.class, BigDecimal.class, UUID.class, Locale.class, Class.class));
+
+	private enum Kind {
+		IMMUTABLE, ARRAY, COLLECTION, MAP, FIELDS, CLONE, SHARED
+	}
+
+	/**
+	 * How the objects of one class are copied.
+	 */
+	private static class CopyPlan {
+		final Kind kind;
+		/** The constructor without arguments, or null if the class cannot be instantiated this way. */
+		final Constructor<?> constructor;
+		/** The non-static fields of the class and of its super classes. */
+		final Field[] fields;
+		/** The public clone method of the class. */
+		final Method clone;
+
+		CopyPlan(Kind kind, Constructor<?> constructor, Field[] fields, Method clone) {
+			this.kind = kind;
+			this.constructor = constructor;
+			this.fields = fields;
+			this.clone = clone;
+		}
+	}
+
+	private Logger logger = LoggerFactory.getLogger(ReflectiveDataValueCopier.class);
+
+	private final ConcurrentHashMap<Class<?>, CopyPlan> plans = new ConcurrentHashMap<Class<?>, CopyPlan>();
+
+	@SuppressWarnings("unchecked")
+	public <T> T copy(T value) {
+		return (T) copy(value, new IdentityHashMap<Object, Object>());
+	}
+
+	/**
+	 * Copies a value, reusing the copies of the objects already copied as part of the same data value.
+	 */
+	private Object copy(Object value, IdentityHashMap<Object, Object> copies) {
+		if (value == null) {
+			return null;
+		}
+		CopyPlan plan = planOf(value.getClass());
+		if (plan.kind == Kind.IMMUTABLE || plan.kind == Kind.SHARED) {
+			return value;
+		}
+		Object copy = copies.get(value);
+		if (copy != null) {
+			return copy;
+		}
+
+		switch (plan.kind) {
+		case ARRAY:
+			return copyArray(value, copies);
+		case COLLECTION:
+			return copyCollection(value, plan, copies);
+		case MAP:
+			return copyMap(value, plan, copies);
+		case CLONE:
+			return cloneValue(value, plan, copies);
+		default:
+			return copyFields(value, plan, copies);
+		}
+	}
+
+	private Object copyArray(Object value, IdentityHashMap<Object, Object> copies) {
+		Class<?> componentType = value.getClass().getComponentType();
+		int length = Array.getLength(value);
+		Object copy = Array.newInstance(componentType, length);
+		copies.put(value, copy);
+		if (componentType.isPrimitive()) {
+			System.arraycopy(value, 0, copy, 0, length);
+		} else {
+			Object[] elements = (Object[]) value;
+			Object[] copiedElements = (Object[]) copy;
+			for (int i = 0; i < length; i++) {
+				copiedElements[i] = copy(elements[i], copies);
+			}
+		}
+		return copy;
+	}
+
+	@SuppressWarnings("unchecked")
+	private Object copyCollection(Object value, CopyPlan plan, IdentityHashMap<Object, Object> copies) {
+		Collection<Object> collection = (Collection<Object>) value;
+		Collection<Object> copy;
+		if (collection instanceof SortedSet) {
+			copy = new TreeSet<Object>(((SortedSet<Object>) collection).comparator());
+		} else if (plan.constructor != null) {
+			copy = (Collection<Object>) newInstance(plan);
+		} else if (collection instanceof Set) {
+			copy = new LinkedHashSet<Object>();
+		} else {
+			copy = new ArrayList<Object>(collection.size());
+		}
+		copies.put(value, copy);
+		for (Object element : collection) {
+			copy.add(copy(element, copies));
+		}
+		return copy;
+	}
+
+	@SuppressWarnings("unchecked")
+	private Object copyMap(Object value, CopyPlan plan, IdentityHashMap<Object, Object> copies) {
+		Map<Object, Object> map = (Map<Object, Object>) value;
+		Map<Object, Object> copy;
+		if (map instanceof SortedMap) {
+			copy = new TreeMap<Object, Object>(((SortedMap<Object, Object>) map).comparator());
+		} else if (plan.constructor != null) {
+			copy = (Map<Object, Object>) newInstance(plan);
+		} else {
+			copy = new LinkedHashMap<Object, Object>();
+		}
+		copies.put(value, copy);
+		for (Map.Entry<Object, Object> entry : map.entrySet()) {
+			copy.put(copy(entry.getKey(), copies), copy(entry.getValue(), copies));
+		}
+		return copy;
+	}
+
+	private Object copyFields(Object value, CopyPlan plan, IdentityHashMap<Object, Object> copies) {
+		Object copy = newInstance(plan);
+		copies.put(value, copy);
+		try {
+			for (Field field : plan.fields) {
+				Object fieldValue = field.get(value);
+				field.set(copy, field.getType().isPrimitive() ? fieldValue : copy(fieldValue, copies));
+			}
+		} catch (IllegalAccessException e) {
+			logger.error("Data value of class {} cannot be copied: {}", value.getClass().getName(), e.getMessage());
+			throw new BIPEngineException("Data value of class " + value.getClass().getName() + " cannot be copied: "
+					+ e.getMessage());
+		}
+		return copy;
+	}
+
+	/**
+	 * Clones a value whose fields cannot be copied. The clone is as deep as the clone method of its class.
+	 */
+	private Object cloneValue(Object value, CopyPlan plan, IdentityHashMap<Object, Object> copies) {
+		try {
+			Object copy = plan.clone.invoke(value);
+			copies.put(value, copy);
+			return copy;
+		} catch (Exception e) {
+			logger.error("Data value of class {} cannot be cloned: {}", value.getClass().getName(), e.toString());
+			throw new BIPEngineException("Data value of class " + value.getClass().getName() + " cannot be cloned: "
+					+ e.toString());
+		}
+	}
+
+	private Object newInstance(CopyPlan plan) {
+		try {
+			return plan.constructor.newInstance();
+		} catch (Exception e) {
+			logger.error("Data value of class {} cannot be instantiated: {}", plan.constructor.getDeclaringClass()
+					.getName(), e.toString());
+			throw new BIPEngineException("Data value of class " + plan.constructor.getDeclaringClass().getName()
+					+ " cannot be instantiated: " + e.toString());
+		}
+	}
+
+	private CopyPlan planOf(Class<?> type) {
+		CopyPlan plan = plans.get(type);
+		if (plan == null) {
+			plan = createPlan(type);
+			plans.putIfAbsent(type, plan);
+		}
+		return plan;
+	}
+
+	private CopyPlan createPlan(Class<?> type) {
+		if (isImmutable(type, new HashSet<Class<?>>())) {
+			return new CopyPlan(Kind.IMMUTABLE, null, null, null);
+		}
+		if (type.isArray()) {
+			return new CopyPlan(Kind.ARRAY, null, null, null);
+		}
+		if (Collection.class.isAssignableFrom(type)) {
+			return new CopyPlan(Kind.COLLECTION, constructorOf(type), null, null);
+		}
+		if (Map.class.isAssignableFrom(type)) {
+			return new CopyPlan(Kind.MAP, constructorOf(type), null, null);
+		}
+
+		Constructor<?> constructor = constructorOf(type);
+		List<Field> fields = instanceFields(type);
+		boolean isAccessible = constructor != null;
+		for (Iterator<Field> iterator = fields.iterator(); isAccessible && iterator.hasNext();) {
+			// the fields of a class in a module that is not open to the engine cannot be made accessible
+			isAccessible = iterator.next().trySetAccessible();
+		}
+		if (isAccessible) {
+			return new CopyPlan(Kind.FIELDS, constructor, fields.toArray(new Field[fields.size()]), null);
+		}
+
+		Method clone = publicCloneOf(type);
+		if (clone != null) {
+			return new CopyPlan(Kind.CLONE, null, null, clone);
+		}
+		logger.warn("Data values of class {} are shared instead of copied, since the class has neither accessible "
+				+ "fields and a constructor without arguments, nor a public clone method.", type.getName());
+		return new CopyPlan(Kind.SHARED, null, null, null);
+	}
+
+	/**
+	 * Returns true if the objects of a class cannot be modified. The classes being inspected are tracked to stop at
+	 * recursive fields, which are conservatively considered mutable.
+	 */
+	private static boolean isImmutable(Class<?> type, Set<Class<?>> inspected) {
+		if (type.isPrimitive() || IMMUTABLE_CLASSES.contains(type) || Enum.class.isAssignableFrom(type)
+				|| isTimeValue(type)) {
+			return true;
+		}
+		if (type.isArray() || type.isInterface() || Collection.class.isAssignableFrom(type)
+				|| Map.class.isAssignableFrom(type) || !inspected.add(type)) {
+			return false;
+		}
+		for (Field field : instanceFields(type)) {
+			/*
+			 * A field of a non-final class may refer to a mutable subclass.
+			 */
+			Class<?> fieldType = field.getType();
+			if (!Modifier.isFinal(field.getModifiers())
+					|| !(fieldType.isPrimitive() || Modifier.isFinal(fieldType.getModifiers()) || fieldType.isEnum())
+					|| !isImmutable(fieldType, inspected)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns true for the value classes of java.time, such as dates, times and durations, which are all immutable.
+	 */
+	private static boolean isTimeValue(Class<?> type) {
+		Package typePackage = type.getPackage();
+		return typePackage != null && typePackage.getName().equals("java.time")
+				&& Modifier.isFinal(type.getModifiers());
+	}
+
+	/**
+	 * Returns the public clone method of a cloneable class, or null if there is none the engine can call.
+	 */
+	private static Method publicCloneOf(Class<?> type) {
+		if (!Cloneable.class.isAssignableFrom(type)) {
+			return null;
+		}
+		try {
+			Method clone = type.getMethod("clone");
+			return clone.trySetAccessible() ? clone : null;
+		} catch (NoSuchMethodException e) {
+			return null;
+		}
+	}
+
+	private static List<Field> instanceFields(Class<?> type) {
+		List<Field> fields = new ArrayList<Field>();
+		for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+			for (Field field : current.getDeclaredFields()) {
+				if (!Modifier.isStatic(field.getModifiers())) {
+					fields.add(field);
+				}
+			}
+		}
+		return fields;
+	}
+
+	private static Constructor<?> constructorOf(Class<?> type) {
+		try {
+			Constructor<?> constructor = type.getDeclaredConstructor();
+			constructor.setAccessible(true);
+			return constructor;
+		} catch (NoSuchMethodException e) {
+			return null;
+		} catch (RuntimeException e) {
+			/*
+			 * The constructor of a class in a module that is not open to the engine cannot be made accessible.
+			 */
+			return null;
+		}
+	}
+
+}
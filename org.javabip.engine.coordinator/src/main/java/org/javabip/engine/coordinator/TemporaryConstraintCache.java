@@ -0,0 +1,185 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine.coordinator;
+
+import net.sf.javabdd.BDD;
+import org.javabip.api.BIPComponent;
+import org.javabip.api.Port;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the last temporary constraint computed for each port of each deciding component, together with the moment it
+ * was computed and the data values it was computed from. A constraint is still valid if the deciding component is in
+ * the same state, the components providing data to the port provide the same values, and none of these components has
+ * executed a transition since, which is recorded with {@link #dataChanged(BIPComponent)}.
+ *
+ * Comparing the values detects the data changed by spontaneous or internal transitions the engine is not told about,
+ * while the moments detect mutable values changed in place by an executed transition. Moments are taken from one
+ * counter, so that a component executing while a constraint is being computed makes this constraint stale.
+ */
+class TemporaryConstraintCache {
+
+	/**
+	 * A temporary constraint together with the state, the moment and the data values it was computed from.
+	 */
+	private static class CachedConstraint {
+		final String currentState;
+		final long computedAt;
+		final Map<BIPComponent, List<Object>> providedValues;
+		final BDD constraint;
+
+		CachedConstraint(String currentState, long computedAt, Map<BIPComponent, List<Object>> providedValues,
+				BDD constraint) {
+			this.currentState = currentState;
+			this.computedAt = computedAt;
+			this.providedValues = providedValues;
+			this.constraint = constraint;
+		}
+	}
+
+	private final AtomicLong clock = new AtomicLong();
+
+	/** The moment at which each component last changed its data. */
+	private final ConcurrentHashMap<BIPComponent, Long> dataVersions = new ConcurrentHashMap<BIPComponent, Long>();
+
+	/** The cached constraints of each deciding component by port id. */
+	private final Map<BIPComponent, Map<String, CachedConstraint>> constraints =
+			new HashMap<BIPComponent, Map<String, CachedConstraint>>();
+
+	/**
+	 * Records that the data of a component may have changed.
+	 *
+	 * @param component
+	 *            the component that has executed a transition or changed its state.
+	 */
+	void dataChanged(BIPComponent component) {
+		dataVersions.put(component, clock.incrementAndGet());
+	}
+
+	/**
+	 * @return the current moment, to be passed to {@link #put} once the constraint is computed.
+	 */
+	long now() {
+		return clock.get();
+	}
+
+	/**
+	 * Returns true if the cached constraint of a port is still valid.
+	 *
+	 * @param component
+	 *            the deciding component.
+	 * @param port
+	 *            the deciding port.
+	 * @param currentState
+	 *            the current state of the deciding component.
+	 * @param providedValues
+	 *            the current values of the data of the port, by providing component in the order they are obtained.
+	 * @return false if there is no constraint or if it is stale.
+	 */
+	synchronized boolean isUpToDate(BIPComponent component, Port port, String currentState,
+			Map<BIPComponent, List<Object>> providedValues) {
+		CachedConstraint cached = getCached(component, port);
+		if (cached == null || !cached.currentState.equals(currentState)
+				|| hasChangedSince(component, cached.computedAt) || !cached.providedValues.equals(providedValues)) {
+			return false;
+		}
+		for (BIPComponent provider : providedValues.keySet()) {
+			if (hasChangedSince(provider, cached.computedAt)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns a copy of the cached constraint of a port. Since it creates a BDD, it must be called from the thread that
+	 * owns the BDD manager.
+	 *
+	 * @param component
+	 *            the deciding component.
+	 * @param port
+	 *            the deciding port.
+	 * @return a copy of the constraint, or null if there is none or if it disables nothing.
+	 */
+	synchronized BDD getConstraint(BIPComponent component, Port port) {
+		CachedConstraint cached = getCached(component, port);
+		return cached == null || cached.constraint == null ? null : cached.constraint.id();
+	}
+
+	/**
+	 * Caches the constraint of a port, replacing the previous one.
+	 *
+	 * @param component
+	 *            the deciding component.
+	 * @param port
+	 *            the deciding port.
+	 * @param currentState
+	 *            the current state of the deciding component.
+	 * @param computedAt
+	 *            the moment, as returned by {@link #now()}, before the data used by the constraint was obtained.
+	 * @param providedValues
+	 *            the values of the data of the port the constraint was computed from, by providing component.
+	 * @param constraint
+	 *            the constraint, which is kept and must not be freed by the caller, or null if nothing is disabled.
+	 */
+	synchronized void put(BIPComponent component, Port port, String currentState, long computedAt,
+			Map<BIPComponent, List<Object>> providedValues, BDD constraint) {
+		Map<String, CachedConstraint> componentConstraints = constraints.get(component);
+		if (componentConstraints == null) {
+			componentConstraints = new HashMap<String, CachedConstraint>();
+			constraints.put(component, componentConstraints);
+		}
+		CachedConstraint previous = componentConstraints.put(port.getId(), new CachedConstraint(currentState,
+				computedAt, providedValues, constraint));
+		if (previous != null && previous.constraint != null) {
+			previous.constraint.free();
+		}
+	}
+
+	/**
+	 * Frees all the cached constraints and empties the cache. Like {@link #getConstraint}, it must be called from the
+	 * thread that owns the BDD manager.
+	 */
+	synchronized void clear() {
+		for (Map<String, CachedConstraint> componentConstraints : constraints.values()) {
+			for (CachedConstraint cached : componentConstraints.values()) {
+				if (cached.constraint != null) {
+					cached.constraint.free();
+				}
+			}
+		}
+		constraints.clear();
+	}
+
+	private CachedConstraint getCached(BIPComponent component, Port port) {
+		Map<String, CachedConstraint> componentConstraints = constraints.get(component);
+		return componentConstraints == null ? null : componentConstraints.get(port.getId());
+	}
+
+	private boolean hasChangedSince(BIPComponent component, long moment) {
+		Long version = dataVersions.get(component);
+		return version != null && version > moment;
+	}
+
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine.coordinator;
+
+import org.javabip.exceptions.BIPEngineException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the records of a trace written by a {@link TraceRecorder}, one at a time.
+ */
+public class TraceReader implements Closeable {
+
+	private Logger logger = LoggerFactory.getLogger(TraceReader.class);
+
+	private final File file;
+	private final DataInputStream in;
+
+	/** The names read so far, by index. Index zero stands for null. */
+	private final List<String> names = new ArrayList<String>();
+
+	/**
+	 * Opens a trace file.
+	 * 
+	 * @param file
+	 *            the trace file.
+	 * @throws IOException
+	 *             if the file cannot be read.
+	 * @throws BIPEngineException
+	 *             if the file is not a trace of this version.
+	 */
+	public TraceReader(File file) throws IOException, BIPEngineException {
+		this.file = file;
+		this.in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+		names.add(null);
+		if (in.readInt() != TraceRecorder.MAGIC || in.readByte() != TraceRecorder.VERSION) {
+			in.close();
+			logger.error("The file {} is not a trace of version {}.", file, TraceRecorder.VERSION);
+			throw new BIPEngineException("The file " + file + " is not a trace of version " + TraceRecorder.VERSION
+					+ ".");
+		}
+	}
+
+	/**
+	 * Reads the next record.
+	 * 
+	 * @return the record, or null at the end of the trace. A trace that was not closed properly ends at its last
+	 *         complete record.
+	 * @throws IOException
+	 *             if the file cannot be read.
+	 */
+	public TraceRecord next() throws IOException {
+		int kind = in.read();
+		if (kind == -1) {
+			return null;
+		}
+		try {
+			return readRecord(kind);
+		} catch (EOFException e) {
+			logger.warn("The trace file {} ends with an incomplete record.", file);
+			return null;
+		}
+	}
+
+	private TraceRecord readRecord(int kind) throws IOException {
+		TraceRecord record;
+		switch (kind) {
+		case TraceRecorder.REGISTER:
+			record = new TraceRecord(TraceRecord.Kind.REGISTER);
+			record.componentId = readName();
+			record.componentType = readName();
+			record.state = readName();
+			readPortsByName(record.portsByName);
+			readPortIds(record.ports);
+			readPortsByName(record.dataPorts);
+			return record;
+		case TraceRecorder.DATA_OUT:
+			record = new TraceRecord(TraceRecord.Kind.DATA_OUT);
+			record.componentId = readName();
+			record.dataName = readName();
+			readPortIds(record.ports);
+			return record;
+		case TraceRecorder.INFORM:
+			record = new TraceRecord(TraceRecord.Kind.INFORM);
+			record.componentId = readName();
+			record.state = readName();
+			readPortIds(record.ports);
+			return record;
+		case TraceRecorder.INFORM_SPECIFIC:
+			record = new TraceRecord(TraceRecord.Kind.INFORM_SPECIFIC);
+			record.componentId = readName();
+			record.portId = readName();
+			readPortsByName(record.portsByName);
+			return record;
+		case TraceRecorder.INTERACTION:
+			record = new TraceRecord(TraceRecord.Kind.INTERACTION);
+			int nbGroups = readVarInt();
+			for (int i = 0; i < nbGroups; i++) {
+				int nbPorts = readVarInt();
+				List<TraceRecord.PortReference> portGroup = new ArrayList<TraceRecord.PortReference>(nbPorts);
+				for (int j = 0; j < nbPorts; j++) {
+					String componentId = readName();
+					portGroup.add(new TraceRecord.PortReference(componentId, readName()));
+				}
+				record.portGroups.add(portGroup);
+			}
+			return record;
+		default:
+			logger.error("The trace file {} contains an unknown record {}.", file, kind);
+			throw new BIPEngineException("The trace file " + file + " contains an unknown record " + kind + ".");
+		}
+	}
+
+	public void close() throws IOException {
+		in.close();
+	}
+
+	private void readPortsByName(Map<String, List<String>> portsByName) throws IOException {
+		int size = readVarInt();
+		for (int i = 0; i < size; i++) {
+			String name = readName();
+			List<String> ports = new ArrayList<String>();
+			readPortIds(ports);
+			portsByName.put(name, ports);
+		}
+	}
+
+	private void readPortIds(List<String> ports) throws IOException {
+		int size = readVarInt();
+		for (int i = 0; i < size; i++) {
+			ports.add(readName());
+		}
+	}
+
+	private String readName() throws IOException {
+		int index = readVarInt();
+		if (index < names.size()) {
+			return names.get(index);
+		}
+		if (index != names.size()) {
+			logger.error("The trace file {} refers to an unknown name {}.", file, index);
+			throw new BIPEngineException("The trace file " + file + " refers to an unknown name " + index + ".");
+		}
+		String name = in.readUTF();
+		names.add(name);
+		return name;
+	}
+
+	private int readVarInt() throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			int b = in.readByte();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		logger.error("The trace file {} contains a malformed number.", file);
+		throw new BIPEngineException("The trace file " + file + " contains a malformed number.");
+	}
+
+}
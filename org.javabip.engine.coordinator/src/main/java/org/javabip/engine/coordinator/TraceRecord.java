@@ -0,0 +1,144 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine.coordinator;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One record of a trace read by a {@link TraceReader}. Components and ports are referred to by their ids, and only the
+ * getters relevant to the kind of the record return something.
+ */
+public class TraceRecord {
+
+	/**
+	 * The kinds of records.
+	 */
+	public enum Kind {
+		REGISTER, DATA_OUT, INFORM, INFORM_SPECIFIC, INTERACTION
+	}
+
+	/**
+	 * A port of a component, within an interaction.
+	 */
+	public static class PortReference {
+		private final String componentId;
+		private final String portId;
+
+		PortReference(String componentId, String portId) {
+			this.componentId = componentId;
+			this.portId = portId;
+		}
+
+		public String getComponentId() {
+			return componentId;
+		}
+
+		public String getPortId() {
+			return portId;
+		}
+	}
+
+	private final Kind kind;
+	String componentId;
+	String componentType;
+	String state;
+	String portId;
+	String dataName;
+	List<String> ports = new ArrayList<String>();
+	Map<String, List<String>> portsByName = new LinkedHashMap<String, List<String>>();
+	Map<String, List<String>> dataPorts = new LinkedHashMap<String, List<String>>();
+	List<List<PortReference>> portGroups = new ArrayList<List<PortReference>>();
+
+	TraceRecord(Kind kind) {
+		this.kind = kind;
+	}
+
+	public Kind getKind() {
+		return kind;
+	}
+
+	/**
+	 * @return the id of the registered, providing, informing or deciding component.
+	 */
+	public String getComponentId() {
+		return componentId;
+	}
+
+	/**
+	 * @return the type of the registered component.
+	 */
+	public String getComponentType() {
+		return componentType;
+	}
+
+	/**
+	 * @return the initial state of the registered component, or the current state of the informing component.
+	 */
+	public String getState() {
+		return state;
+	}
+
+	/**
+	 * @return the id of the deciding port of an informSpecific.
+	 */
+	public String getPortId() {
+		return portId;
+	}
+
+	/**
+	 * @return the name of the provided data.
+	 */
+	public String getDataName() {
+		return dataName;
+	}
+
+	/**
+	 * @return the enforceable ports of the registered component, the ports providing the data, or the disabled ports
+	 *         of the informing component.
+	 */
+	public List<String> getPorts() {
+		return ports;
+	}
+
+	/**
+	 * @return the ports enabled in each state of the registered component, or the disabled ports of each component in
+	 *         the disabled combinations of an informSpecific.
+	 */
+	public Map<String, List<String>> getPortsByName() {
+		return portsByName;
+	}
+
+	/**
+	 * @return the ports of the registered component needing each data.
+	 */
+	public Map<String, List<String>> getDataPorts() {
+		return dataPorts;
+	}
+
+	/**
+	 * @return the groups of ports of an interaction, empty if no port was executed.
+	 */
+	public List<List<PortReference>> getPortGroups() {
+		return portGroups;
+	}
+
+}
@@ -0,0 +1,328 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine.coordinator;
+
+import org.javabip.api.BIPComponent;
+import org.javabip.api.Behaviour;
+import org.javabip.api.Data;
+import org.javabip.api.Port;
+import org.javabip.exceptions.BIPEngineException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Records the traffic received by an engine into a compact binary file, so that it can be replayed later without the
+ * components, see {@link TraceReader}. The following records are written, in the order they are received:
+ * <ul>
+ * <li>the registration of each component, with a summary of its behaviour: its type, initial state, states, the
+ * ports enabled in each state, its enforceable ports and the ports needing each data;</li>
+ * <li>the ports providing each data of each component, once the data wires are known;</li>
+ * <li>each inform, with the current state and the disabled ports;</li>
+ * <li>each informSpecific, with the disabled combinations of the deciding port;</li>
+ * <li>each interaction chosen by the engine.</li>
+ * </ul>
+ * 
+ * Names are written once, the first time they appear, and referred to by their index afterwards. If the file cannot
+ * be written, recording stops but the engine goes on.
+ */
+public class TraceRecorder implements Closeable {
+
+	static final int MAGIC = 0x42495054;
+	static final int VERSION = 1;
+
+	static final int REGISTER = 1;
+	static final int DATA_OUT = 2;
+	static final int INFORM = 3;
+	static final int INFORM_SPECIFIC = 4;
+	static final int INTERACTION = 5;
+
+	private Logger logger = LoggerFactory.getLogger(TraceRecorder.class);
+
+	private final File file;
+	private final DataOutputStream out;
+	private boolean isClosed;
+
+	/** The index of each name written so far. Index zero stands for null. */
+	private final Map<String, Integer> names = new HashMap<String, Integer>();
+
+	/**
+	 * The disabled combinations last recorded for each deciding port, for the decisions that are answered from the
+	 * temporary constraint cache.
+	 */
+	private final Map<Port, Map<BIPComponent, Set<Port>>> lastCombinations =
+			new HashMap<Port, Map<BIPComponent, Set<Port>>>();
+
+	/**
+	 * Creates the trace file, replacing an existing one.
+	 * 
+	 * @param file
+	 *            the trace file.
+	 * @throws BIPEngineException
+	 *             if the file cannot be created.
+	 */
+	public TraceRecorder(File file) throws BIPEngineException {
+		this.file = file;
+		try {
+			out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+			out.writeInt(MAGIC);
+			out.writeByte(VERSION);
+		} catch (IOException e) {
+			logger.error("The trace file {} cannot be created: {}", file, e.getMessage());
+			throw new BIPEngineException("The trace file " + file + " cannot be created: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Records the registration of a component.
+	 * 
+	 * @param component
+	 *            the registered component.
+	 * @param behaviour
+	 *            the behaviour of the component.
+	 */
+	public synchronized void recordRegister(BIPComponent component, Behaviour behaviour) {
+		if (isClosed) {
+			return;
+		}
+		try {
+			out.writeByte(REGISTER);
+			writeName(component.getId());
+			writeName(behaviour.getComponentType());
+			writeName(behaviour.getCurrentState());
+			Map<String, Set<Port>> stateToPorts = behaviour.getStateToPorts();
+			writeVarInt(behaviour.getStates().size());
+			for (String state : behaviour.getStates()) {
+				writeName(state);
+				writePortIds(stateToPorts.get(state));
+			}
+			writePortIds(behaviour.getEnforceablePorts());
+
+			Set<String> dataNames = new LinkedHashSet<String>();
+			for (Port port : behaviour.getEnforceablePorts()) {
+				for (Data<?> data : behaviour.portToDataInForGuard(port)) {
+					dataNames.add(data.name());
+				}
+				for (Data<?> data : behaviour.portToDataInForTransition(port)) {
+					dataNames.add(data.name());
+				}
+			}
+			writeVarInt(dataNames.size());
+			for (String dataName : dataNames) {
+				writeName(dataName);
+				writePortIds(behaviour.portsNeedingData(dataName));
+			}
+		} catch (IOException e) {
+			failed(e);
+		}
+	}
+
+	/**
+	 * Records the ports of a component that provide a data.
+	 * 
+	 * @param component
+	 *            the providing component.
+	 * @param dataName
+	 *            the name of the data.
+	 * @param ports
+	 *            the providing ports.
+	 */
+	public synchronized void recordDataOut(BIPComponent component, String dataName, Collection<Port> ports) {
+		if (isClosed) {
+			return;
+		}
+		try {
+			out.writeByte(DATA_OUT);
+			writeName(component.getId());
+			writeName(dataName);
+			writePortIds(ports);
+		} catch (IOException e) {
+			failed(e);
+		}
+	}
+
+	/**
+	 * Records an inform.
+	 * 
+	 * @param component
+	 *            the informing component.
+	 * @param currentState
+	 *            the current state of the component.
+	 * @param disabledPorts
+	 *            the ports disabled by the guards of the component.
+	 */
+	public synchronized void recordInform(BIPComponent component, String currentState, Set<Port> disabledPorts) {
+		if (isClosed) {
+			return;
+		}
+		try {
+			out.writeByte(INFORM);
+			writeName(component.getId());
+			writeName(currentState);
+			writePortIds(disabledPorts);
+		} catch (IOException e) {
+			failed(e);
+		}
+	}
+
+	/**
+	 * Records an informSpecific. Nothing is recorded if no combination is disabled.
+	 * 
+	 * @param decidingComponent
+	 *            the deciding component.
+	 * @param decidingPort
+	 *            the deciding port.
+	 * @param disabledCombinations
+	 *            the disabled combinations, or null if they are the same as the last ones recorded for this port.
+	 */
+	public synchronized void recordInformSpecific(BIPComponent decidingComponent, Port decidingPort,
+			Map<BIPComponent, Set<Port>> disabledCombinations) {
+		if (isClosed) {
+			return;
+		}
+		if (disabledCombinations == null) {
+			disabledCombinations = lastCombinations.get(decidingPort);
+		} else {
+			lastCombinations.put(decidingPort, disabledCombinations);
+		}
+		if (disabledCombinations == null || disabledCombinations.isEmpty()) {
+			return;
+		}
+		try {
+			out.writeByte(INFORM_SPECIFIC);
+			writeName(decidingComponent.getId());
+			writeName(decidingPort.getId());
+			writeVarInt(disabledCombinations.size());
+			for (Map.Entry<BIPComponent, Set<Port>> combination : disabledCombinations.entrySet()) {
+				writeName(combination.getKey().getId());
+				writePortIds(combination.getValue());
+			}
+		} catch (IOException e) {
+			failed(e);
+		}
+	}
+
+	/**
+	 * Records an interaction chosen by the engine.
+	 * 
+	 * @param portGroups
+	 *            the groups of ports to execute, or null if no port is executed.
+	 */
+	public synchronized void recordInteraction(List<List<Port>> portGroups) {
+		if (isClosed) {
+			return;
+		}
+		try {
+			out.writeByte(INTERACTION);
+			if (portGroups == null) {
+				writeVarInt(0);
+				return;
+			}
+			writeVarInt(portGroups.size());
+			for (List<Port> portGroup : portGroups) {
+				writeVarInt(portGroup.size());
+				for (Port port : portGroup) {
+					writeName(port.component().getId());
+					writeName(port.getId());
+				}
+			}
+		} catch (IOException e) {
+			failed(e);
+		}
+	}
+
+	/**
+	 * Writes the buffered records and closes the file. Later records are ignored.
+	 */
+	public synchronized void close() {
+		if (isClosed) {
+			return;
+		}
+		isClosed = true;
+		try {
+			out.close();
+		} catch (IOException e) {
+			logger.error("The trace file {} cannot be closed: {}", file, e.getMessage());
+		}
+	}
+
+	private void writePortIds(Collection<Port> ports) throws IOException {
+		if (ports == null) {
+			writeVarInt(0);
+			return;
+		}
+		writeVarInt(ports.size());
+		for (Port port : ports) {
+			writeName(port.getId());
+		}
+	}
+
+	/**
+	 * Writes the index of a name, followed by the name itself if it is written for the first time.
+	 */
+	private void writeName(String name) throws IOException {
+		if (name == null) {
+			writeVarInt(0);
+			return;
+		}
+		Integer index = names.get(name);
+		if (index != null) {
+			writeVarInt(index);
+		} else {
+			index = names.size() + 1;
+			names.put(name, index);
+			writeVarInt(index);
+			out.writeUTF(name);
+		}
+	}
+
+	/**
+	 * Writes a non-negative integer in as few bytes as possible, seven bits per byte.
+	 */
+	private void writeVarInt(int value) throws IOException {
+		while ((value & ~0x7F) != 0) {
+			out.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte(value);
+	}
+
+	private void failed(IOException e) {
+		logger.error("Recording stopped, the trace file {} cannot be written: {}", file, e.getMessage());
+		isClosed = true;
+		try {
+			out.close();
+		} catch (IOException ignored) {
+			// The file is already broken.
+		}
+	}
+
+}
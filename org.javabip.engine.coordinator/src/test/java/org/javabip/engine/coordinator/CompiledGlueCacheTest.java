@@ -0,0 +1,107 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine.coordinator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+import org.javabip.api.BIPComponent;
+import org.javabip.api.BIPGlue;
+import org.javabip.api.Behaviour;
+import org.javabip.api.DataWire;
+import org.javabip.api.PortBase;
+import org.javabip.engine.api.FiniteDataDomain;
+import org.javabip.engine.api.SymbolicGuard;
+import org.junit.Test;
+
+public class CompiledGlueCacheTest {
+
+	private final CompiledGlueCache cache = new CompiledGlueCache(new File("unused.glue.bdd"));
+
+	private final BIPGlue glue = Proxies.proxy(BIPGlue.class, "getRequiresConstraints", Collections.emptyList(),
+			"getAcceptConstraints", Collections.emptyList(), "getDataWires", Collections.singletonList(Proxies.proxy(
+					DataWire.class, "getFrom", Proxies.proxy(PortBase.class, "getSpecType", "Provider", "getId", "out"),
+					"getTo", Proxies.proxy(PortBase.class, "getSpecType", "Consumer", "getId", "in"))));
+
+	private final List<FiniteDataDomain> domains = Collections.singletonList(new FiniteDataDomain("Provider", "out",
+			Integer.class, Arrays.asList(1, 2, 3, 4)));
+
+	@Test
+	public void keyWithoutSymbolicDataIsTheKeyOfTheGlue() {
+		assertEquals(key(Collections.<FiniteDataDomain> emptyList(), Collections.<SymbolicGuard> emptyList()),
+				cache.computeKey(glue, new HashMap<String, List<BIPComponent>>(),
+						new HashMap<BIPComponent, Behaviour>()));
+	}
+
+	@Test
+	public void keyDependsOnTheResultsOfTheSymbolicGuards() {
+		String even = key(domains, Collections.singletonList(guard("take", 2, 0)));
+		String odd = key(domains, Collections.singletonList(guard("take", 2, 1)));
+		String evenAgain = key(domains, Collections.<SymbolicGuard> singletonList(new SymbolicGuard("Consumer", "take",
+				"in") {
+			public boolean isEnabled(Object value) {
+				return value.equals(2) || value.equals(4);
+			}
+		}));
+
+		assertFalse(even.equals(odd));
+		assertEquals(even, evenAgain);
+	}
+
+	@Test
+	public void keyDependsOnTheDomains() {
+		List<SymbolicGuard> guards = Collections.singletonList(guard("take", 2, 0));
+		List<FiniteDataDomain> otherDomains = Collections.singletonList(new FiniteDataDomain("Provider", "out",
+				Integer.class, Arrays.asList(1, 2, 3)));
+
+		assertFalse(key(domains, guards).equals(key(otherDomains, guards)));
+		assertFalse(key(domains, guards).equals(key(Collections.<FiniteDataDomain> emptyList(), guards)));
+	}
+
+	@Test
+	public void keyDoesNotDependOnTheOrderOfTheGuards() {
+		SymbolicGuard take = guard("take", 2, 0);
+		SymbolicGuard give = guard("give", 2, 1);
+
+		assertEquals(key(domains, Arrays.asList(take, give)), key(domains, Arrays.asList(give, take)));
+	}
+
+	private String key(List<FiniteDataDomain> domains, List<SymbolicGuard> guards) {
+		return cache.computeKey(glue, new HashMap<String, List<BIPComponent>>(),
+				new HashMap<BIPComponent, Behaviour>(), domains, guards);
+	}
+
+	/**
+	 * @return a guard of a port of the consumer over "in" that holds if the value modulo the divisor is the remainder.
+	 */
+	private static SymbolicGuard guard(String portId, final int divisor, final int remainder) {
+		return new SymbolicGuard("Consumer", portId, "in") {
+			public boolean isEnabled(Object value) {
+				return (Integer) value % divisor == remainder;
+			}
+		};
+	}
+
+}
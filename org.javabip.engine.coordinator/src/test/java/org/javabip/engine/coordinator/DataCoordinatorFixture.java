@@ -0,0 +1,217 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine.coordinator;
+
+import org.javabip.api.BIPComponent;
+import org.javabip.api.BIPGlue;
+import org.javabip.api.Behaviour;
+import org.javabip.api.Data;
+import org.javabip.api.DataWire;
+import org.javabip.api.Port;
+import org.javabip.api.PortBase;
+import org.javabip.exceptions.BIPException;
+import org.javabip.engine.api.BehaviourEncoder;
+import org.javabip.engine.api.DataEncoder;
+import org.javabip.engine.api.GlueCoordinator;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A DataCoordinatorKernel over a fake glue coordinator and data encoder, with one consumer whose port "take" has a
+ * guard on the data "in" and receives it when it executes, and providers whose port "give" provides the data "out"
+ * wired to "in". All the components stay in the state "s".
+ * 
+ * The fakes record the components informing the glue coordinator, and the disabled combinations and data values sent
+ * to the data encoder. The data encoder fails to encode the symbolic data if symbolicDataFailure is set.
+ */
+class DataCoordinatorFixture {
+
+	static final String STATE = "s";
+
+	final TestComponent consumer = new TestComponent("consumer", "Consumer");
+	final Port take = new TestPort("take", "Consumer", consumer);
+	final List<TestComponent> providers = new ArrayList<TestComponent>();
+	final Map<BIPComponent, Port> gives = new HashMap<BIPComponent, Port>();
+
+	final BlockingQueue<BIPComponent> informed = new LinkedBlockingQueue<BIPComponent>();
+	final List<Map<BIPComponent, Set<Port>>> disabledCombinations = Collections
+			.synchronizedList(new ArrayList<Map<BIPComponent, Set<Port>>>());
+	final List<Object> encodedValues = Collections.synchronizedList(new ArrayList<Object>());
+	volatile RuntimeException symbolicDataFailure;
+
+	private final Map<BIPComponent, Behaviour> behaviours = new LinkedHashMap<BIPComponent, Behaviour>();
+
+	final DataCoordinatorKernel kernel;
+
+	/**
+	 * @param values
+	 *            the initial value of the data of each provider.
+	 */
+	DataCoordinatorFixture(int... values) {
+		behaviours.put(consumer, behaviour("Consumer", take, Collections.<Data<?>> singleton(data("in")),
+				Collections.<String, Set<Port>> emptyMap()));
+		for (int i = 0; i < values.length; i++) {
+			TestComponent provider = new TestComponent("provider" + i, "Provider").setValue("out", values[i]);
+			Port give = new TestPort("give", "Provider", provider);
+			providers.add(provider);
+			gives.put(provider, give);
+			behaviours.put(provider, behaviour("Provider", give, Collections.<Data<?>> emptySet(),
+					Collections.singletonMap("out", Collections.singleton(give))));
+		}
+
+		final Map<Port, Integer> portToPosition = new HashMap<Port, Integer>();
+		portToPosition.put(take, 0);
+		for (TestComponent provider : providers) {
+			portToPosition.put(gives.get(provider), portToPosition.size());
+		}
+		final BehaviourEncoder behaviourEncoder = Proxies.proxy(BehaviourEncoder.class, "getPortToPosition",
+				portToPosition);
+		GlueCoordinator glueCoordinator = Proxies.proxy(GlueCoordinator.class, "getBehaviourEncoderInstance",
+				behaviourEncoder, "getBehaviourByComponent",
+				new Proxies.Answer() {
+					public Object answer(Object[] args) {
+						return behaviours.get(args[0]);
+					}
+				}, "inform", new Proxies.Answer() {
+					public Object answer(Object[] args) {
+						informed.add((BIPComponent) args[0]);
+						return null;
+					}
+				});
+		DataEncoder dataEncoder = Proxies.proxy(DataEncoder.class, "encodeDisabledCombinations",
+				new Proxies.Answer() {
+					@SuppressWarnings("unchecked")
+					public Object answer(Object[] args) {
+						disabledCombinations.add((Map<BIPComponent, Set<Port>>) args[2]);
+						return null;
+					}
+				}, "encodeDataValue", new Proxies.Answer() {
+					public Object answer(Object[] args) {
+						encodedValues.add(args[2]);
+						return null;
+					}
+				}, "specifySymbolicData", new Proxies.Answer() {
+					public Object answer(Object[] args) {
+						if (symbolicDataFailure != null) {
+							throw symbolicDataFailure;
+						}
+						return Collections.emptySet();
+					}
+				});
+		kernel = new DataCoordinatorKernel(glueCoordinator, dataEncoder);
+
+		PortBase from = Proxies.proxy(PortBase.class, "getSpecType", "Provider", "getId", "out");
+		final PortBase to = Proxies.proxy(PortBase.class, "getSpecType", "Consumer", "getId", "in");
+		DataWire wire = Proxies.proxy(DataWire.class, "getFrom", from, "getTo", to, "isIncoming",
+				new Proxies.Answer() {
+					public Object answer(Object[] args) {
+						return to.getId().equals(args[0]) && to.getSpecType().equals(args[1]);
+					}
+				});
+		kernel.specifyGlue(Proxies.proxy(BIPGlue.class, "getDataWires", Collections.singletonList(wire),
+				"getRequiresConstraints", Collections.emptyList(), "getAcceptConstraints", Collections.emptyList()));
+		for (BIPComponent component : behaviours.keySet()) {
+			kernel.register(component);
+		}
+	}
+
+	DataCoordinatorFixture start() {
+		kernel.start();
+		return this;
+	}
+
+	/**
+	 * Informs the data coordinator that a component is in its only state.
+	 */
+	void inform(BIPComponent component) {
+		kernel.inform(component, STATE, Collections.<Port> emptySet());
+	}
+
+	/**
+	 * Executes the interaction of the consumer with a provider as if the engine had chosen it, so that the data of the
+	 * provider is transferred to the consumer.
+	 */
+	void execute(TestComponent provider) {
+		int dVariable = providers.size() + 1;
+		kernel.getdVarPositionsToWires().put(dVariable, new AbstractMap.SimpleEntry<Port, Port>(take,
+				gives.get(provider)));
+		kernel.getPositionsOfDVariables().clear();
+		kernel.getPositionsOfDVariables().add(dVariable);
+
+		byte[] valuation = new byte[dVariable + 1];
+		valuation[0] = 1;
+		valuation[providers.indexOf(provider) + 1] = 1;
+		valuation[dVariable] = 1;
+		kernel.execute();
+		kernel.execute(valuation);
+	}
+
+	/**
+	 * Ends the execution cycle as if no interaction was chosen.
+	 */
+	void nextCycle() throws BIPException {
+		kernel.executeInteractions(null);
+	}
+
+	/**
+	 * @return the next component that informed the glue coordinator, or null if none did within five seconds.
+	 */
+	BIPComponent awaitInform() throws InterruptedException {
+		return informed.poll(5, TimeUnit.SECONDS);
+	}
+
+	private static Behaviour behaviour(String type, Port port, Set<Data<?>> guardData,
+			final Map<String, Set<Port>> providingPorts) {
+		final Map<String, Set<Port>> neededBy = new HashMap<String, Set<Port>>();
+		for (Data<?> data : guardData) {
+			neededBy.put(data.name(), Collections.singleton(port));
+		}
+		// the coordinator expects array lists of enforceable ports
+		List<Port> enforceablePorts = new ArrayList<Port>(Collections.singleton(port));
+		return Proxies.proxy(Behaviour.class, "getComponentType", type, "getEnforceablePorts", enforceablePorts,
+				"getStates", Collections.singleton(STATE), "getStateToPorts",
+				Collections.singletonMap(STATE, Collections.singleton(port)), "portToDataInForGuard", guardData,
+				"portToDataInForTransition", guardData, "portsNeedingData", new Proxies.Answer() {
+					public Object answer(Object[] args) {
+						Set<Port> ports = neededBy.get(args[0]);
+						return ports == null ? Collections.<Port> emptySet() : ports;
+					}
+				}, "getDataProvidingPorts", new Proxies.Answer() {
+					public Object answer(Object[] args) {
+						Set<Port> ports = providingPorts.get(args[0]);
+						return ports == null ? Collections.<Port> emptySet() : ports;
+					}
+				});
+	}
+
+	private static Data<?> data(String name) {
+		return Proxies.proxy(Data.class, "name", name, "type", Object.class);
+	}
+
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine.coordinator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.javabip.api.BIPComponent;
+import org.javabip.api.Port;
+import org.javabip.engine.api.FiniteDataDomain;
+import org.javabip.engine.api.SymbolicGuard;
+import org.junit.Test;
+
+public class DataCoordinatorKernelTest {
+
+	/**
+	 * Enables the port of the consumer only for even values.
+	 */
+	private static final TestComponent.Guard EVEN = new TestComponent.Guard() {
+		public boolean isEnabled(String portId, Map<String, Object> valuation) {
+			return (Integer) valuation.get("in") % 2 == 0;
+		}
+	};
+
+	@Test
+	public void componentInformsEvenIfItsGuardThrowsOnThePool() throws InterruptedException {
+		DataCoordinatorFixture fixture = new DataCoordinatorFixture(1, 2).start();
+		fixture.consumer.setGuard(new TestComponent.Guard() {
+			public boolean isEnabled(String portId, Map<String, Object> valuation) {
+				throw new IllegalStateException("guard failure");
+			}
+		});
+		fixture.kernel.setGuardEvaluationThreads(1);
+		try {
+			fixture.inform(fixture.consumer);
+			assertSame(fixture.consumer, fixture.awaitInform());
+		} finally {
+			fixture.kernel.setGuardEvaluationThreads(0);
+		}
+	}
+
+	@Test
+	public void guardOverProvidedDataDisablesTheProvidingPorts() {
+		DataCoordinatorFixture fixture = new DataCoordinatorFixture(1, 2, 3).start();
+		fixture.consumer.setGuard(EVEN);
+
+		fixture.inform(fixture.consumer);
+
+		assertEquals(3, fixture.consumer.nbGuardEvaluations.get());
+		assertEquals(1, fixture.disabledCombinations.size());
+		Map<BIPComponent, Set<Port>> disabled = fixture.disabledCombinations.get(0);
+		assertEquals(2, disabled.size());
+		assertEquals(Collections.singleton(fixture.gives.get(fixture.providers.get(0))), disabled.get(fixture.providers
+				.get(0)));
+		assertEquals(Collections.singleton(fixture.gives.get(fixture.providers.get(2))), disabled.get(fixture.providers
+				.get(2)));
+	}
+
+	@Test
+	public void providerValuesAreFetchedAgainWhenTheProviderInforms() {
+		DataCoordinatorFixture fixture = new DataCoordinatorFixture(1, 2).start();
+		fixture.consumer.setGuard(EVEN);
+		fixture.inform(fixture.consumer);
+
+		// the providers execute a transition within the same cycle and inform afterwards
+		fixture.providers.get(0).setValue("out", 4);
+		fixture.providers.get(1).setValue("out", 3);
+		for (TestComponent provider : fixture.providers) {
+			fixture.inform(provider);
+		}
+		fixture.inform(fixture.consumer);
+
+		assertEquals(2, fixture.disabledCombinations.size());
+		assertDisabled(fixture, fixture.providers.get(0), fixture.disabledCombinations.get(0));
+		assertDisabled(fixture, fixture.providers.get(1), fixture.disabledCombinations.get(1));
+	}
+
+	@Test
+	public void transferredValuesAreCopied() {
+		DataCoordinatorFixture fixture = new DataCoordinatorFixture(1).start();
+		List<Integer> value = new ArrayList<Integer>(Arrays.asList(1, 2));
+		fixture.providers.get(0).setValue("out", value);
+
+		fixture.execute(fixture.providers.get(0));
+
+		Object received = fixture.consumer.getData("in", Object.class);
+		assertEquals(value, received);
+		assertNotSame(value, received);
+	}
+
+	@Test
+	public void transferredValuesAreSharedWithoutCopier() {
+		DataCoordinatorFixture fixture = new DataCoordinatorFixture(1).start();
+		List<Integer> value = new ArrayList<Integer>(Arrays.asList(1, 2));
+		fixture.providers.get(0).setValue("out", value);
+		fixture.kernel.setDataValueCopier(null);
+
+		fixture.execute(fixture.providers.get(0));
+
+		assertSame(value, fixture.consumer.getData("in", Object.class));
+	}
+
+	@Test
+	public void temporaryConstraintIsReusedWhileDataIsUnchanged() throws Exception {
+		DataCoordinatorFixture fixture = new DataCoordinatorFixture(1, 2).start();
+		fixture.consumer.setGuard(EVEN);
+		fixture.kernel.setTemporaryConstraintReuse(true);
+
+		fixture.inform(fixture.consumer);
+		fixture.nextCycle();
+		fixture.inform(fixture.consumer);
+
+		assertEquals(2, fixture.consumer.nbGuardEvaluations.get());
+		assertEquals(1, fixture.disabledCombinations.size());
+	}
+
+	@Test
+	public void temporaryConstraintIsRecomputedWhenProviderChangesDataBeforeInforming() throws Exception {
+		DataCoordinatorFixture fixture = new DataCoordinatorFixture(1, 2).start();
+		fixture.consumer.setGuard(EVEN);
+		fixture.kernel.setTemporaryConstraintReuse(true);
+		fixture.inform(fixture.consumer);
+		fixture.nextCycle();
+
+		// a spontaneous transition the engine is not told about, the consumer informs first
+		fixture.providers.get(0).setValue("out", 4);
+		fixture.providers.get(1).setValue("out", 3);
+		fixture.inform(fixture.consumer);
+
+		assertEquals(2, fixture.disabledCombinations.size());
+		assertDisabled(fixture, fixture.providers.get(1), fixture.disabledCombinations.get(1));
+	}
+
+	@Test
+	public void temporaryConstraintIsRecomputedWhenProviderChangesDataInTheSameState() throws Exception {
+		DataCoordinatorFixture fixture = new DataCoordinatorFixture(1, 2).start();
+		fixture.consumer.setGuard(EVEN);
+		fixture.kernel.setTemporaryConstraintReuse(true);
+		for (TestComponent provider : fixture.providers) {
+			fixture.inform(provider);
+		}
+		fixture.inform(fixture.consumer);
+		fixture.nextCycle();
+
+		// the provider informs about the same state after changing its data
+		fixture.providers.get(0).setValue("out", 4);
+		fixture.providers.get(1).setValue("out", 3);
+		for (TestComponent provider : fixture.providers) {
+			fixture.inform(provider);
+		}
+		fixture.inform(fixture.consumer);
+
+		assertEquals(2, fixture.disabledCombinations.size());
+		assertDisabled(fixture, fixture.providers.get(1), fixture.disabledCombinations.get(1));
+	}
+
+	@Test
+	public void temporaryConstraintsAreNotReusedByDefault() throws Exception {
+		DataCoordinatorFixture fixture = new DataCoordinatorFixture(1, 2).start();
+		fixture.consumer.setGuard(EVEN);
+
+		fixture.inform(fixture.consumer);
+		fixture.nextCycle();
+		fixture.inform(fixture.consumer);
+
+		assertEquals(4, fixture.consumer.nbGuardEvaluations.get());
+		assertEquals(2, fixture.disabledCombinations.size());
+	}
+
+	@Test
+	public void symbolicDataIsIgnoredIfItCannotBeEncoded() {
+		DataCoordinatorFixture fixture = new DataCoordinatorFixture(1, 2);
+		fixture.kernel.specifyFiniteDataDomain(new FiniteDataDomain("Provider", "out", Integer.class, Arrays.asList(
+				1, 2, 3)));
+		fixture.kernel.specifySymbolicGuard(new SymbolicGuard("Consumer", "take", "in") {
+			public boolean isEnabled(Object value) {
+				return (Integer) value % 2 == 0;
+			}
+		});
+		fixture.symbolicDataFailure = new IllegalStateException("encoding failure");
+		fixture.start();
+
+		fixture.consumer.setGuard(EVEN);
+		for (TestComponent provider : fixture.providers) {
+			fixture.inform(provider);
+		}
+		fixture.inform(fixture.consumer);
+
+		assertTrue(fixture.kernel.getFiniteDataDomains().isEmpty());
+		assertTrue(fixture.kernel.getSymbolicGuards().isEmpty());
+		assertTrue(fixture.encodedValues.isEmpty());
+		// the guard is evaluated by the consumer instead
+		assertEquals(2, fixture.consumer.nbGuardEvaluations.get());
+	}
+
+	private static void assertDisabled(DataCoordinatorFixture fixture, BIPComponent provider,
+			Map<BIPComponent, Set<Port>> disabledCombinations) {
+		assertEquals(Collections.singletonMap(provider, Collections.singleton(fixture.gives.get(provider))),
+				disabledCombinations);
+	}
+
+}
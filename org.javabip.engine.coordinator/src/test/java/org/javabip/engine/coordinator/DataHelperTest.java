@@ -0,0 +1,114 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine.coordinator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.javabip.api.Port;
+import org.junit.Test;
+
+public class DataHelperTest {
+
+	private final TestComponent provider = new TestComponent("provider", "Provider");
+
+	@Test
+	public void rowsEnumerateTheProductLikeAnOdometer() {
+		ArrayList<DataContainer> data = containers("x", 1, "y", 10, "x", 2, "y", 20, "y", 30);
+
+		List<String> rows = new ArrayList<String>();
+		Iterator<ArrayList<DataContainer>> iterator = DataHelper.dataValueRows(data);
+		while (iterator.hasNext()) {
+			rows.add(values(iterator.next()));
+		}
+
+		assertEquals(Arrays.asList("1 10", "1 20", "1 30", "2 10", "2 20", "2 30"), rows);
+	}
+
+	@Test
+	public void singleDataGivesOneRowPerValue() {
+		Iterator<ArrayList<DataContainer>> iterator = DataHelper.dataValueRows(containers("x", 1, "x", 2));
+
+		assertEquals("1", values(iterator.next()));
+		assertEquals("2", values(iterator.next()));
+		assertFalse(iterator.hasNext());
+	}
+
+	@Test
+	public void noDataGivesNoRows() {
+		assertFalse(DataHelper.dataValueRows(new ArrayList<DataContainer>()).hasNext());
+		assertFalse(DataHelper.dataValueRows(null).hasNext());
+	}
+
+	@Test(expected = NoSuchElementException.class)
+	public void exhaustedRowsThrow() {
+		Iterator<ArrayList<DataContainer>> iterator = DataHelper.dataValueRows(containers("x", 1));
+		iterator.next();
+		iterator.next();
+	}
+
+	@Test
+	public void batchesSplitTheRows() {
+		Iterator<ArrayList<DataContainer>> iterator = DataHelper.dataValueRows(containers("x", 1, "x", 2, "y", 10,
+				"y", 20, "y", 30));
+
+		assertEquals(4, DataHelper.nextDataValueBatch(iterator, 4).size());
+		assertEquals(2, DataHelper.nextDataValueBatch(iterator, 4).size());
+		assertTrue(DataHelper.nextDataValueBatch(iterator, 4).isEmpty());
+	}
+
+	@Test
+	public void tableHoldsAllTheRows() {
+		ArrayList<ArrayList<DataContainer>> table = DataHelper.getDataValueTable(containers("x", 1, "x", 2, "y", 10,
+				"y", 20));
+
+		assertEquals(4, table.size());
+		assertEquals("2 20", values(table.get(3)));
+		assertEquals(2, DataHelper.createDataValueMaps(table).get(3).get("x"));
+	}
+
+	/**
+	 * @return the data containers of the given pairs of data name and value, all provided by the same component.
+	 */
+	private ArrayList<DataContainer> containers(Object... namesAndValues) {
+		ArrayList<DataContainer> containers = new ArrayList<DataContainer>();
+		for (int i = 0; i < namesAndValues.length; i += 2) {
+			containers.add(new DataContainer((String) namesAndValues[i], namesAndValues[i + 1], provider, Collections
+					.<Port> emptySet()));
+		}
+		return containers;
+	}
+
+	private static String values(List<DataContainer> row) {
+		StringBuilder values = new StringBuilder();
+		for (DataContainer container : row) {
+			values.append(values.length() == 0 ? "" : " ").append(container.value());
+		}
+		return values.toString();
+	}
+
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine.coordinator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+public class DataValueCacheTest {
+
+	private final DataValueCache cache = new DataValueCache();
+	private final TestComponent provider = new TestComponent("provider", "Provider").setValue("out", 1);
+
+	@Test
+	public void valueIsFetchedOnce() {
+		assertEquals(Integer.valueOf(1), cache.getData(provider, "out", Integer.class));
+		provider.setValue("out", 2);
+
+		assertEquals(Integer.valueOf(1), cache.getData(provider, "out", Integer.class));
+		assertEquals(1, provider.nbGetData.get());
+	}
+
+	@Test
+	public void invalidatedValueIsFetchedAgain() {
+		cache.getData(provider, "out", Integer.class);
+		provider.setValue("out", 2);
+		cache.invalidate(provider);
+
+		assertEquals(Integer.valueOf(2), cache.getData(provider, "out", Integer.class));
+		assertEquals(2, provider.nbGetData.get());
+	}
+
+	@Test
+	public void valueIsFetchedAgainForAnotherType() {
+		provider.setValue("out", 1);
+		cache.getData(provider, "out", Integer.class);
+		cache.getData(provider, "out", Number.class);
+
+		assertEquals(2, provider.nbGetData.get());
+	}
+
+	@Test
+	public void nullValuesAreNotCached() {
+		assertNull(cache.getData(provider, "missing", Integer.class));
+		assertNull(cache.getData(provider, "missing", Integer.class));
+
+		assertEquals(2, provider.nbGetData.get());
+	}
+
+	@Test
+	public void valuesAreCachedPerComponent() {
+		TestComponent other = new TestComponent("other", "Provider").setValue("out", 3);
+		cache.getData(provider, "out", Integer.class);
+		cache.invalidate(other);
+
+		assertEquals(Integer.valueOf(3), cache.getData(other, "out", Integer.class));
+		assertEquals(Integer.valueOf(1), cache.getData(provider, "out", Integer.class));
+		assertEquals(1, provider.nbGetData.get());
+	}
+
+}
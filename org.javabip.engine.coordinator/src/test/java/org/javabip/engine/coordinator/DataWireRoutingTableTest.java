@@ -0,0 +1,66 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine.coordinator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+public class DataWireRoutingTableTest {
+
+	private final DataWireRoutingTable table = new DataWireRoutingTable();
+
+	@Test
+	public void routeIsFoundByAllFourNames() {
+		table.addRoute("Consumer", "in", "Provider", "give", new DataWireRoutingTable.Route("out"));
+
+		assertEquals("out", table.getRoute("Consumer", "in", "Provider", "give").dataOutName);
+		assertNull(table.getRoute("Consumer", "in", "Provider", "take"));
+		assertNull(table.getRoute("Consumer", "other", "Provider", "give"));
+		assertNull(table.getRoute("Provider", "in", "Consumer", "give"));
+	}
+
+	@Test
+	public void firstRouteIsKept() {
+		table.addRoute("Consumer", "in", "Provider", "give", new DataWireRoutingTable.Route("out"));
+		table.addRoute("Consumer", "in", "Provider", "give", new DataWireRoutingTable.Route("other"));
+
+		assertEquals("out", table.getRoute("Consumer", "in", "Provider", "give").dataOutName);
+	}
+
+	@Test
+	public void namesSharedAcrossRolesDoNotCollide() {
+		// the same names as requiring and providing type, and as data name and port id
+		table.addRoute("A", "x", "B", "x", new DataWireRoutingTable.Route("ab"));
+		table.addRoute("B", "x", "A", "x", new DataWireRoutingTable.Route("ba"));
+		table.addRoute("A", "x", "A", "x", new DataWireRoutingTable.Route("aa"));
+
+		assertEquals("ab", table.getRoute("A", "x", "B", "x").dataOutName);
+		assertEquals("ba", table.getRoute("B", "x", "A", "x").dataOutName);
+		assertEquals("aa", table.getRoute("A", "x", "A", "x").dataOutName);
+		assertNull(table.getRoute("B", "x", "B", "x"));
+	}
+
+	@Test
+	public void unknownNamesHaveNoRoute() {
+		assertNull(table.getRoute("Consumer", "in", "Provider", "give"));
+	}
+
+}
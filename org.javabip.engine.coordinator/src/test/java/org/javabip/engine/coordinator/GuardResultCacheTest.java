@@ -0,0 +1,73 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine.coordinator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.javabip.api.Port;
+import org.junit.Test;
+
+public class GuardResultCacheTest {
+
+	private final GuardResultCache cache = new GuardResultCache(2);
+	private final TestComponent component = new TestComponent("consumer", "Consumer");
+	private final Port take = new TestPort("take", "Consumer", component);
+
+	@Test
+	public void resultIsFoundForEqualValues() {
+		cache.put(component, "s", take, values(1), false);
+
+		assertEquals(Boolean.FALSE, cache.get(component, "s", take, new HashMap<String, Object>(values(1))));
+		assertEquals(1, cache.getHits());
+		assertEquals(0, cache.getMisses());
+	}
+
+	@Test
+	public void resultDependsOnStatePortAndValues() {
+		cache.put(component, "s", take, values(1), true);
+
+		assertNull(cache.get(component, "t", take, values(1)));
+		assertNull(cache.get(component, "s", new TestPort("give", "Consumer", component), values(1)));
+		assertNull(cache.get(component, "s", take, values(2)));
+		assertNull(cache.get(new TestComponent("other", "Consumer"), "s", take, values(1)));
+		assertEquals(4, cache.getMisses());
+	}
+
+	@Test
+	public void leastRecentlyUsedResultIsEvicted() {
+		cache.put(component, "s", take, values(1), true);
+		cache.put(component, "s", take, values(2), true);
+		cache.get(component, "s", take, values(1));
+		cache.put(component, "s", take, values(3), true);
+
+		assertEquals(Boolean.TRUE, cache.get(component, "s", take, values(1)));
+		assertNull(cache.get(component, "s", take, values(2)));
+		assertEquals(Boolean.TRUE, cache.get(component, "s", take, values(3)));
+	}
+
+	private static Map<String, Object> values(int in) {
+		return Collections.<String, Object> singletonMap("in", in);
+	}
+
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine.coordinator;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Creates the objects of the BIP API the tests need, answering their methods by name. The interfaces are richer than
+ * what the coordinators use, so only the methods a test needs are given.
+ */
+class Proxies {
+
+	/**
+	 * Computes the result of a method from its arguments.
+	 */
+	interface Answer {
+		Object answer(Object[] args);
+	}
+
+	/**
+	 * Creates an object whose methods return the given values, or call the given answers. The other methods return
+	 * null, false or zero.
+	 * 
+	 * @param answers
+	 *            pairs of a method name and of its value or {@link Answer}.
+	 */
+	static <T> T proxy(Class<T> type, Object... answers) {
+		final Map<String, Object> values = new HashMap<String, Object>();
+		for (int i = 0; i < answers.length; i += 2) {
+			values.put((String) answers[i], answers[i + 1]);
+		}
+		return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+				new InvocationHandler() {
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						String name = method.getName();
+						if (values.containsKey(name)) {
+							Object value = values.get(name);
+							return value instanceof Answer ? ((Answer) value).answer(args) : value;
+						} else if (name.equals("equals")) {
+							return proxy == args[0];
+						} else if (name.equals("hashCode")) {
+							return System.identityHashCode(proxy);
+						} else if (name.equals("toString")) {
+							return "Proxy " + values;
+						}
+						return defaultValue(method.getReturnType());
+					}
+				}));
+	}
+
+	private static Object defaultValue(Class<?> type) {
+		if (type == boolean.class) {
+			return false;
+		} else if (type == int.class) {
+			return 0;
+		} else if (type == long.class) {
+			return 0L;
+		} else if (type == double.class) {
+			return 0.0;
+		}
+		return null;
+	}
+
+}
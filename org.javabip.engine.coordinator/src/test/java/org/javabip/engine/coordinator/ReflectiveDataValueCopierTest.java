@@ -0,0 +1,194 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine.coordinator;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+public class ReflectiveDataValueCopierTest {
+
+	private final DataValueCopier copier = new ReflectiveDataValueCopier();
+
+	static class Node {
+		String name;
+		Node next;
+		int[] weights;
+	}
+
+	static final class Point {
+		final int x;
+		final int y;
+
+		Point(int x, int y) {
+			this.x = x;
+			this.y = y;
+		}
+	}
+
+	static class Account {
+		final StringBuilder owner;
+		long balance;
+
+		Account(StringBuilder owner, long balance) {
+			this.owner = owner;
+			this.balance = balance;
+		}
+	}
+
+	static class Tag implements Cloneable {
+		String label;
+
+		Tag(String label) {
+			this.label = label;
+		}
+
+		@Override
+		public Tag clone() {
+			try {
+				return (Tag) super.clone();
+			} catch (CloneNotSupportedException e) {
+				throw new AssertionError(e);
+			}
+		}
+	}
+
+	@Test
+	public void immutableValuesAreNotCopied() {
+		String text = "text";
+		Integer number = 1234567;
+		Point point = new Point(1, 2);
+		LocalDate date = LocalDate.of(2016, 1, 1);
+
+		assertSame(text, copier.copy(text));
+		assertSame(number, copier.copy(number));
+		assertSame(point, copier.copy(point));
+		assertSame(date, copier.copy(date));
+		assertNull(copier.copy(null));
+	}
+
+	@Test
+	public void arraysAreCopiedElementByElement() {
+		int[] numbers = { 1, 2, 3 };
+		Node[] nodes = { new Node(), null };
+
+		int[] numbersCopy = copier.copy(numbers);
+		Node[] nodesCopy = copier.copy(nodes);
+		numbers[0] = 0;
+
+		assertArrayEquals(new int[] { 1, 2, 3 }, numbersCopy);
+		assertEquals(2, nodesCopy.length);
+		assertNotSame(nodes[0], nodesCopy[0]);
+		assertNull(nodesCopy[1]);
+	}
+
+	@Test
+	public void collectionsAreCopiedWithTheirElements() {
+		List<Node> list = new ArrayList<Node>(Collections.singletonList(new Node()));
+		TreeSet<String> set = new TreeSet<String>(Collections.reverseOrder());
+		set.addAll(Arrays.asList("a", "b"));
+		List<String> unmodifiable = Collections.unmodifiableList(Arrays.asList("a", "b"));
+
+		List<Node> listCopy = copier.copy(list);
+		TreeSet<String> setCopy = copier.copy(set);
+		List<String> unmodifiableCopy = copier.copy(unmodifiable);
+
+		assertEquals(ArrayList.class, listCopy.getClass());
+		assertNotSame(list.get(0), listCopy.get(0));
+		assertEquals(Arrays.asList("b", "a"), new ArrayList<String>(setCopy));
+		assertEquals(unmodifiable, unmodifiableCopy);
+		assertNotSame(unmodifiable, unmodifiableCopy);
+	}
+
+	@Test
+	public void mapsAreCopiedWithTheirKeysAndValues() {
+		Map<String, Node> map = new HashMap<String, Node>();
+		map.put("first", new Node());
+		TreeMap<String, Integer> sortedMap = new TreeMap<String, Integer>(Collections.reverseOrder());
+		sortedMap.put("a", 1);
+		sortedMap.put("b", 2);
+
+		Map<String, Node> mapCopy = copier.copy(map);
+		TreeMap<String, Integer> sortedMapCopy = copier.copy(sortedMap);
+
+		assertEquals(HashMap.class, mapCopy.getClass());
+		assertNotSame(map.get("first"), mapCopy.get("first"));
+		assertEquals(Arrays.asList("b", "a"), new ArrayList<String>(sortedMapCopy.keySet()));
+	}
+
+	@Test
+	public void cyclesAndSharedObjectsArePreserved() {
+		Node first = new Node();
+		Node second = new Node();
+		first.name = "first";
+		first.next = second;
+		second.next = first;
+		first.weights = new int[] { 1 };
+		second.weights = first.weights;
+
+		Node copy = copier.copy(first);
+
+		assertNotSame(first, copy);
+		assertEquals("first", copy.name);
+		assertNotSame(second, copy.next);
+		assertSame(copy, copy.next.next);
+		assertNotSame(first.weights, copy.weights);
+		assertSame(copy.weights, copy.next.weights);
+	}
+
+	@Test
+	public void closedJdkValuesAreClonedOrShared() {
+		Date date = new Date(0);
+		StringBuilder builder = new StringBuilder("owner");
+
+		Date dateCopy = copier.copy(date);
+		date.setTime(1);
+
+		assertEquals(new Date(0), dateCopy);
+		assertSame(builder, copier.copy(builder));
+	}
+
+	@Test
+	public void valuesWithoutConstructorWithoutArgumentsAreClonedOrShared() {
+		Account account = new Account(new StringBuilder("owner"), 10);
+		Tag tag = new Tag("tag");
+
+		Tag tagCopy = copier.copy(tag);
+
+		assertSame(account, copier.copy(account));
+		assertNotSame(tag, tagCopy);
+		assertEquals("tag", tagCopy.label);
+	}
+
+}
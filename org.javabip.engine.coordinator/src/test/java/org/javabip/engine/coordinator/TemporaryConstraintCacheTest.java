@@ -0,0 +1,106 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine.coordinator;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.javabip.api.BIPComponent;
+import org.javabip.api.Port;
+import org.junit.Test;
+
+public class TemporaryConstraintCacheTest {
+
+	private final TemporaryConstraintCache cache = new TemporaryConstraintCache();
+	private final TestComponent consumer = new TestComponent("consumer", "Consumer");
+	private final TestComponent provider = new TestComponent("provider", "Provider");
+	private final Port take = new TestPort("take", "Consumer", consumer);
+
+	@Test
+	public void constraintIsUpToDateForTheSameStateAndValues() {
+		cache.put(consumer, take, "s", cache.now(), values(1, 2), null);
+
+		assertTrue(cache.isUpToDate(consumer, take, "s", values(1, 2)));
+		assertNull(cache.getConstraint(consumer, take));
+	}
+
+	@Test
+	public void constraintIsStaleInAnotherState() {
+		cache.put(consumer, take, "s", cache.now(), values(1, 2), null);
+
+		assertFalse(cache.isUpToDate(consumer, take, "t", values(1, 2)));
+	}
+
+	@Test
+	public void constraintIsStaleWhenAProvidedValueChanges() {
+		cache.put(consumer, take, "s", cache.now(), values(1, 2), null);
+
+		assertFalse(cache.isUpToDate(consumer, take, "s", values(1, 3)));
+		assertFalse(cache.isUpToDate(consumer, take, "s", values(1)));
+	}
+
+	@Test
+	public void constraintIsStaleWhenAProviderExecutes() {
+		cache.put(consumer, take, "s", cache.now(), values(1, 2), null);
+		cache.dataChanged(provider);
+
+		assertFalse(cache.isUpToDate(consumer, take, "s", values(1, 2)));
+	}
+
+	@Test
+	public void constraintIsStaleWhenTheDecidingComponentExecutes() {
+		cache.put(consumer, take, "s", cache.now(), values(1, 2), null);
+		cache.dataChanged(consumer);
+
+		assertFalse(cache.isUpToDate(consumer, take, "s", values(1, 2)));
+	}
+
+	@Test
+	public void constraintIsStaleWhenAProviderExecutesWhileItIsComputed() {
+		long computedAt = cache.now();
+		cache.dataChanged(provider);
+		cache.put(consumer, take, "s", computedAt, values(1, 2), null);
+
+		assertFalse(cache.isUpToDate(consumer, take, "s", values(1, 2)));
+	}
+
+	@Test
+	public void clearedConstraintIsNotUpToDate() {
+		cache.put(consumer, take, "s", cache.now(), values(1, 2), null);
+		cache.clear();
+
+		assertFalse(cache.isUpToDate(consumer, take, "s", values(1, 2)));
+	}
+
+	@Test
+	public void missingConstraintIsNotUpToDate() {
+		assertFalse(cache.isUpToDate(consumer, take, "s", values(1, 2)));
+	}
+
+	private Map<BIPComponent, List<Object>> values(Object... values) {
+		return Collections.<BIPComponent, List<Object>> singletonMap(provider, Arrays.asList(values));
+	}
+
+}
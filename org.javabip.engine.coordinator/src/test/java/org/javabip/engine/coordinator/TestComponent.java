@@ -0,0 +1,106 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine.coordinator;
+
+import org.javabip.api.BIPComponent;
+import org.javabip.api.PortBase;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A component whose data is a map and whose guards are given by a {@link Guard}, counting the calls made by the
+ * coordinators.
+ */
+class TestComponent implements BIPComponent {
+
+	/**
+	 * The guard of the ports of a test component.
+	 */
+	interface Guard {
+		boolean isEnabled(String portId, Map<String, Object> valuation);
+	}
+
+	private final String id;
+	private final String type;
+	private final Map<String, Object> data = new HashMap<String, Object>();
+	private volatile Guard guard = new Guard() {
+		public boolean isEnabled(String portId, Map<String, Object> valuation) {
+			return true;
+		}
+	};
+
+	final AtomicInteger nbGetData = new AtomicInteger();
+	final AtomicInteger nbGuardEvaluations = new AtomicInteger();
+	final List<String> executedPorts = new ArrayList<String>();
+
+	TestComponent(String id, String type) {
+		this.id = id;
+		this.type = type;
+	}
+
+	TestComponent setGuard(Guard guard) {
+		this.guard = guard;
+		return this;
+	}
+
+	synchronized TestComponent setValue(String name, Object value) {
+		data.put(name, value);
+		return this;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public String getType() {
+		return type;
+	}
+
+	public synchronized void execute(String portID) {
+		executedPorts.add(portID);
+	}
+
+	public synchronized <T> T getData(String name, Class<T> clazz) {
+		nbGetData.incrementAndGet();
+		return clazz.cast(data.get(name));
+	}
+
+	public List<Boolean> checkEnabledness(PortBase port, List<Map<String, Object>> valuations) {
+		List<Boolean> enabled = new ArrayList<Boolean>();
+		for (Map<String, Object> valuation : valuations) {
+			nbGuardEvaluations.incrementAndGet();
+			enabled.add(guard.isEnabled(port.getId(), valuation));
+		}
+		return enabled;
+	}
+
+	public synchronized void setData(String dataName, Object value) {
+		data.put(dataName, value);
+	}
+
+	@Override
+	public String toString() {
+		return id;
+	}
+
+}
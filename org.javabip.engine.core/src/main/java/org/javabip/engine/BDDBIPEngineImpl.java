@@ -23,13 +23,19 @@ import net.sf.javabdd.BDDFactory;
 import org.javabip.api.BIPComponent;
 import org.javabip.api.PortBase;
 import org.javabip.engine.api.BDDBIPEngine;
+import org.javabip.engine.api.BDDReorderEvent;
+import org.javabip.engine.api.EngineCycleEvent;
+import org.javabip.engine.api.EngineMetrics;
+import org.javabip.engine.api.EngineMetrics.Phase;
 import org.javabip.engine.api.GlueCoordinator;
+import org.javabip.engine.api.TemporaryConstraintsEvent;
 import org.javabip.exceptions.BIPEngineException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Receives the current state, glue and behaviour BDDs. Computes the possible maximal interactions and picks one
@@ -57,6 +63,16 @@ public class BDDBIPEngineImpl implements BDDBIPEngine {
 
 	private GlueCoordinator wrapper;
 
+	/** The durations of the phases of the execution cycles. */
+	private final EngineMetrics metrics = new EngineMetricsImpl();
+
+	/** The number of temporary constraints taken into account in the last execution cycle. */
+	private volatile int lastTemporaryConstraints;
+
+	/** The number of interactions executed so far, and of the ports that took part in them. */
+	private final AtomicLong executedInteractions = new AtomicLong();
+	private final AtomicLong executedPorts = new AtomicLong();
+
 	/**
 	 * Counts the number of enabled ports in the Maximal cube chosen
 	 */
@@ -199,9 +215,9 @@ public class BDDBIPEngineImpl implements BDDBIPEngine {
 
 		byte[] chosenInteraction;
 
-		// For performance info
-		// long time = System.currentTimeMillis();
-
+		EngineCycleEvent cycleEvent = new EngineCycleEvent();
+		cycleEvent.begin();
+		long conjunctionStart = System.nanoTime();
 		BDD totalCurrentStateAndDisabledCombinations = totalCurrentStateBdd(currentStateBDDs);
 		BDD solns = totalConstraints.and(totalCurrentStateAndDisabledCombinations);
 
@@ -211,11 +227,17 @@ public class BDDBIPEngineImpl implements BDDBIPEngine {
 		 * Temporary Constraints cannot be null.
 		 */
 		if (!temporaryConstraints.isEmpty()) {
+			TemporaryConstraintsEvent constraintsEvent = new TemporaryConstraintsEvent();
+			constraintsEvent.begin();
 			solns.andWith(totalExtraBdd(temporaryConstraints));
+			constraintsEvent.setConstraints(temporaryConstraints.size());
+			constraintsEvent.commit();
 		}
 
 		/* Compute global BDD: solns= Λi Fi Λ G Λ (Λi Ci) */
 		totalCurrentStateAndDisabledCombinations.free();
+		long allsatStart = System.nanoTime();
+		metrics.record(Phase.CONJOIN_CURRENT_STATES, allsatStart - conjunctionStart);
 		// For performance and memory info
 		// System.out.println("Number of nodes " + this.bdd_mgr.getNodeTableSize());
 		// System.out.println("Number of all nodes: " + this.bdd_mgr.getNodeNum());
@@ -264,6 +286,8 @@ public class BDDBIPEngineImpl implements BDDBIPEngine {
 		ArrayList<byte[]> possibleInteraction = new ArrayList<byte[]>();
 
 		possibleInteraction.addAll(solns.allsat());
+		long maximalsStart = System.nanoTime();
+		metrics.record(Phase.ALLSAT, maximalsStart - allsatStart);
 		// BigInteger[] oneSolution = solns.scanAllVar();
 
 		logger.debug("******************************* Engine **********************************");
@@ -288,6 +312,7 @@ public class BDDBIPEngineImpl implements BDDBIPEngine {
 			logger.trace("Positions of D Variables size:" + positionsOfDVariables.size());
 			findMaximals(cubeMaximals, possibleInteraction.get(i), positionOfPorts);
 		}
+		metrics.record(Phase.FIND_MAXIMALS, System.nanoTime() - maximalsStart);
 
 		/* deadlock detection */
 		int size = cubeMaximals.size();
@@ -317,22 +342,30 @@ public class BDDBIPEngineImpl implements BDDBIPEngine {
 		/*
 		 * Beginning of the part to move to the Data Coordinator
 		 */
-		// For performance info
-
+		long dispatchStart = System.nanoTime();
 		wrapper.execute(chosenInteraction);
-		// System.out.println((System.currentTimeMillis() - time));
+		metrics.record(Phase.DISPATCH_EXECUTES, System.nanoTime() - dispatchStart);
+		int participatingPorts = countPortEnable(chosenInteraction, (ArrayList<Integer>) positionOfPorts);
+		executedInteractions.incrementAndGet();
+		executedPorts.addAndGet(participatingPorts);
+		cycleEvent.end();
+		if (cycleEvent.shouldCommit()) {
+			cycleEvent.setPossibleInteractions(possibleInteraction.size());
+			cycleEvent.setMaximalInteractions(size);
+			cycleEvent.setParticipatingPorts(participatingPorts);
+			cycleEvent.commit();
+		}
 
 		/*
 		 * End of the part to move to the Data Coordinator
 		 */
 		solns.free();
+		lastTemporaryConstraints = temporaryConstraints.size();
 		temporaryConstraints.clear();
 		// For performance info
 		// bdd_mgr.done();
 		// System.out.println("Number of nodes " + this.bdd_mgr.getNodeTableSize());
 		// bdd_mgr = null;
-		// time = System.currentTimeMillis() - time;
-		// System.out.println("Engine cycle time: "+ time);
 
 	}
 
@@ -353,7 +386,7 @@ public class BDDBIPEngineImpl implements BDDBIPEngine {
 					totalConstraints.andWith(eachD);
 				}
 				logger.trace("Extra permanent constraints added to empty total BDD.");
-				bdd_mgr.reorder(BDDFactory.REORDER_SIFTITE);
+				BDDReorderEvent.reorder(bdd_mgr, BDDFactory.REORDER_SIFTITE);
 				// System.out.println("EData: Reorder stats: " + bdd_mgr.getReorderStats());
 			} else {
 
@@ -361,7 +394,7 @@ public class BDDBIPEngineImpl implements BDDBIPEngine {
 					totalConstraints.andWith(eachD);
 				}
 				logger.trace("Extra permanent constraints added to existing total BDD.");
-				bdd_mgr.reorder(BDDFactory.REORDER_SIFTITE);
+				BDDReorderEvent.reorder(bdd_mgr, BDDFactory.REORDER_SIFTITE);
 				// System.out.println("EData: Reorder stats: " + bdd_mgr.getReorderStats());
 			}
 		}
@@ -391,7 +424,7 @@ public class BDDBIPEngineImpl implements BDDBIPEngine {
 					totalConstraints.andWith(behaviourBDDs.get(componentsEnum.nextElement()));
 
 				}
-				bdd_mgr.reorder(BDDFactory.REORDER_SIFTITE);
+				BDDReorderEvent.reorder(bdd_mgr, BDDFactory.REORDER_SIFTITE);
 				// System.out.println("E5: Reorder stats: " + bdd_mgr.getReorderStats());
 				logger.trace("E5: Reorder stats: " + bdd_mgr.getReorderStats());
 				logger.trace("Behaviour constraints added to empty total BDD.");
@@ -401,7 +434,7 @@ public class BDDBIPEngineImpl implements BDDBIPEngine {
 					logger.trace("Conjunction of behaviours about to start..");
 					totalConstraints.andWith(behaviourBDDs.get(componentsEnum.nextElement()));
 				}
-				bdd_mgr.reorder(BDDFactory.REORDER_SIFTITE);
+				BDDReorderEvent.reorder(bdd_mgr, BDDFactory.REORDER_SIFTITE);
 				// System.out.println("E7: Reorder stats: " + bdd_mgr.getReorderStats());
 				logger.trace("E7: Reorder stats: " + bdd_mgr.getReorderStats());
 				logger.trace("Behaviour constraints added to existing total BDD.");
@@ -438,7 +471,7 @@ public class BDDBIPEngineImpl implements BDDBIPEngine {
 				}
 				logger.trace("E9: Reorder stats: " + bdd_mgr.getReorderStats());
 				// System.out.println("E9: Reorder stats: " + bdd_mgr.getReorderStats());
-				bdd_mgr.reorder(BDDFactory.REORDER_SIFTITE);
+				BDDReorderEvent.reorder(bdd_mgr, BDDFactory.REORDER_SIFTITE);
 				logger.info("Glue constraints added to existing total BDD.");
 				if (this.permanentDataBDDs.size() != 0) {
 					dataConstraintsComputation(this.permanentDataBDDs);
@@ -447,6 +480,44 @@ public class BDDBIPEngineImpl implements BDDBIPEngine {
 		}
 	}
 
+	public synchronized BDD getTotalConstraints() {
+		return totalConstraints;
+	}
+
+	public synchronized void informTotalConstraints(BDD totalConstraints) {
+		if (this.totalConstraints != null) {
+			this.totalConstraints.free();
+		}
+		this.totalConstraints = totalConstraints;
+		logger.info("Precomputed total constraints BDD installed.");
+	}
+
+	public synchronized void informNewComponent(BIPComponent component, BDD componentBehaviour, List<BDD> componentGlue) {
+		totalConstraints.andWith(componentBehaviour);
+		for (BDD glueBDD : componentGlue) {
+			totalConstraints.andWith(glueBDD);
+		}
+		logger.info("Constraints of component {} added to existing total BDD.", component.getId());
+	}
+
+	public synchronized void informRemovedComponent(BIPComponent component, BDD disabledPorts, int[] stateVariables) {
+		/*
+		 * Once its ports are disabled, the constraints no longer depend on the current state of the component.
+		 */
+		BDD withoutPorts = totalConstraints.restrict(disabledPorts);
+		totalConstraints.free();
+		disabledPorts.free();
+		totalConstraints = withoutPorts.exist(bdd_mgr.makeSet(stateVariables));
+		withoutPorts.free();
+
+		BDD currentState = currentStateBDDs.remove(component);
+		if (currentState != null) {
+			currentState.free();
+		}
+		behaviourBDDs.remove(component);
+		logger.info("Constraints of component {} removed from the total BDD.", component.getId());
+	}
+
 	public void setBIPCoordinator(GlueCoordinator wrapper) {
 		this.wrapper = wrapper;
 	}
@@ -455,4 +526,30 @@ public class BDDBIPEngineImpl implements BDDBIPEngine {
 		return bdd_mgr;
 	}
 
+	public EngineMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * @return the number of temporary constraints, i.e. combinations disabled by data, that were taken into account in
+	 *         the last execution cycle.
+	 */
+	public int getLastTemporaryConstraints() {
+		return lastTemporaryConstraints;
+	}
+
+	/**
+	 * @return the number of interactions executed since the engine was created.
+	 */
+	public long getExecutedInteractions() {
+		return executedInteractions.get();
+	}
+
+	/**
+	 * @return the number of ports executed since the engine was created, summed over all interactions.
+	 */
+	public long getExecutedPorts() {
+		return executedPorts.get();
+	}
+
 }
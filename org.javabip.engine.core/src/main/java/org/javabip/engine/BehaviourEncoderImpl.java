@@ -19,6 +19,7 @@
 package org.javabip.engine;
 
 import net.sf.javabdd.BDD;
+import net.sf.javabdd.BDDPairing;
 import org.javabip.api.BIPComponent;
 import org.javabip.api.Behaviour;
 import org.javabip.api.Port;
@@ -70,6 +71,22 @@ public class BehaviourEncoderImpl implements BehaviourEncoder {
 	/** The port to position. */
 	Map<Port, Integer> portToPosition = new Hashtable<Port, Integer>();
 
+	/** The component whose behaviour BDD serves as the template for all the instances of its type. */
+	private Hashtable<String, BIPComponent> typeToTemplateComponent = new Hashtable<String, BIPComponent>();
+
+	/** The behaviour BDD of the template component of each type. */
+	private Hashtable<String, BDD> typeToTemplateBDD = new Hashtable<String, BDD>();
+
+	/** The ids of the ports enabled in each state of the template component of each type. */
+	private Hashtable<String, Map<String, Set<String>>> typeToTemplateStatePorts =
+			new Hashtable<String, Map<String, Set<String>>>();
+
+	/**
+	 * The pairing used to instantiate the template of each type. The BDD manager keeps every pairing it creates and
+	 * updates all of them at each reordering, so a single pairing per type is reset and reused for every instance.
+	 */
+	private Hashtable<String, BDDPairing> typeToTemplatePairing = new Hashtable<String, BDDPairing>();
+
 	/**
 	 * Creates one-node BDDs that correspond to the ports and the states of all the registered components.
 	 *
@@ -85,6 +102,12 @@ public class BehaviourEncoderImpl implements BehaviourEncoder {
 	public synchronized void createBDDNodes(BIPComponent component, List<Port> componentPorts,
 			List<String> componentStates) throws BIPEngineException {
 
+		/*
+		 * Components registered while the engine is running must not reuse the variables created in the meantime, for
+		 * instance, the d-variables of the data encoder.
+		 */
+		auxSum = Math.max(auxSum, engine.getBDDManager().varNum());
+
 		int nbComponentPorts = componentPorts.size();
 		int nbComponentStates = componentStates.size();
 		int initialNoNodes = nbComponentPorts + nbComponentStates + auxSum;
@@ -162,8 +185,37 @@ public class BehaviourEncoderImpl implements BehaviourEncoder {
 		auxSum = auxSum + nbComponentPorts + nbComponentStates;
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.javabip.engine.api.BehaviourEncoder#deleteBDDNodes(org.javabip.api.BIPComponent)
+	 */
+	public synchronized void deleteBDDNodes(BIPComponent component) {
+		stateBDDs.remove(component);
+		portBDDs.remove(component);
+		componentToStateToBDD.remove(component);
+		componentToPortToBDD.remove(component);
+
+		/*
+		 * The template pairing is built from the variables of the template component, so a removed template is
+		 * replaced by the next instance of its type for which the behaviour BDD is computed.
+		 */
+		for (Iterator<Map.Entry<String, BIPComponent>> it = typeToTemplateComponent.entrySet().iterator(); it.hasNext();) {
+			Map.Entry<String, BIPComponent> template = it.next();
+			if (template.getValue() == component) {
+				typeToTemplateBDD.remove(template.getKey()).free();
+				typeToTemplateStatePorts.remove(template.getKey());
+				it.remove();
+			}
+		}
+	}
+
 	/**
 	 * Computes and returns the BDD corresponding to the behaviour of a particular component.
+	 * 
+	 * All the instances of a component type have structurally identical behaviour BDDs that differ only in their
+	 * variables. Therefore, the BDD is computed once for the first instance of each type and the BDDs of the other
+	 * instances are obtained by renaming the state and port variables of this template.
 	 *
 	 * @param component
 	 *            the component for which the BDD is computed.
@@ -173,7 +225,6 @@ public class BehaviourEncoderImpl implements BehaviourEncoder {
 	 */
 	public synchronized BDD behaviourBDD(BIPComponent component) throws BIPEngineException {
 
-		BDD componentBehaviourBDD = engine.getBDDManager().zero();
 		Behaviour behaviour = wrapper.getBehaviourByComponent(component);
 		if (behaviour == null) {
 			try {
@@ -184,6 +235,99 @@ public class BehaviourEncoderImpl implements BehaviourEncoder {
 				throw e;
 			}
 		}
+
+		String componentType = behaviour.getComponentType();
+		BIPComponent templateComponent = typeToTemplateComponent.get(componentType);
+		Map<String, Set<String>> statePorts = statePortIds(behaviour);
+		if (templateComponent != null && templateComponent != component) {
+			BDDPairing pairing = null;
+			if (statePorts.equals(typeToTemplateStatePorts.get(componentType))) {
+				pairing = templatePairing(componentType, templateComponent, component);
+			}
+			if (pairing != null) {
+				logger.trace("BE: Behaviour of component {} instantiated from the template of type {}", component,
+						componentType);
+				return typeToTemplateBDD.get(componentType).replace(pairing);
+			}
+			logger.warn("Component {} does not have the same states, ports and enabled ports as the other components"
+					+ " of type {}.", component.getId(), componentType);
+		}
+
+		BDD componentBehaviourBDD = computeBehaviourBDD(component, behaviour);
+		if (templateComponent == null) {
+			typeToTemplateComponent.put(componentType, component);
+			typeToTemplateBDD.put(componentType, componentBehaviourBDD.id());
+			typeToTemplateStatePorts.put(componentType, statePorts);
+		}
+		return componentBehaviourBDD;
+	}
+
+	/**
+	 * Returns the ids of the ports enabled in each state of a behaviour, which together with the ports and states
+	 * determine the behaviour BDD.
+	 */
+	private Map<String, Set<String>> statePortIds(Behaviour behaviour) {
+		Map<String, Set<String>> statePorts = new Hashtable<String, Set<String>>();
+		for (Map.Entry<String, Set<Port>> entry : behaviour.getStateToPorts().entrySet()) {
+			Set<String> portIds = new HashSet<String>();
+			for (Port port : entry.getValue()) {
+				portIds.add(port.getId());
+			}
+			statePorts.put(entry.getKey(), portIds);
+		}
+		return statePorts;
+	}
+
+	/**
+	 * Sets the pairing of a type so that it renames the state and port variables of the template component of the
+	 * type into the corresponding variables of another instance of the same type.
+	 *
+	 * @param componentType
+	 *            the type of the two components.
+	 * @param templateComponent
+	 *            the component whose behaviour BDD is the template.
+	 * @param component
+	 *            the component to instantiate the template for.
+	 * @return the pairing, or null if the two components do not have the same states and ports.
+	 */
+	private BDDPairing templatePairing(String componentType, BIPComponent templateComponent, BIPComponent component) {
+		Hashtable<String, BDD> templateStates = componentToStateToBDD.get(templateComponent);
+		Hashtable<String, BDD> templatePorts = componentToPortToBDD.get(templateComponent);
+		Hashtable<String, BDD> states = componentToStateToBDD.get(component);
+		Hashtable<String, BDD> ports = componentToPortToBDD.get(component);
+		if (states == null || ports == null || !templateStates.keySet().equals(states.keySet())
+				|| !templatePorts.keySet().equals(ports.keySet())) {
+			return null;
+		}
+
+		BDDPairing pairing = typeToTemplatePairing.get(componentType);
+		if (pairing == null) {
+			pairing = engine.getBDDManager().makePair();
+			typeToTemplatePairing.put(componentType, pairing);
+		} else {
+			pairing.reset();
+		}
+		for (Map.Entry<String, BDD> state : templateStates.entrySet()) {
+			pairing.set(state.getValue().var(), states.get(state.getKey()).var());
+		}
+		for (Map.Entry<String, BDD> port : templatePorts.entrySet()) {
+			pairing.set(port.getValue().var(), ports.get(port.getKey()).var());
+		}
+		return pairing;
+	}
+
+	/**
+	 * Computes the BDD corresponding to the behaviour of a particular component from its states and ports.
+	 *
+	 * @param component
+	 *            the component for which the BDD is computed.
+	 * @param behaviour
+	 *            the behaviour of the component.
+	 * @return BDD that corresponds to the behaviour of the component.
+	 */
+	private BDD computeBehaviourBDD(BIPComponent component, Behaviour behaviour) {
+
+		BDD componentBehaviourBDD = engine.getBDDManager().zero();
 		List<Port> componentPorts = behaviour.getEnforceablePorts();
 		List<String> componentStates = new ArrayList<String>(behaviour.getStates());
 		Hashtable<String, BDD> portToBDD = componentToPortToBDD.get(component);
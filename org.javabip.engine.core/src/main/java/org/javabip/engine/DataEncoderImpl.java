@@ -19,9 +19,12 @@ package org.javabip.engine;
 
 import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Hashtable;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -37,6 +40,8 @@ import org.javabip.api.PortBase;
 import org.javabip.engine.api.BehaviourEncoder;
 import org.javabip.engine.api.DataCoordinator;
 import org.javabip.engine.api.DataEncoder;
+import org.javabip.engine.api.FiniteDataDomain;
+import org.javabip.engine.api.SymbolicGuard;
 import org.javabip.exceptions.BIPEngineException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -60,6 +65,24 @@ public class DataEncoderImpl implements DataEncoder {
 	/** The ports to d var bdd mapping. */
 	volatile Map<Entry<Port, Port>, BDD> portsToDVarBDDMapping = new Hashtable<Entry<Port, Port>, BDD>();
 
+	/** The dense indices of the ports receiving data, i.e. the deciding ports of informSpecific. */
+	private Map<Port, Integer> decidingPortIndices = new HashMap<Port, Integer>();
+
+	/** The dense indices of the ports providing data. */
+	private Map<Port, Integer> providingPortIndices = new HashMap<Port, Integer>();
+
+	/**
+	 * The BDD variable of the d-variable of each pair of deciding and providing port, indexed by their dense indices,
+	 * or -1 if there is no data wire between the two ports.
+	 */
+	private int[][] dVariables = new int[0][0];
+
+	/** The finite domains of the provided data, by component type and data name. */
+	private Map<String, FiniteDataDomain> finiteDomains = new HashMap<String, FiniteDataDomain>();
+
+	/** The BDD variables encoding the value of each data with a finite domain of each providing component. */
+	private Map<BIPComponent, Map<String, int[]>> valueVariables = new HashMap<BIPComponent, Map<String, int[]>>();
+
 	/** The logger. */
 	private Logger logger = LoggerFactory.getLogger(CurrentStateEncoderImpl.class);
 
@@ -108,38 +131,40 @@ public class DataEncoderImpl implements DataEncoder {
 		 * The disabledCombinations and disabledComponents are checked in the DataCoordinator, wherein exceptions are
 		 * thrown. Here, we just use assertion.
 		 */
-		BDD result;
 		assert (disabledCombinations != null);
-		result = BDDmanager.one();
+		logger.trace("Inform Specific: decidingPort is " + decidingPort + " of component: " + decidingComponent);
+		Integer decidingIndex = decidingPortIndices.get(decidingPort);
+		if (decidingIndex == null) {
+			return BDDmanager.one();
+		}
 		/*
-		 * Find corresponding d-variable
+		 * Find corresponding d-variables. The disabled combinations become the cube of the negations of the d-variables
+		 * of the deciding port and the disabled ports.
 		 */
-		Set<BIPComponent> disabledComponents = disabledCombinations.keySet();
-		for (BIPComponent component : disabledComponents) {
-			logger.trace("Inform Specific: decidingPort is " + decidingPort + " of component: " + decidingComponent);
-			// System.out.println("Inform Specific: decidingPort is " + decidingPort +
-			// " of component: "
-			// + decidingComponent);
-
-			Set<Port> componentPorts = disabledCombinations.get(component);
+		int[] decidingPortDVariables = dVariables[decidingIndex];
+		int[] negatedDVariables = new int[providingPortIndices.size()];
+		int noNegatedDVariables = 0;
+		for (Map.Entry<BIPComponent, Set<Port>> disabledComponent : disabledCombinations.entrySet()) {
+			Set<Port> componentPorts = disabledComponent.getValue();
 			if (componentPorts == null) {
-				throw new BIPEngineException("component " + component + " disabled combinations are null ");
+				throw new BIPEngineException("component " + disabledComponent.getKey()
+						+ " disabled combinations are null ");
 			}
 			logger.trace("Inform Specific: disabled Component ports size: " + componentPorts.size());
 			for (Port port : componentPorts) {
-				logger.trace("Inform Specific: disabledPort is " + port.getId() + "of component" + port.component());
-				// System.out.println("Inform Specific: disabledPort is " + port.getId() +
-				// "of component"
-				// + port.component());
-
-				Set<Entry<Port, Port>> allpairsBiDirectionalPairs = portsToDVarBDDMapping.keySet();
-				Entry<Port, Port> pairToNegate = new AbstractMap.SimpleEntry<Port, Port>(decidingPort, port);
-				if (allpairsBiDirectionalPairs.contains(pairToNegate)) {
-					result.andWith(portsToDVarBDDMapping.get(pairToNegate).not());
+				Integer providingIndex = providingPortIndices.get(port);
+				if (providingIndex != null && decidingPortDVariables[providingIndex] >= 0) {
+					negatedDVariables[noNegatedDVariables++] = decidingPortDVariables[providingIndex];
 				}
 			}
 		}
-		return result;
+		if (noNegatedDVariables == 0) {
+			return BDDmanager.one();
+		}
+		if (noNegatedDVariables < negatedDVariables.length) {
+			negatedDVariables = Arrays.copyOf(negatedDVariables, noNegatedDVariables);
+		}
+		return BDDmanager.buildCube(0, negatedDVariables);
 	}
 
 	/*
@@ -161,6 +186,152 @@ public class DataEncoderImpl implements DataEncoder {
 		// return computeDvariablesBDDs();
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.javabip.engine.api.DataEncoder#specifySymbolicData(java.lang.Iterable, java.lang.Iterable,
+	 * java.lang.Iterable)
+	 */
+	public synchronized Set<BDD> specifySymbolicData(Iterable<DataWire> dataGlue, Iterable<FiniteDataDomain> domains,
+			Iterable<SymbolicGuard> guards) throws BIPEngineException {
+		Map<String, FiniteDataDomain> newDomains = new LinkedHashMap<String, FiniteDataDomain>();
+		for (FiniteDataDomain domain : domains) {
+			String domainKey = domain.getComponentType() + "." + domain.getDataName();
+			if (domain.getValues().isEmpty() || finiteDomains.containsKey(domainKey)
+					|| newDomains.containsKey(domainKey)) {
+				logger.error("The finite domain of data " + domainKey + " is empty or declared twice.");
+				throw new BIPEngineException("The finite domain of data " + domainKey + " is empty or declared twice.");
+			}
+			newDomains.put(domainKey, domain);
+		}
+
+		/*
+		 * The domains are only kept if all the guards can be encoded, so that no value is encoded at each cycle for a
+		 * data whose guards are evaluated by the components.
+		 */
+		finiteDomains.putAll(newDomains);
+		try {
+			return encodeSymbolicData(dataGlue, newDomains.values(), guards);
+		} catch (RuntimeException e) {
+			finiteDomains.keySet().removeAll(newDomains.keySet());
+			for (FiniteDataDomain domain : newDomains.values()) {
+				for (BIPComponent component : dataCoordinator.getBIPComponentInstances(domain.getComponentType())) {
+					Map<String, int[]> componentVariables = valueVariables.get(component);
+					if (componentVariables != null) {
+						componentVariables.remove(domain.getDataName());
+					}
+				}
+			}
+			throw e;
+		}
+	}
+
+	private Set<BDD> encodeSymbolicData(Iterable<DataWire> dataGlue, Iterable<FiniteDataDomain> domains,
+			Iterable<SymbolicGuard> guards) throws BIPEngineException {
+		Set<BDD> guardConstraints = new HashSet<BDD>();
+		/*
+		 * Value variables: each value of a domain of size n is encoded by its index, and the code n stands for any value
+		 * outside of the domain.
+		 */
+		for (FiniteDataDomain domain : domains) {
+			int noBits = 32 - Integer.numberOfLeadingZeros(domain.getValues().size());
+			for (BIPComponent component : dataCoordinator.getBIPComponentInstances(domain.getComponentType())) {
+				int firstVariable = BDDmanager.varNum();
+				BDDmanager.setVarNum(firstVariable + noBits);
+				int[] variables = new int[noBits];
+				for (int i = 0; i < noBits; i++) {
+					variables[i] = firstVariable + i;
+				}
+				Map<String, int[]> componentVariables = valueVariables.get(component);
+				if (componentVariables == null) {
+					componentVariables = new HashMap<String, int[]>();
+					valueVariables.put(component, componentVariables);
+				}
+				componentVariables.put(domain.getDataName(), variables);
+				logger.trace("Value variables " + Arrays.toString(variables) + " allocated for data "
+						+ domain.getDataName() + " of component " + component);
+			}
+		}
+
+		for (SymbolicGuard guard : guards) {
+			for (DataWire wire : dataGlue) {
+				if (!wire.getTo().getSpecType().equals(guard.getComponentType())
+						|| !wire.getTo().getId().equals(guard.getDataName())) {
+					continue;
+				}
+				FiniteDataDomain domain = finiteDomains.get(wire.getFrom().getSpecType() + "." + wire.getFrom().getId());
+				if (domain == null) {
+					logger.error("Symbolic guard " + guard + " receives data " + wire.getFrom().getId()
+							+ " of component type " + wire.getFrom().getSpecType() + ", which has no finite domain.");
+					throw new BIPEngineException("Symbolic guard " + guard + " receives data " + wire.getFrom().getId()
+							+ " of component type " + wire.getFrom().getSpecType() + ", which has no finite domain.");
+				}
+				List<Integer> enabledCodes = new ArrayList<Integer>();
+				for (int code = 0; code < domain.getValues().size(); code++) {
+					if (guard.isEnabled(domain.getValues().get(code))) {
+						enabledCodes.add(code);
+					}
+				}
+				guardConstraints.addAll(encodeSymbolicGuard(guard, wire, enabledCodes));
+			}
+		}
+		return guardConstraints;
+	}
+
+	/**
+	 * Encodes a symbolic guard for the d-variables of one data wire: d implies that the value of the providing
+	 * component is one of the enabled codes.
+	 */
+	private Set<BDD> encodeSymbolicGuard(SymbolicGuard guard, DataWire wire, List<Integer> enabledCodes) {
+		Set<BDD> constraints = new HashSet<BDD>();
+		for (BIPComponent provider : dataCoordinator.getBIPComponentInstances(wire.getFrom().getSpecType())) {
+			int[] variables = valueVariables.get(provider).get(wire.getFrom().getId());
+			BDD enabledValues = BDDmanager.zero();
+			for (int code : enabledCodes) {
+				enabledValues.orWith(BDDmanager.buildCube(code, variables));
+			}
+			for (BIPComponent decider : dataCoordinator.getBIPComponentInstances(guard.getComponentType())) {
+				for (Port inPort : dataCoordinator.getBehaviourByComponent(decider).getEnforceablePorts()) {
+					if (!inPort.getId().equals(guard.getPortId())) {
+						continue;
+					}
+					for (Port outPort : dataCoordinator.getBehaviourByComponent(provider).getDataProvidingPorts(
+							wire.getFrom().getId())) {
+						BDD dVariable = portsToDVarBDDMapping.get(new AbstractMap.SimpleEntry<Port, Port>(inPort,
+								outPort));
+						if (dVariable != null) {
+							constraints.add(dVariable.not().orWith(enabledValues.id()));
+						}
+					}
+				}
+			}
+			enabledValues.free();
+		}
+		return constraints;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.javabip.engine.api.DataEncoder#encodeDataValue(org.javabip.api.BIPComponent, java.lang.String,
+	 * java.lang.Object)
+	 */
+	public synchronized BDD encodeDataValue(BIPComponent component, String dataName, Object value) {
+		Map<String, int[]> componentVariables = valueVariables.get(component);
+		if (componentVariables == null || !componentVariables.containsKey(dataName)) {
+			return null;
+		}
+		List<Object> values = finiteDomains.get(dataCoordinator.getBehaviourByComponent(component).getComponentType()
+				+ "." + dataName).getValues();
+		int code = values.indexOf(value);
+		if (code < 0) {
+			logger.warn("Value " + value + " of data " + dataName + " of component " + component
+					+ " is not in its finite domain " + values + ".");
+			code = values.size();
+		}
+		return BDDmanager.buildCube(code, componentVariables.get(dataName));
+	}
+
 	// /**
 	// * Conjunction of all implication BDDs.
 	// *
@@ -252,7 +423,12 @@ public class DataEncoderImpl implements DataEncoder {
 			 */
 			for (Port inPort : inPorts) {
 				for (Port outPort : outPorts) {
-					if (!moreImplications.containsKey(outPort)) {
+					/*
+					 * A component never exchanges data with itself, so no d-variable is created for a pair of its own
+					 * ports.
+					 */
+					if (inPort.component().equals(outPort.component())) {
+						continue;
 					}
 					Entry<Port, Port> inOutPortsPair = new AbstractMap.SimpleEntry<Port, Port>(inPort, outPort);
 
@@ -298,6 +474,8 @@ public class DataEncoderImpl implements DataEncoder {
 
 		}
 
+		indexDVariables();
+
 		// TODO: Consider moving this into the previous cycle
 		// TODO: Do it only after discussing having a component instance
 		// associated to a port instance.
@@ -313,6 +491,13 @@ public class DataEncoderImpl implements DataEncoder {
 						+ inPort.component().getId());
 				if (!auxiliary.isEmpty()) {
 					moreImplications.put(componentInBDDs.get(inPort), auxiliary);
+				} else {
+					/*
+					 * The data can only be provided by the component itself, hence the port can never be executed.
+					 */
+					logger.debug("Port " + inPort.getId() + " of component " + inPort.component().getId()
+							+ " has no other component providing its data and is disabled.");
+					implicationsOfDs.add(componentInBDDs.get(inPort).not());
 				}
 			}
 		}
@@ -332,6 +517,29 @@ public class DataEncoderImpl implements DataEncoder {
 		return implicationsOfDs;
 	}
 
+	/**
+	 * Assigns dense indices to the deciding and providing ports of the d-variables and stores the BDD variable of each
+	 * d-variable in a table indexed by them, so that informSpecific does not need to look up port pairs.
+	 */
+	private void indexDVariables() {
+		for (Entry<Port, Port> pair : portsToDVarBDDMapping.keySet()) {
+			if (!decidingPortIndices.containsKey(pair.getKey())) {
+				decidingPortIndices.put(pair.getKey(), decidingPortIndices.size());
+			}
+			if (!providingPortIndices.containsKey(pair.getValue())) {
+				providingPortIndices.put(pair.getValue(), providingPortIndices.size());
+			}
+		}
+		dVariables = new int[decidingPortIndices.size()][providingPortIndices.size()];
+		for (int[] decidingPortDVariables : dVariables) {
+			Arrays.fill(decidingPortDVariables, -1);
+		}
+		for (Map.Entry<Entry<Port, Port>, BDD> dVariable : portsToDVarBDDMapping.entrySet()) {
+			dVariables[decidingPortIndices.get(dVariable.getKey().getKey())][providingPortIndices.get(dVariable
+					.getKey().getValue())] = dVariable.getValue().var();
+		}
+	}
+
 	/*
 	 * NB: Inputs are not ports actually. In the specType the type of the component is stored. In the id the name of the
 	 * data variable is stored.
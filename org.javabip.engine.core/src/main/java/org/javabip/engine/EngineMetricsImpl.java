@@ -0,0 +1,152 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine;
+
+import org.javabip.engine.api.ComponentLatency;
+import org.javabip.engine.api.EngineMetrics;
+import org.javabip.engine.api.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps one latency histogram per phase of the execution cycle, and the latest inform latencies of each component in a
+ * fixed window, which is small since there may be many components.
+ */
+public class EngineMetricsImpl implements EngineMetrics {
+
+	/** The number of latest informs kept per component. */
+	public static final int DEFAULT_INFORM_WINDOW = 32;
+
+	/**
+	 * The latest inform latencies of one component, overwritten in a circle.
+	 */
+	private static class InformWindow {
+		private final long[] latencies;
+		private int next;
+		private int count;
+
+		InformWindow(int size) {
+			latencies = new long[size];
+		}
+
+		synchronized void record(long nanos) {
+			latencies[next] = nanos;
+			next = (next + 1) % latencies.length;
+			if (count < latencies.length) {
+				count++;
+			}
+		}
+
+		synchronized long[] snapshot() {
+			long[] copy = new long[count];
+			System.arraycopy(latencies, 0, copy, 0, count);
+			return copy;
+		}
+	}
+
+	private final int informWindow;
+
+	private final ConcurrentHashMap<String, InformWindow> informWindows = new ConcurrentHashMap<String, InformWindow>();
+
+	/** Filled once, and only read afterwards. */
+	private final Map<Phase, LatencyHistogram> histograms = new EnumMap<Phase, LatencyHistogram>(Phase.class);
+
+	public EngineMetricsImpl() {
+		this(DEFAULT_INFORM_WINDOW);
+	}
+
+	/**
+	 * @param informWindow
+	 *            the number of latest informs kept per component.
+	 */
+	public EngineMetricsImpl(int informWindow) {
+		this.informWindow = informWindow;
+		for (Phase phase : Phase.values()) {
+			histograms.put(phase, new LatencyHistogram());
+		}
+	}
+
+	public void record(Phase phase, long nanos) {
+		histograms.get(phase).record(nanos);
+	}
+
+	public LatencyHistogram getHistogram(Phase phase) {
+		return histograms.get(phase);
+	}
+
+	public void recordInform(String componentId, long nanos) {
+		histograms.get(Phase.INFORM).record(nanos);
+		InformWindow window = informWindows.get(componentId);
+		if (window == null) {
+			InformWindow newWindow = new InformWindow(informWindow);
+			window = informWindows.putIfAbsent(componentId, newWindow);
+			if (window == null) {
+				window = newWindow;
+			}
+		}
+		window.record(nanos);
+	}
+
+	public void forgetComponent(String componentId) {
+		informWindows.remove(componentId);
+	}
+
+	public List<ComponentLatency> getStragglers(int count, final double percentile) {
+		if (count <= 0) {
+			return Collections.emptyList();
+		}
+		Comparator<ComponentLatency> byPercentile = new Comparator<ComponentLatency>() {
+			public int compare(ComponentLatency first, ComponentLatency second) {
+				long firstLatency = first.getPercentile(percentile);
+				long secondLatency = second.getPercentile(percentile);
+				return firstLatency < secondLatency ? -1 : firstLatency == secondLatency ? 0 : 1;
+			}
+		};
+		// the fastest of the slowest components found so far is at the head
+		PriorityQueue<ComponentLatency> slowest = new PriorityQueue<ComponentLatency>(count, byPercentile);
+		for (Map.Entry<String, InformWindow> entry : informWindows.entrySet()) {
+			long[] latencies = entry.getValue().snapshot();
+			if (latencies.length == 0) {
+				continue;
+			}
+			slowest.add(new ComponentLatency(entry.getKey(), latencies));
+			if (slowest.size() > count) {
+				slowest.poll();
+			}
+		}
+		List<ComponentLatency> stragglers = new ArrayList<ComponentLatency>(slowest);
+		Collections.sort(stragglers, Collections.reverseOrder(byPercentile));
+		return stragglers;
+	}
+
+	public void reset() {
+		for (LatencyHistogram histogram : histograms.values()) {
+			histogram.reset();
+		}
+		informWindows.clear();
+	}
+
+}
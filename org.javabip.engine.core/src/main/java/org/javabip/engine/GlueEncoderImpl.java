@@ -153,20 +153,41 @@ public class GlueEncoderImpl implements GlueEncoder {
 
 	/**
 	 * Finds the BDDs of the ports of the components that are needed for computing one require macro and computes the
-	 * BDD for this macro by calling the requireBDD method.
+	 * BDD for this macro by calling the requireCausesBDD method.
 	 * 
-	 * @param requires
-	 *            interaction constraints
+	 * @param effect
+	 *            the effect port of the Require macro
+	 * @param requireCauses
+	 *            the alternatives of the causes of the Require macro
 	 * 
 	 * @return the BDD that corresponds to a Require macro
 	 * 
 	 * @throws BIPEngineException
 	 * @throws InterruptedException
 	 */
-	ArrayList<BDD> decomposeRequireGlue(Require requires) throws BIPEngineException {
+	ArrayList<BDD> decomposeRequireGlue(PortBase effect, List<List<PortBase>> requireCauses) throws BIPEngineException {
+		return decomposeRequireGlue(effect, requireCauses, null);
+	}
+
+	/**
+	 * Computes the BDDs of a Require macro for the given effect component instances only.
+	 * 
+	 * @param effect
+	 *            the effect port of the Require macro
+	 * @param requireCauses
+	 *            the alternatives of the causes of the Require macro
+	 * @param effectInstances
+	 *            the effect component instances, or null for all the registered instances of the effect type
+	 * 
+	 * @return the BDDs that correspond to the Require macro for the given effect instances
+	 * 
+	 * @throws BIPEngineException
+	 */
+	ArrayList<BDD> decomposeRequireGlue(PortBase effect, List<List<PortBase>> requireCauses,
+			List<BIPComponent> effectInstances) throws BIPEngineException {
 		ArrayList<BDD> result = new ArrayList<BDD>();
 
-		if (requires.getEffect() == null) {
+		if (effect == null) {
 			try {
 				logger.error("Effect part of a Require constraint was not specified.");
 				throw new BIPEngineException("Effect part of a Require constraint was not specified.");
@@ -176,7 +197,7 @@ public class GlueEncoderImpl implements GlueEncoder {
 			}
 		}
 
-		if (requires.getEffect().getId().isEmpty()) {
+		if (effect.getId().isEmpty()) {
 			try {
 				logger.error("The port at the effect part of a Require constraint was not specified.");
 				throw new BIPEngineException("The port at the effect part of a Require constraint was not specified.");
@@ -186,7 +207,7 @@ public class GlueEncoderImpl implements GlueEncoder {
 			}
 		}
 
-		if (requires.getEffect().getSpecType().isEmpty()) {
+		if (effect.getSpecType().isEmpty()) {
 			try {
 				logger.error("The component type of a port at the effect part of a Require constraint was not specified.");
 				throw new BIPEngineException(
@@ -197,9 +218,10 @@ public class GlueEncoderImpl implements GlueEncoder {
 			}
 		}
 		/* Find all effect component instances */
-		List<BIPComponent> requireEffectComponents = findEffectComponents(requires.getEffect());
+		List<BIPComponent> requireEffectComponents = effectInstances == null ? findEffectComponents(effect)
+				: effectInstances;
 
-		if (requires.getCauses() == null) {
+		if (requireCauses == null) {
 			try {
 				logger.error("Causes part of a Require constraint was not specified in the macro.");
 				throw new BIPEngineException("Causes part of a Require constraint was not specified");
@@ -210,7 +232,6 @@ public class GlueEncoderImpl implements GlueEncoder {
 		}
 
 		/* Find all causes component instances */
-		List<List<PortBase>> requireCauses = requires.getCauses();
 		List<Hashtable<PortBase, ArrayList<BDD>>> allPorts = new ArrayList<Hashtable<PortBase, ArrayList<BDD>>>();
 		List<Hashtable<PortBase, Integer>> allCardinalities = new ArrayList<Hashtable<PortBase, Integer>>();
 
@@ -245,32 +266,57 @@ public class GlueEncoderImpl implements GlueEncoder {
 			 */
 		}
 
-		// TODO: dont recompute the causes for each component instance
+		/*
+		 * The causes do not depend on the effect instance. They are computed once for the constraint and every effect
+		 * instance only adds the negation of its own port.
+		 */
+		BDD allDisjunctiveCauses = requireCausesBDD(allPorts, allCardinalities);
 		for (BIPComponent effectInstance : requireEffectComponents) {
-			logger.trace("Require Effect port type: " + requires.getEffect().getId() + " of component "
-					+ requires.getEffect().getSpecType());
-			result.add(requireBDD(behenc.getBDDOfAPort(effectInstance, requires.getEffect().getId()), allPorts,
-					allCardinalities));
+			logger.trace("Require Effect port type: " + effect.getId() + " of component " + effect.getSpecType());
+			BDD requirePortHolder = behenc.getBDDOfAPort(effectInstance, effect.getId());
+			result.add(allDisjunctiveCauses.id().orWith(requirePortHolder.not()));
 		}
+		allDisjunctiveCauses.free();
 		return result;
 	}
 
 	/**
 	 * Finds the BDDs of the ports of the components that are needed for computing one accept macro and computes the BDD
-	 * for this macro by calling the acceptBDD method.
+	 * for this macro by calling the acceptExclusionBDD method.
 	 * 
-	 * @param accept
-	 *            interaction constraints
+	 * @param effect
+	 *            the effect port of the Accept macro
+	 * @param acceptCauses
+	 *            the ports of the causes of the Accept macro
 	 * 
 	 * @return the BDD that corresponds to an Accept macro
 	 * 
 	 * @throws BIPEngineException
 	 * @throws InterruptedException
 	 */
-	ArrayList<BDD> decomposeAcceptGlue(Accept accept) throws BIPEngineException {
+	ArrayList<BDD> decomposeAcceptGlue(PortBase effect, Collection<PortBase> acceptCauses) throws BIPEngineException {
+		return decomposeAcceptGlue(effect, acceptCauses, null);
+	}
+
+	/**
+	 * Computes the BDDs of an Accept macro for the given effect component instances only.
+	 * 
+	 * @param effect
+	 *            the effect port of the Accept macro
+	 * @param acceptCauses
+	 *            the ports of the causes of the Accept macro
+	 * @param effectInstances
+	 *            the effect component instances, or null for all the registered instances of the effect type
+	 * 
+	 * @return the BDDs that correspond to the Accept macro for the given effect instances
+	 * 
+	 * @throws BIPEngineException
+	 */
+	ArrayList<BDD> decomposeAcceptGlue(PortBase effect, Collection<PortBase> acceptCauses,
+			List<BIPComponent> effectInstances) throws BIPEngineException {
 		ArrayList<BDD> result = new ArrayList<BDD>();
 
-		if (accept.getEffect() == null) {
+		if (effect == null) {
 			try {
 				logger.error("Effect part of an Accept constraint was not specified in the macro.");
 				throw new BIPEngineException("Effect part of an Accept constraint was not specified");
@@ -280,7 +326,7 @@ public class GlueEncoderImpl implements GlueEncoder {
 			}
 		}
 
-		if (accept.getEffect().getId().isEmpty()) {
+		if (effect.getId().isEmpty()) {
 			try {
 				logger.error("The port at the effect part of an Accept constraint was not specified.");
 				throw new BIPEngineException("The port at the effect part of an Accept constraint was not specified");
@@ -290,7 +336,7 @@ public class GlueEncoderImpl implements GlueEncoder {
 			}
 		}
 
-		if (accept.getEffect().getSpecType().isEmpty()) {
+		if (effect.getSpecType().isEmpty()) {
 			try {
 				logger.error("The component type of a port at the effect part of an Accept constraint was not specified");
 				throw new BIPEngineException(
@@ -301,9 +347,10 @@ public class GlueEncoderImpl implements GlueEncoder {
 			}
 		}
 		/* Find all effect component instances */
-		List<BIPComponent> acceptEffectComponents = findEffectComponents(accept.getEffect());
+		List<BIPComponent> acceptEffectComponents = effectInstances == null ? findEffectComponents(effect)
+				: effectInstances;
 
-		if (accept.getCauses() == null) {
+		if (acceptCauses == null) {
 			try {
 				logger.error("Causes part of an Accept constraint was not specified in the macro.");
 				throw new BIPEngineException("Causes part of an Accept constraint was not specified");
@@ -313,27 +360,37 @@ public class GlueEncoderImpl implements GlueEncoder {
 			}
 		}
 		/* Find all causes component instances */
-		Hashtable<PortBase, ArrayList<BDD>> portsToBDDs = findCausesComponents(accept.getCauses());
+		Hashtable<PortBase, ArrayList<BDD>> portsToBDDs = findCausesComponents(acceptCauses);
 
+		/*
+		 * The ports that are not accepted are the same for all effect instances, apart from the port of the instance
+		 * itself. They are computed once for the constraint and the port of each effect instance is then set free.
+		 */
+		BDD notAcceptedPortsBDD = acceptExclusionBDD(portsToBDDs);
 		for (BIPComponent effectInstance : acceptEffectComponents) {
-			result.add(acceptBDD(behenc.getBDDOfAPort(effectInstance, accept.getEffect().getId()), portsToBDDs));
+			BDD acceptPortHolder = behenc.getBDDOfAPort(effectInstance, effect.getId());
+			BDD holderNegated = acceptPortHolder.not();
+			BDD allCausesBDD = notAcceptedPortsBDD.restrict(holderNegated);
+			result.add(allCausesBDD.orWith(holderNegated));
 		}
+		notAcceptedPortsBDD.free();
 		return result;
 	}
 
 	/**
-	 * Computes the BDD that corresponds to a Require macro.
+	 * Computes the part of a Require macro that corresponds to its causes, i.e. the disjunction over the alternatives
+	 * of the causes of the required cardinalities of ports.
 	 * 
-	 * @param BDD
-	 *            of the port of the component holder of the Require macro
-	 * @param Hashtable
-	 *            of ports of the "causes" part of the Require macro and the corresponding port BDDs of the component
-	 *            instances
+	 * @param allCausesPorts
+	 *            for each alternative of the "causes" part of the Require macro, its ports and the corresponding port
+	 *            BDDs of the component instances
+	 * @param requiredCardinalities
+	 *            the cardinalities of the ports for each alternative of the causes
 	 * 
-	 * @return the BDD that corresponds to a Require macro.
+	 * @return the BDD of the causes of a Require macro.
 	 */
 
-	BDD requireBDD(BDD requirePortHolder, List<Hashtable<PortBase, ArrayList<BDD>>> allCausesPorts,
+	BDD requireCausesBDD(List<Hashtable<PortBase, ArrayList<BDD>>> allCausesPorts,
 			List<Hashtable<PortBase, Integer>> requiredCardinalities) {
 
 		BDD allDisjunctiveCauses = engine.getBDDManager().zero();
@@ -406,118 +463,67 @@ public class GlueEncoderImpl implements GlueEncoder {
 			allDisjunctiveCauses.orWith(allCausesBDD);
 		}
 		logger.trace("Finished with the require BDDs");
-		allDisjunctiveCauses.orWith(requirePortHolder.not());
-		logger.trace("Finished with the disjunctive causes");
 		return allDisjunctiveCauses;
 	}
 
 	/**
-	 * Computes the BDD that corresponds to an Accept macro.
+	 * Computes the conjunction of the negations of all the registered ports that are not accepted by an Accept macro.
+	 * The port of the component holder of the macro is handled by the caller.
 	 * 
-	 * @param BDD
-	 *            of the port of the component holder of the Accept macro
-	 * @param Hashtable
-	 *            of ports of the "causes" part of the Accept macro and the corresponding port BDDs of the component
+	 * @param acceptedPorts
+	 *            the ports of the "causes" part of the Accept macro and the corresponding port BDDs of the component
 	 *            instances
 	 * 
-	 * @return the BDD that corresponds to an Accept macro.
+	 * @return the BDD forbidding all the ports that are not accepted.
 	 */
-
-	BDD acceptBDD(BDD acceptPortHolder, Hashtable<PortBase, ArrayList<BDD>> acceptedPorts) {
-		BDD tmp;
-
-		ArrayList<BDD> totalPortBDDs = new ArrayList<BDD>();
-
-		/*
-		 * Get all port BDDs registered in the Behaviour Encoder and add them in the totalPortBDDs ArrayList.
-		 */
-		Map<BIPComponent, BDD[]> componentToBDDs = behenc.getPortBDDs();
-
-		for (BIPComponent component : componentToBDDs.keySet()) {
-			BDD[] portBDD = componentToBDDs.get(component);
-			for (int p = 0; p < portBDD.length; p++) {
-				totalPortBDDs.add(portBDD[p]);
-			}
-		}
-		logger.trace("totalPortBDDs size: " + totalPortBDDs.size());
+	BDD acceptExclusionBDD(Hashtable<PortBase, ArrayList<BDD>> acceptedPorts) {
 		BDD allCausesBDD = engine.getBDDManager().one();
+		if (acceptedPorts.isEmpty()) {
+			return allCausesBDD;
+		}
 
-		if (acceptedPorts.size() > 1) {
-			logger.trace("Start computing the accept BDDs");
-			for (BDD portBDD : totalPortBDDs) {
-				boolean exist = false;
-
-				for (Enumeration<PortBase> portEnum = acceptedPorts.keys(); portEnum.hasMoreElements();) {
-					PortBase port = portEnum.nextElement();
-					ArrayList<BDD> currentPortInstanceBDDs = acceptedPorts.get(port);
-					logger.trace("currentPortInstanceBDDs size" + currentPortInstanceBDDs.size());
-					int indexPortBDD = 0;
-
-					if ((portBDD).equals(acceptPortHolder)) {
-						exist = true;
-					}
-					while (!exist && indexPortBDD < currentPortInstanceBDDs.size()) {
-						if (currentPortInstanceBDDs.get(indexPortBDD).equals(portBDD)) {
-							exist = true;
+		HashSet<BDD> acceptedPortBDDs = new HashSet<BDD>();
+		for (ArrayList<BDD> portInstanceBDDs : acceptedPorts.values()) {
+			acceptedPortBDDs.addAll(portInstanceBDDs);
+		}
 
-						} else {
-							indexPortBDD++;
-						}
-					}
-				}
-				if (!exist) {
+		logger.trace("Start computing the accept BDDs");
+		for (BDD[] portBDDs : behenc.getPortBDDs().values()) {
+			for (BDD portBDD : portBDDs) {
+				if (!acceptedPortBDDs.contains(portBDD)) {
 					allCausesBDD.andWith(portBDD.not());
 				}
 			}
-		} else {
-			for (BDD portBDD : totalPortBDDs) {
-				boolean exist = false;
-
-				for (Enumeration<PortBase> portEnum = acceptedPorts.keys(); portEnum.hasMoreElements();) {
-					PortBase port = portEnum.nextElement();
-					ArrayList<BDD> currentPortInstanceBDDs = acceptedPorts.get(port);
-					int indexPortBDD = 0;
-
-					if ((portBDD).equals(acceptPortHolder)) {
-						exist = true;
-					}
-					while (!exist && indexPortBDD < currentPortInstanceBDDs.size()) {
-						if (currentPortInstanceBDDs.get(indexPortBDD).equals(portBDD)) {
-							exist = true;
-						} else {
-							indexPortBDD++;
-						}
-					}
-					if (!exist) {
-						tmp = portBDD.not().and(allCausesBDD);
-						allCausesBDD.free();
-						allCausesBDD = tmp;
-					}
-				}
-			}
 		}
 		logger.trace("Finished computing the accept BDDs");
-		return allCausesBDD.orWith(acceptPortHolder.not());
+		return allCausesBDD;
 	}
 
 	public ArrayList<BDD> totalGlue() throws BIPEngineException {
 		ArrayList<BDD> allGlueBDDs = new ArrayList<BDD>();
 
-		if (!glueSpec.getRequiresConstraints().isEmpty() || !glueSpec.getRequiresConstraints().equals(null)) {
-			logger.trace("Glue spec require Constraints size: {} ", glueSpec.getRequiresConstraints().size());
+		/*
+		 * Redundant constraints are removed before encoding, so that they do not end up in the total glue BDD.
+		 */
+		GlueNormalizer normalizedGlue = new GlueNormalizer(glueSpec, registeredPorts());
+		logger.info("Glue normalization removed {} constraints and {} alternatives of require causes.",
+				normalizedGlue.getRemovedConstraints(), normalizedGlue.getRemovedAlternatives());
+
+		if (!normalizedGlue.getRequires().isEmpty()) {
+			logger.trace("Glue spec require Constraints size: {} ", normalizedGlue.getRequires().size());
 			logger.trace("Start conjunction of requires");
-			for (Require requires : glueSpec.getRequiresConstraints()) {
-				allGlueBDDs.addAll(decomposeRequireGlue(requires));
+			for (GlueNormalizer.RequireConstraint requires : normalizedGlue.getRequires()) {
+				allGlueBDDs.addAll(decomposeRequireGlue(requires.effect, requires.causes));
 
 			}
 		} else {
 			logger.warn("No require constraints provided (usually there should be some).");
 		}
 
-		logger.trace("Glue spec accept Constraints size: {} ", glueSpec.getAcceptConstraints().size());
-		if (!glueSpec.getAcceptConstraints().isEmpty() || !glueSpec.getAcceptConstraints().equals(null)) {
-			for (Accept accepts : glueSpec.getAcceptConstraints()) {
-				allGlueBDDs.addAll(decomposeAcceptGlue(accepts));
+		logger.trace("Glue spec accept Constraints size: {} ", normalizedGlue.getAccepts().size());
+		if (!normalizedGlue.getAccepts().isEmpty()) {
+			for (GlueNormalizer.AcceptConstraint accepts : normalizedGlue.getAccepts()) {
+				allGlueBDDs.addAll(decomposeAcceptGlue(accepts.effect, accepts.causes));
 			}
 		} else {
 			logger.warn("No accept constraints were provided (usually there should be some).");
@@ -525,6 +531,83 @@ public class GlueEncoderImpl implements GlueEncoder {
 		return allGlueBDDs;
 	}
 
+	public ArrayList<BDD> componentGlue(BIPComponent component) throws BIPEngineException {
+		ArrayList<BDD> componentGlueBDDs = new ArrayList<BDD>();
+		GlueNormalizer normalizedGlue = new GlueNormalizer(glueSpec, registeredPorts());
+		List<BIPComponent> newInstance = Collections.singletonList(component);
+		String componentType = component.getType();
+
+		/*
+		 * The causes of a Require fix the exact number of instances of each port that take part. Adding an instance of
+		 * a cause type changes the constraint of every effect instance, which cannot be done by conjunction.
+		 */
+		for (GlueNormalizer.RequireConstraint requires : normalizedGlue.getRequires()) {
+			for (List<PortBase> alternative : requires.causes) {
+				for (PortBase cause : alternative) {
+					if (componentType.equals(cause.getSpecType())) {
+						logger.info("Component type {} appears in the causes of a Require. The glue must be recomputed.",
+								componentType);
+						for (BDD glueBDD : componentGlueBDDs) {
+							glueBDD.free();
+						}
+						return null;
+					}
+				}
+			}
+			if (componentType.equals(requires.effect.getSpecType())) {
+				componentGlueBDDs.addAll(decomposeRequireGlue(requires.effect, requires.causes, newInstance));
+			}
+		}
+
+		Map<String, BDD> newPorts = behenc.getPortToBDDOfAComponent(component);
+		for (GlueNormalizer.AcceptConstraint accepts : normalizedGlue.getAccepts()) {
+			if (componentType.equals(accepts.effect.getSpecType())) {
+				componentGlueBDDs.addAll(decomposeAcceptGlue(accepts.effect, accepts.causes, newInstance));
+			}
+
+			/*
+			 * The existing effect instances must not synchronize with the ports of the new component that they do not
+			 * accept. An Accept without causes is not encoded at all.
+			 */
+			if (accepts.causes.isEmpty()) {
+				continue;
+			}
+			BDD notAcceptedNewPorts = engine.getBDDManager().one();
+			for (Map.Entry<String, BDD> newPort : newPorts.entrySet()) {
+				boolean accepted = false;
+				for (PortBase cause : accepts.causes) {
+					if (componentType.equals(cause.getSpecType()) && newPort.getKey().equals(cause.getId())) {
+						accepted = true;
+					}
+				}
+				if (!accepted) {
+					notAcceptedNewPorts.andWith(newPort.getValue().not());
+				}
+			}
+			for (BIPComponent effectInstance : findEffectComponents(accepts.effect)) {
+				if (effectInstance != component) {
+					BDD acceptPortHolder = behenc.getBDDOfAPort(effectInstance, accepts.effect.getId());
+					componentGlueBDDs.add(notAcceptedNewPorts.id().orWith(acceptPortHolder.not()));
+				}
+			}
+			notAcceptedNewPorts.free();
+		}
+		return componentGlueBDDs;
+	}
+
+	/**
+	 * @return the ports of all the registered component types, in the form used by the glue normalization.
+	 */
+	private Set<String> registeredPorts() {
+		Set<String> registeredPorts = new HashSet<String>();
+		for (BIPComponent component : behenc.getPortBDDs().keySet()) {
+			for (String port : behenc.getPortToBDDOfAComponent(component).keySet()) {
+				registeredPorts.add(GlueNormalizer.portKey(component.getType(), port));
+			}
+		}
+		return registeredPorts;
+	}
+
 	public void setBehaviourEncoder(BehaviourEncoder behaviourEncoder) {
 		this.behenc = behaviourEncoder;
 	}
@@ -0,0 +1,261 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.javabip.engine;
+
+import org.javabip.api.Accept;
+import org.javabip.api.BIPGlue;
+import org.javabip.api.PortBase;
+import org.javabip.api.Require;
+
+import java.util.*;
+
+/**
+ * Simplifies the glue specification before it is encoded into BDDs. The constraints produced by glue generators often
+ * contain redundant parts that all end up in the total glue BDD:
+ * <ul>
+ * <li>identical Require or Accept constraints are kept only once;</li>
+ * <li>an alternative of the causes of a Require is dropped if another alternative requires a subset of its ports with
+ * the same cardinalities, since the former implies the latter;</li>
+ * <li>a Require with an empty alternative of causes is always satisfied and is dropped;</li>
+ * <li>Accept constraints with the same effect are merged into one that accepts the intersection of their causes;</li>
+ * <li>an Accept with no causes or that accepts every registered port does not constrain anything and is dropped.</li>
+ * </ul>
+ *
+ * Constraints with a missing effect or missing causes are kept as they are, so that the encoder reports them.
+ */
+class GlueNormalizer {
+
+	/**
+	 * A Require constraint after normalization.
+	 */
+	static class RequireConstraint {
+		final PortBase effect;
+		final List<List<PortBase>> causes;
+
+		RequireConstraint(PortBase effect, List<List<PortBase>> causes) {
+			this.effect = effect;
+			this.causes = causes;
+		}
+	}
+
+	/**
+	 * An Accept constraint after normalization.
+	 */
+	static class AcceptConstraint {
+		final PortBase effect;
+		final Collection<PortBase> causes;
+
+		AcceptConstraint(PortBase effect, Collection<PortBase> causes) {
+			this.effect = effect;
+			this.causes = causes;
+		}
+	}
+
+	private final List<RequireConstraint> requires = new ArrayList<RequireConstraint>();
+	private final List<AcceptConstraint> accepts = new ArrayList<AcceptConstraint>();
+	private int removedConstraints;
+	private int removedAlternatives;
+
+	/**
+	 * Normalizes the given glue.
+	 *
+	 * @param glue
+	 *            the BIP glue.
+	 * @param registeredPorts
+	 *            the ports of all registered component types, as returned by {@link #portKey(String, String)}.
+	 */
+	GlueNormalizer(BIPGlue glue, Set<String> registeredPorts) {
+		normalizeRequires(glue.getRequiresConstraints());
+		normalizeAccepts(glue.getAcceptConstraints(), registeredPorts);
+	}
+
+	List<RequireConstraint> getRequires() {
+		return requires;
+	}
+
+	List<AcceptConstraint> getAccepts() {
+		return accepts;
+	}
+
+	/**
+	 * @return the number of Require and Accept constraints of the glue that were removed or merged into others.
+	 */
+	int getRemovedConstraints() {
+		return removedConstraints;
+	}
+
+	/**
+	 * @return the number of alternatives of the causes of Require constraints that were removed.
+	 */
+	int getRemovedAlternatives() {
+		return removedAlternatives;
+	}
+
+	private void normalizeRequires(List<Require> glueRequires) {
+		if (glueRequires == null) {
+			return;
+		}
+		Set<String> seen = new HashSet<String>();
+		for (Require require : glueRequires) {
+			if (require.getEffect() == null || require.getCauses() == null) {
+				requires.add(new RequireConstraint(require.getEffect(), require.getCauses()));
+				continue;
+			}
+
+			List<List<PortBase>> alternatives = new ArrayList<List<PortBase>>();
+			List<Map<String, Integer>> cardinalities = new ArrayList<Map<String, Integer>>();
+			boolean alwaysSatisfied = false;
+			for (List<PortBase> alternative : require.getCauses()) {
+				if (alternative.isEmpty()) {
+					alwaysSatisfied = true;
+					break;
+				}
+				alternatives.add(alternative);
+				cardinalities.add(cardinalities(alternative));
+			}
+			if (alwaysSatisfied) {
+				removedConstraints++;
+				continue;
+			}
+
+			/*
+			 * An alternative requiring more ports than another one, with the same cardinalities for the common ports,
+			 * only allows interactions that the other one allows already. Of two identical alternatives the first one
+			 * is kept.
+			 */
+			List<List<PortBase>> keptAlternatives = new ArrayList<List<PortBase>>();
+			List<Map<String, Integer>> keptCardinalities = new ArrayList<Map<String, Integer>>();
+			for (int j = 0; j < alternatives.size(); j++) {
+				boolean subsumed = false;
+				for (int i = 0; i < alternatives.size() && !subsumed; i++) {
+					if (i != j && subsumes(cardinalities.get(i), cardinalities.get(j))
+							&& (i < j || !cardinalities.get(i).equals(cardinalities.get(j)))) {
+						subsumed = true;
+					}
+				}
+				if (subsumed) {
+					removedAlternatives++;
+				} else {
+					keptAlternatives.add(alternatives.get(j));
+					keptCardinalities.add(cardinalities.get(j));
+				}
+			}
+
+			List<String> alternativeKeys = new ArrayList<String>();
+			for (Map<String, Integer> alternative : keptCardinalities) {
+				alternativeKeys.add(alternative.toString());
+			}
+			Collections.sort(alternativeKeys);
+			if (!seen.add(portKey(require.getEffect()) + " " + alternativeKeys)) {
+				removedConstraints++;
+				continue;
+			}
+			requires.add(new RequireConstraint(require.getEffect(), keptAlternatives));
+		}
+	}
+
+	private void normalizeAccepts(List<Accept> glueAccepts, Set<String> registeredPorts) {
+		if (glueAccepts == null) {
+			return;
+		}
+		/*
+		 * The accepted ports per effect, in the order in which the effects first appear in the glue.
+		 */
+		Map<String, PortBase> effects = new LinkedHashMap<String, PortBase>();
+		Map<String, Map<String, PortBase>> acceptedPorts = new HashMap<String, Map<String, PortBase>>();
+		for (Accept accept : glueAccepts) {
+			if (accept.getEffect() == null || accept.getCauses() == null) {
+				accepts.add(new AcceptConstraint(accept.getEffect(), accept.getCauses()));
+				continue;
+			}
+			if (accept.getCauses().isEmpty()) {
+				removedConstraints++;
+				continue;
+			}
+
+			Map<String, PortBase> causes = new LinkedHashMap<String, PortBase>();
+			for (PortBase cause : accept.getCauses()) {
+				causes.put(portKey(cause), cause);
+			}
+
+			String effectKey = portKey(accept.getEffect());
+			Map<String, PortBase> previousCauses = acceptedPorts.get(effectKey);
+			if (previousCauses == null) {
+				effects.put(effectKey, accept.getEffect());
+				acceptedPorts.put(effectKey, causes);
+				continue;
+			}
+
+			/*
+			 * Both Accepts hold, so only the ports accepted by both are accepted. An empty intersection cannot be
+			 * expressed as a single Accept, since an Accept without causes is not encoded at all.
+			 */
+			Map<String, PortBase> intersection = new LinkedHashMap<String, PortBase>(previousCauses);
+			intersection.keySet().retainAll(causes.keySet());
+			if (intersection.isEmpty()) {
+				accepts.add(new AcceptConstraint(accept.getEffect(), causes.values()));
+			} else {
+				acceptedPorts.put(effectKey, intersection);
+				removedConstraints++;
+			}
+		}
+
+		for (Map.Entry<String, PortBase> effect : effects.entrySet()) {
+			Map<String, PortBase> causes = acceptedPorts.get(effect.getKey());
+			if (!registeredPorts.isEmpty() && causes.keySet().containsAll(registeredPorts)) {
+				removedConstraints++;
+			} else {
+				accepts.add(new AcceptConstraint(effect.getValue(), new ArrayList<PortBase>(causes.values())));
+			}
+		}
+	}
+
+	/**
+	 * Returns true if every port of the first alternative appears in the second one with the same cardinality.
+	 */
+	private static boolean subsumes(Map<String, Integer> smaller, Map<String, Integer> larger) {
+		for (Map.Entry<String, Integer> port : smaller.entrySet()) {
+			if (!port.getValue().equals(larger.get(port.getKey()))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static Map<String, Integer> cardinalities(List<PortBase> alternative) {
+		Map<String, Integer> cardinalities = new TreeMap<String, Integer>();
+		for (PortBase port : alternative) {
+			String key = portKey(port);
+			Integer cardinality = cardinalities.get(key);
+			cardinalities.put(key, cardinality == null ? 1 : cardinality + 1);
+		}
+		return cardinalities;
+	}
+
+	private static String portKey(PortBase port) {
+		return portKey(port.getSpecType(), port.getId());
+	}
+
+	/**
+	 * @return the key identifying a port of a component type in the normalized glue.
+	 */
+	static String portKey(String specType, String portId) {
+		return specType + "." + portId;
+	}
+
+}
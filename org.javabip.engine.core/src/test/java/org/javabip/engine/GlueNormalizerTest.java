@@ -0,0 +1,192 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.javabip.api.Accept;
+import org.javabip.api.BIPGlue;
+import org.javabip.api.PortBase;
+import org.javabip.api.Require;
+import org.junit.Test;
+
+public class GlueNormalizerTest {
+
+	private final PortBase effect = port("A", "p");
+	private final PortBase q = port("B", "q");
+	private final PortBase r = port("C", "r");
+	private final PortBase s = port("D", "s");
+
+	private final List<Require> requires = new ArrayList<Require>();
+	private final List<Accept> accepts = new ArrayList<Accept>();
+
+	@Test
+	public void requireAlternativeWithMorePortsIsSubsumed() {
+		require(effect, Arrays.asList(q, r), Arrays.asList(q));
+
+		GlueNormalizer normalizer = normalize();
+
+		assertEquals(1, normalizer.getRequires().size());
+		assertEquals(Collections.singletonList(Arrays.asList(q)), normalizer.getRequires().get(0).causes);
+		assertEquals(1, normalizer.getRemovedAlternatives());
+	}
+
+	@Test
+	public void requireAlternativesWithOtherCardinalitiesAreKept() {
+		// two instances of B.q are not implied by one instance of B.q together with C.r
+		require(effect, Arrays.asList(q, q), Arrays.asList(q, r));
+
+		GlueNormalizer normalizer = normalize();
+
+		assertEquals(Arrays.asList(Arrays.asList(q, q), Arrays.asList(q, r)), normalizer.getRequires().get(0).causes);
+		assertEquals(0, normalizer.getRemovedAlternatives());
+	}
+
+	@Test
+	public void requireAlternativeWithMoreInstancesOfAPortIsKept() {
+		// exactly two instances of B.q are not implied by exactly one
+		require(effect, Arrays.asList(q), Arrays.asList(q, q));
+
+		GlueNormalizer normalizer = normalize();
+
+		assertEquals(Arrays.asList(Arrays.asList(q), Arrays.asList(q, q)), normalizer.getRequires().get(0).causes);
+	}
+
+	@Test
+	public void identicalRequireAlternativesAreKeptOnce() {
+		require(effect, Arrays.asList(q, r), Arrays.asList(r, q));
+
+		GlueNormalizer normalizer = normalize();
+
+		assertEquals(Collections.singletonList(Arrays.asList(q, r)), normalizer.getRequires().get(0).causes);
+	}
+
+	@Test
+	public void requireWithAnEmptyAlternativeIsDropped() {
+		require(effect, Arrays.asList(q), Collections.<PortBase> emptyList());
+
+		GlueNormalizer normalizer = normalize();
+
+		assertTrue(normalizer.getRequires().isEmpty());
+		assertEquals(1, normalizer.getRemovedConstraints());
+	}
+
+	@Test
+	public void identicalRequiresAreKeptOnce() {
+		require(effect, Arrays.asList(q, r));
+		require(port("A", "p"), Arrays.asList(r, q));
+
+		GlueNormalizer normalizer = normalize();
+
+		assertEquals(1, normalizer.getRequires().size());
+		assertEquals(1, normalizer.getRemovedConstraints());
+	}
+
+	@Test
+	public void acceptsWithTheSameEffectAreIntersected() {
+		accept(effect, q, r);
+		accept(effect, r, s);
+
+		GlueNormalizer normalizer = normalize();
+
+		assertEquals(1, normalizer.getAccepts().size());
+		assertSame(effect, normalizer.getAccepts().get(0).effect);
+		assertEquals(Collections.singletonList(r), new ArrayList<PortBase>(normalizer.getAccepts().get(0).causes));
+		assertEquals(1, normalizer.getRemovedConstraints());
+	}
+
+	@Test
+	public void disjointAcceptsAreKeptSeparate() {
+		accept(effect, q);
+		accept(effect, r);
+
+		GlueNormalizer normalizer = normalize();
+
+		assertEquals(2, normalizer.getAccepts().size());
+		assertEquals(0, normalizer.getRemovedConstraints());
+	}
+
+	@Test
+	public void acceptOfEveryRegisteredPortIsDropped() {
+		accept(effect, effect, q, r);
+		Set<String> registeredPorts = new HashSet<String>(Arrays.asList(GlueNormalizer.portKey("A", "p"),
+				GlueNormalizer.portKey("B", "q"), GlueNormalizer.portKey("C", "r")));
+
+		GlueNormalizer normalizer = new GlueNormalizer(glue(), registeredPorts);
+
+		assertTrue(normalizer.getAccepts().isEmpty());
+		assertEquals(1, normalizer.getRemovedConstraints());
+	}
+
+	private GlueNormalizer normalize() {
+		return new GlueNormalizer(glue(), Collections.<String> emptySet());
+	}
+
+	private void require(PortBase effect, List<?>... causes) {
+		requires.add(proxy(Require.class, "getEffect", effect, "getCauses", Arrays.asList(causes)));
+	}
+
+	private void accept(PortBase effect, PortBase... causes) {
+		accepts.add(proxy(Accept.class, "getEffect", effect, "getCauses", Arrays.asList(causes)));
+	}
+
+	private BIPGlue glue() {
+		return proxy(BIPGlue.class, "getRequiresConstraints", requires, "getAcceptConstraints", accepts,
+				"getDataWires", Collections.emptyList());
+	}
+
+	private static PortBase port(String specType, String id) {
+		return proxy(PortBase.class, "getSpecType", specType, "getId", id);
+	}
+
+	/**
+	 * Creates an object of the BIP API whose methods return the given values, and null for the other methods.
+	 */
+	private static <T> T proxy(Class<T> type, final Object... values) {
+		return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+				new InvocationHandler() {
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						for (int i = 0; i < values.length; i += 2) {
+							if (values[i].equals(method.getName())) {
+								return values[i + 1];
+							}
+						}
+						if (method.getName().equals("equals")) {
+							return proxy == args[0];
+						} else if (method.getName().equals("hashCode")) {
+							return System.identityHashCode(proxy);
+						}
+						return null;
+					}
+				}));
+	}
+
+}
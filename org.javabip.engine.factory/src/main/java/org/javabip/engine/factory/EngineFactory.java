@@ -26,43 +26,110 @@ import org.javabip.api.BIPEngine;
 import org.javabip.api.BIPGlue;
 import org.javabip.engine.*;
 import org.javabip.engine.api.*;
+import org.javabip.engine.coordinator.CompiledGlueCache;
 import org.javabip.engine.coordinator.DataCoordinatorKernel;
 import org.javabip.engine.coordinator.GlueCoordinatorImpl;
+import org.javabip.engine.coordinator.TraceRecorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Responsible for creating a BIP Engine actor either as BIP Coordinator or as Data Coordinator.
  *
  */
 public class EngineFactory {
+	private Logger logger = LoggerFactory.getLogger(EngineFactory.class);
+
 	ActorSystem actorSystem;
 
+	/** Directory where the compiled glue of each engine is cached, null if caching is disabled. */
+	File compiledGlueCacheDirectory;
+
+	/** The name of the statistics MBean of each engine created and not destroyed yet. */
+	Map<BIPEngine, ObjectName> statisticsNames = new HashMap<BIPEngine, ObjectName>();
+
+	/** Directory where the traffic of each engine is recorded, null if recording is disabled. */
+	File traceDirectory;
+
+	/** The trace recorder of each engine created and not destroyed yet, if recording is enabled. */
+	Map<BIPEngine, TraceRecorder> traceRecorders = new HashMap<BIPEngine, TraceRecorder>();
+
 	public EngineFactory(ActorSystem actorSystem) {
 		this.actorSystem = actorSystem;
 	}
 
+	/**
+	 * Enables the compiled glue cache for the engines created afterwards. Each engine stores its total constraints BDD
+	 * in a file named after the engine id, and reuses it on restart if the glue and the registered components have
+	 * not changed.
+	 * 
+	 * @param directory
+	 *            the cache directory, or null to disable caching.
+	 */
+	public void setCompiledGlueCacheDirectory(File directory) {
+		this.compiledGlueCacheDirectory = directory;
+	}
+
+	/**
+	 * Enables the recording of the traffic of the engines created afterwards. Each engine records the registrations,
+	 * informs and chosen interactions in a file named after the engine id, which is closed when the engine is
+	 * destroyed. The recording can be replayed offline without the components.
+	 * 
+	 * @param directory
+	 *            the trace directory, or null to disable recording.
+	 */
+	public void setTraceDirectory(File directory) {
+		this.traceDirectory = directory;
+	}
+
 	public BIPEngine create(String id, BIPGlue glue) {
 
 		GlueEncoder glueenc = new GlueEncoderImpl();
 		BehaviourEncoder behenc = new BehaviourEncoderImpl();
 		CurrentStateEncoder currstenc = new CurrentStateEncoderImpl();
-		BDDBIPEngine bddBIPEngine = new BDDBIPEngineImpl();
+		BDDBIPEngineImpl bddBIPEngine = new BDDBIPEngineImpl();
 
-		GlueCoordinator basicCoordinator = new GlueCoordinatorImpl(actorSystem, glueenc, behenc, currstenc, bddBIPEngine);
+		GlueCoordinatorImpl basicCoordinator = new GlueCoordinatorImpl(actorSystem, glueenc, behenc, currstenc,
+				bddBIPEngine);
+		if (compiledGlueCacheDirectory != null) {
+			basicCoordinator.setCompiledGlueCache(new CompiledGlueCache(new File(compiledGlueCacheDirectory, id
+					+ ".glue.bdd")));
+		}
 
-		BIPEngine bipEngine;
+		TraceRecorder traceRecorder = null;
+		if (traceDirectory != null) {
+			traceRecorder = new TraceRecorder(new File(traceDirectory, id + ".trace"));
+			basicCoordinator.setTraceRecorder(traceRecorder);
+		}
+
+		GlueCoordinator bipEngine;
+		DataCoordinatorKernel dataCoordinator = null;
 
 		if (glue.getDataWires().size() == 0) {
 			bipEngine = basicCoordinator;
 		} else {
 			DataEncoder dataEncoder = new DataEncoderImpl();
-			bipEngine = new DataCoordinatorKernel(basicCoordinator, dataEncoder);
+			dataCoordinator = new DataCoordinatorKernel(basicCoordinator, dataEncoder);
+			dataCoordinator.setTraceRecorder(traceRecorder);
+			bipEngine = dataCoordinator;
 		}
 
-		final BIPEngine engine = bipEngine;
+		final GlueCoordinator engine = bipEngine;
 
-		BIPEngine actor = (BIPEngine) TypedActor.get(actorSystem).typedActorOf(
-				new TypedProps<BIPEngine>(BIPEngine.class, new Creator<BIPEngine>() {
-					public BIPEngine create() {
+		/*
+		 * The actor exposes the GlueCoordinator interface, so that components can also be deregistered through it.
+		 */
+		GlueCoordinator actor = (GlueCoordinator) TypedActor.get(actorSystem).typedActorOf(
+				new TypedProps<GlueCoordinator>(GlueCoordinator.class, new Creator<GlueCoordinator>() {
+					public GlueCoordinator create() {
 						return engine;
 					}
 				}), id);
@@ -73,15 +140,67 @@ public class EngineFactory {
 
 		actor.specifyGlue(glue);
 
+		ObjectName statisticsName = registerStatistics(id, new EngineStatistics(bddBIPEngine, basicCoordinator,
+				dataCoordinator));
+		if (statisticsName != null) {
+			statisticsNames.put(actor, statisticsName);
+		}
+		if (traceRecorder != null) {
+			traceRecorders.put(actor, traceRecorder);
+		}
+
 		return actor;
 	}
 
+	/**
+	 * Registers the statistics of an engine with the platform MBean server, under the name
+	 * org.javabip.engine:type=Engine,id=&lt;engine id&gt;. The statistics of an earlier engine with the same id that was
+	 * not destroyed are replaced. A failure only costs the statistics, the engine is created anyway.
+	 * 
+	 * @return the name of the MBean, or null if it could not be registered.
+	 */
+	private ObjectName registerStatistics(String id, EngineStatistics statistics) {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		try {
+			ObjectName name = new ObjectName("org.javabip.engine:type=Engine,id=" + ObjectName.quote(id));
+			if (server.isRegistered(name)) {
+				logger.warn("The statistics of an earlier engine {} that was not destroyed are replaced.", id);
+				server.unregisterMBean(name);
+				statisticsNames.values().remove(name);
+			}
+			server.registerMBean(statistics, name);
+			return name;
+		} catch (JMException e) {
+			logger.warn("The statistics of engine {} cannot be registered: {}", id, e.getMessage());
+			return null;
+		}
+	}
+
+	private void unregisterStatistics(ObjectName name) {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		try {
+			if (server.isRegistered(name)) {
+				server.unregisterMBean(name);
+			}
+		} catch (JMException e) {
+			logger.warn("The statistics {} cannot be unregistered: {}", name, e.getMessage());
+		}
+	}
+
 	public boolean destroy(BIPEngine engine) {
 
 		// TODO EXTENSION when it is possible to deregister a component from BIP engine make sure it happens here.
 		// executor.engine().deregister();
 
 		if (TypedActor.get(actorSystem).isTypedActor(engine)) {
+			ObjectName statisticsName = statisticsNames.remove(engine);
+			if (statisticsName != null) {
+				unregisterStatistics(statisticsName);
+			}
+			TraceRecorder traceRecorder = traceRecorders.remove(engine);
+			if (traceRecorder != null) {
+				traceRecorder.close();
+			}
 			TypedActor.get(actorSystem).poisonPill(engine);
 			// TypedActor.get(actorSystem).stop(engine);
 			// Future<Boolean> stopped =
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine.factory;
+
+import net.sf.javabdd.BDDFactory;
+import org.javabip.engine.api.ComponentLatency;
+import org.javabip.engine.BDDBIPEngineImpl;
+import org.javabip.engine.coordinator.DataCoordinatorKernel;
+import org.javabip.engine.coordinator.GlueCoordinatorImpl;
+
+import java.util.List;
+
+/**
+ * The statistics of one engine, registered as an MBean by the {@link EngineFactory}.
+ */
+class EngineStatistics implements EngineStatisticsMBean {
+
+	private final BDDBIPEngineImpl engine;
+	private final GlueCoordinatorImpl glueCoordinator;
+
+	/** The data coordinator of the engine, or null if the glue has no data wires. */
+	private final DataCoordinatorKernel dataCoordinator;
+
+	EngineStatistics(BDDBIPEngineImpl engine, GlueCoordinatorImpl glueCoordinator,
+			DataCoordinatorKernel dataCoordinator) {
+		this.engine = engine;
+		this.glueCoordinator = glueCoordinator;
+		this.dataCoordinator = dataCoordinator;
+	}
+
+	public int getNodeTableSize() {
+		return engine.getBDDManager().getNodeTableSize();
+	}
+
+	public int getLiveNodes() {
+		return engine.getBDDManager().getNodeNum();
+	}
+
+	public int getCacheSize() {
+		return engine.getBDDManager().getCacheSize();
+	}
+
+	public int getGarbageCollections() {
+		return engine.getBDDManager().getGCStats().num;
+	}
+
+	public long getGarbageCollectionTime() {
+		return engine.getBDDManager().getGCStats().sumtime;
+	}
+
+	public int getFreeNodesAfterLastGarbageCollection() {
+		return engine.getBDDManager().getGCStats().freenodes;
+	}
+
+	public long getUniqueTableAccesses() {
+		return cacheStats().uniqueAccess;
+	}
+
+	public long getUniqueTableHits() {
+		return cacheStats().uniqueHit;
+	}
+
+	public long getUniqueTableMisses() {
+		return cacheStats().uniqueMiss;
+	}
+
+	public long getOperationCacheHits() {
+		return cacheStats().opHit;
+	}
+
+	public long getOperationCacheMisses() {
+		return cacheStats().opMiss;
+	}
+
+	public int getReorders() {
+		return engine.getBDDManager().getReorderTimes();
+	}
+
+	public long getLastReorderTime() {
+		return engine.getBDDManager().getReorderStats().time;
+	}
+
+	public int getLastReorderNodesBefore() {
+		return engine.getBDDManager().getReorderStats().usednum_before;
+	}
+
+	public int getLastReorderNodesAfter() {
+		return engine.getBDDManager().getReorderStats().usednum_after;
+	}
+
+	public int getTemporaryConstraints() {
+		return engine.getLastTemporaryConstraints();
+	}
+
+	public int getInformedComponents() {
+		return glueCoordinator.getNumberOfInformedComponents();
+	}
+
+	public long getExecutedInteractions() {
+		return engine.getExecutedInteractions();
+	}
+
+	public long getExecutedPorts() {
+		return engine.getExecutedPorts();
+	}
+
+	public long getGuardResultCacheHits() {
+		return dataCoordinator == null ? 0 : dataCoordinator.getGuardResultCacheHits();
+	}
+
+	public long getGuardResultCacheMisses() {
+		return dataCoordinator == null ? 0 : dataCoordinator.getGuardResultCacheMisses();
+	}
+
+	public String[] getStragglers() {
+		List<ComponentLatency> stragglers = engine.getMetrics().getStragglers(10, 99);
+		String[] report = new String[stragglers.size()];
+		for (int i = 0; i < report.length; i++) {
+			report[i] = stragglers.get(i).toString();
+		}
+		return report;
+	}
+
+	private BDDFactory.CacheStats cacheStats() {
+		return engine.getBDDManager().getCacheStats();
+	}
+
+}
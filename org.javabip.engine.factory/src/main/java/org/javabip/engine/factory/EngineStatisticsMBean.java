@@ -0,0 +1,117 @@
+/*
+ * Copyright 2012-2016 École polytechnique fédérale de Lausanne (EPFL), Switzerland
+ * Copyright 2012-2016 Crossing-Tech SA, Switzerland
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Author: Simon Bliudze, Anastasia Mavridou, Radoslaw Szymanek and Alina Zolotukhina
+ */
+package org.javabip.engine.factory;
+
+/**
+ * Management interface exposing the statistics of one engine and of its BDD manager over JMX. The values are read
+ * while the engine runs, without stopping it, so they may be slightly out of date.
+ */
+public interface EngineStatisticsMBean {
+
+	/**
+	 * @return the number of nodes allocated in the node table of the BDD manager.
+	 */
+	int getNodeTableSize();
+
+	/**
+	 * @return the number of live nodes in the BDD manager.
+	 */
+	int getLiveNodes();
+
+	/**
+	 * @return the size of the operation cache of the BDD manager.
+	 */
+	int getCacheSize();
+
+	/**
+	 * @return the number of garbage collections performed by the BDD manager.
+	 */
+	int getGarbageCollections();
+
+	/**
+	 * @return the total time spent in the garbage collections of the BDD manager, in milliseconds.
+	 */
+	long getGarbageCollectionTime();
+
+	/**
+	 * @return the number of free nodes after the last garbage collection.
+	 */
+	int getFreeNodesAfterLastGarbageCollection();
+
+	long getUniqueTableAccesses();
+
+	long getUniqueTableHits();
+
+	long getUniqueTableMisses();
+
+	long getOperationCacheHits();
+
+	long getOperationCacheMisses();
+
+	/**
+	 * @return the number of variable reorderings performed by the BDD manager.
+	 */
+	int getReorders();
+
+	/**
+	 * @return the duration of the last reordering, in milliseconds.
+	 */
+	long getLastReorderTime();
+
+	int getLastReorderNodesBefore();
+
+	int getLastReorderNodesAfter();
+
+	/**
+	 * @return the number of temporary constraints taken into account in the last execution cycle.
+	 */
+	int getTemporaryConstraints();
+
+	/**
+	 * @return the number of components that have informed about their current state in the current execution cycle.
+	 */
+	int getInformedComponents();
+
+	/**
+	 * @return the number of interactions executed so far.
+	 */
+	long getExecutedInteractions();
+
+	/**
+	 * @return the number of ports executed so far, summed over all interactions.
+	 */
+	long getExecutedPorts();
+
+	/**
+	 * @return the number of guard evaluations answered from the guard result cache, zero if there is none.
+	 */
+	long getGuardResultCacheHits();
+
+	/**
+	 * @return the number of guard evaluations sent to the components despite the guard result cache, zero if there is
+	 *         none.
+	 */
+	long getGuardResultCacheMisses();
+
+	/**
+	 * @return the ten components with the longest 99th percentile of their latest inform latencies, slowest first.
+	 */
+	String[] getStragglers();
+
+}